@@ -0,0 +1,53 @@
+package com.moneymanager;
+
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic transaction histories shared by the benchmarks, so every run
+ * measures the same data
+ */
+public final class BenchmarkData {
+    private static final long SEED = 42;
+    private static final long START_MILLIS = 1_577_836_800_000L; // 2020-01-01T00:00:00Z
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private BenchmarkData() {}
+
+    /**
+     * Transactions spread over about five years and the default categories, newest first
+     * @param size Number of transactions
+     */
+    public static List<Transaction> transactions(int size) {
+        return transactions(size, Category.DEFAULT_NAMES.length);
+    }
+
+    /**
+     * @param size Number of transactions
+     * @param categoryCount Number of distinct categories, default ones first
+     */
+    public static List<Transaction> transactions(int size, int categoryCount) {
+        Random random = new Random(SEED);
+        short[] categories = new short[categoryCount];
+        for (int i = 0; i < categoryCount; i++) {
+            categories[i] = Category.idOf(i < Category.DEFAULT_NAMES.length ? Category.DEFAULT_NAMES[i] : "Category " + i);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(size);
+        long spanMillis = 5 * 365 * DAY_MILLIS;
+        for (int i = size; i > 0; i--) {
+            long dateMillis = START_MILLIS + spanMillis * i / size + random.nextInt((int) DAY_MILLIS);
+            boolean income = random.nextInt(5) == 0;
+            long amountCents = income ? 100_000 + random.nextInt(400_000) : 100 + random.nextInt(20_000);
+            transactions.add(new Transaction(i, 1, dateMillis, amountCents,
+                                             income ? TransactionType.INCOME : TransactionType.EXPENSE,
+                                             categories[random.nextInt(categoryCount)], "Transaction " + i));
+        }
+        return transactions;
+    }
+}
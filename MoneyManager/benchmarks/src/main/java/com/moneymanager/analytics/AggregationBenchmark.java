@@ -0,0 +1,43 @@
+package com.moneymanager.analytics;
+
+import com.moneymanager.BenchmarkData;
+import com.moneymanager.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The analytics aggregation: building the columnar store from transactions
+ * and computing totals, category breakdown and the monthly series from it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<Transaction> transactions;
+    private TransactionColumns columns;
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(size);
+        columns = TransactionColumns.of(transactions);
+    }
+
+    @Benchmark
+    public TransactionColumns buildColumns() {
+        return TransactionColumns.of(transactions);
+    }
+
+    @Benchmark
+    public AnalyticsResult aggregate() {
+        return AnalyticsEngine.aggregate(columns);
+    }
+}
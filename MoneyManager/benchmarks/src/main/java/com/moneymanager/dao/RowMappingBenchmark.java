@@ -0,0 +1,75 @@
+package com.moneymanager.dao;
+
+import com.moneymanager.BenchmarkData;
+import com.moneymanager.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping result set rows to transactions, as done when the transaction table
+ * loads a page. The result set is an in-memory stand-in so only the mapping
+ * and value conversions are measured, not the driver or the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private Object[][] rows;
+
+    @Setup
+    public void setUp() {
+        List<Transaction> transactions = BenchmarkData.transactions(size);
+        rows = new Object[size][];
+        for (int i = 0; i < size; i++) {
+            Transaction t = transactions.get(i);
+            // Amounts as the text the driver returns for a DECIMAL column
+            rows[i] = new Object[]{t.getId(), t.getUserId(), new Timestamp(t.getDateMillis()),
+                                   t.getType().getDisplayName(), t.getCategory(), t.getDescription(),
+                                   BigDecimal.valueOf(t.getAmountCents(), 2).toPlainString()};
+        }
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole blackhole) throws SQLException {
+        ResultSet rs = resultSet(rows);
+        while (rs.next()) {
+            blackhole.consume(TransactionDAO.mapRow(rs));
+        }
+    }
+
+    /**
+     * Forward-only result set over rows in the column order of TransactionDAO's standard select
+     */
+    private static ResultSet resultSet(Object[][] rows) {
+        String[] columns = {"id", "user_id", "transaction_date", "type", "category", "description", "amount"};
+        int[] cursor = {-1};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("next")) {
+                    return ++cursor[0] < rows.length;
+                }
+                String column = (String) args[0];
+                for (int i = 0; i < columns.length; i++) {
+                    if (columns[i].equals(column)) {
+                        return rows[cursor[0]][i];
+                    }
+                }
+                throw new SQLException("Unknown column " + column);
+            });
+    }
+}
@@ -0,0 +1,128 @@
+package com.moneymanager.model;
+
+import com.moneymanager.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, formatting and summing amounts with {@link Money} and primitive
+ * cents, against the BigDecimal, double, String.format and boxed map paths
+ * they replace. Each operation covers a batch of amounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"10000"})
+    public int size;
+
+    private String[] texts;
+    private long[] cents;
+    private short[] categoryIds;
+    private String[] categories;
+    private final StringBuilder buffer = new StringBuilder(32);
+    private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+
+    @Setup
+    public void setUp() {
+        List<Transaction> transactions = BenchmarkData.transactions(size);
+        texts = new String[size];
+        cents = new long[size];
+        categoryIds = new short[size];
+        categories = new String[size];
+        for (int i = 0; i < size; i++) {
+            Transaction t = transactions.get(i);
+            cents[i] = t.getAmountCents();
+            texts[i] = BigDecimal.valueOf(t.getAmountCents(), 2).toPlainString();
+            categoryIds[i] = t.getCategoryId();
+            categories[i] = t.getCategory();
+        }
+    }
+
+    @Benchmark
+    public long parseMoney() {
+        long total = 0;
+        for (String text : texts) {
+            total += Money.parse(text);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long parseBigDecimal() {
+        long total = 0;
+        for (String text : texts) {
+            total += Transaction.toCents(new BigDecimal(text));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long parseDouble() {
+        long total = 0;
+        for (String text : texts) {
+            total += Math.round(Double.parseDouble(text) * 100);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void formatMoney(Blackhole blackhole) {
+        for (long amount : cents) {
+            blackhole.consume(Money.format(amount));
+        }
+    }
+
+    @Benchmark
+    public void appendMoney(Blackhole blackhole) {
+        for (long amount : cents) {
+            buffer.setLength(0);
+            Money.appendTo(buffer, amount);
+            blackhole.consume(buffer);
+        }
+    }
+
+    @Benchmark
+    public void formatNumberFormat(Blackhole blackhole) {
+        for (long amount : cents) {
+            blackhole.consume(currencyFormat.format(BigDecimal.valueOf(amount, 2)));
+        }
+    }
+
+    @Benchmark
+    public void formatStringFormat(Blackhole blackhole) {
+        for (long amount : cents) {
+            blackhole.consume(String.format("$%.2f", amount / 100.0));
+        }
+    }
+
+    @Benchmark
+    public long[] sumCents() {
+        long[] totals = new long[Category.count()];
+        for (int i = 0; i < cents.length; i++) {
+            totals[categoryIds[i]] += cents[i];
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<String, Double> sumBoxed() {
+        Map<String, Double> totals = new HashMap<>();
+        for (int i = 0; i < cents.length; i++) {
+            totals.merge(categories[i], cents[i] / 100.0, Double::sum);
+        }
+        return totals;
+    }
+}
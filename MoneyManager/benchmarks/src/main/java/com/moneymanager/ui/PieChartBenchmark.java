@@ -0,0 +1,62 @@
+package com.moneymanager.ui;
+
+import com.moneymanager.BenchmarkData;
+import com.moneymanager.analytics.AnalyticsEngine;
+import com.moneymanager.analytics.AnalyticsResult;
+import com.moneymanager.analytics.TransactionColumns;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Painting the analytics pie chart and its legend into an offscreen image,
+ * by number of expense categories: a repaint served from the panel's cached
+ * rendering, and a full render as done when the data or size changes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PieChartBenchmark {
+
+    @Param({"5", "9", "40"})
+    public int categories;
+
+    private AnalyticsDashboard.PieChartPanel panel;
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() {
+        AnalyticsResult result = AnalyticsEngine.aggregate(
+            TransactionColumns.of(BenchmarkData.transactions(10_000, categories)));
+        panel = new AnalyticsDashboard.PieChartPanel(result.getCategoryBreakdown(), result.getTotalExpenseCents());
+        panel.setSize(panel.getPreferredSize());
+        image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        Graphics2D g = image.createGraphics();
+        try {
+            panel.paint(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage render() {
+        Graphics2D g = image.createGraphics();
+        try {
+            panel.render(g, panel.getWidth(), panel.getHeight());
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
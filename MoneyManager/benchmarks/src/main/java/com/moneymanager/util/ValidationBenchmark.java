@@ -0,0 +1,72 @@
+package com.moneymanager.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidationUtil over batches of mixed valid and invalid input, as entered
+ * on the login, registration and transaction forms
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private String[] emails;
+    private String[] usernames;
+    private String[] fullNames;
+    private String[] amounts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        emails = new String[size];
+        usernames = new String[size];
+        fullNames = new String[size];
+        amounts = new String[size];
+        for (int i = 0; i < size; i++) {
+            boolean valid = random.nextInt(4) != 0;
+            emails[i] = valid ? "user" + i + ".name@example" + i % 7 + ".com" : "user" + i + "@invalid";
+            usernames[i] = valid ? "user_" + i : "u-" + i + "!";
+            fullNames[i] = valid ? "Jane Doe" + " Smith".repeat(i % 3) : "J4ne " + i;
+            amounts[i] = valid ? (random.nextInt(100_000) / 100.0) + "" : "12.3.4";
+        }
+    }
+
+    @Benchmark
+    public void isValidEmail(Blackhole blackhole) {
+        for (String email : emails) {
+            blackhole.consume(ValidationUtil.isValidEmail(email));
+        }
+    }
+
+    @Benchmark
+    public void isValidUsername(Blackhole blackhole) {
+        for (String username : usernames) {
+            blackhole.consume(ValidationUtil.isValidUsername(username));
+        }
+    }
+
+    @Benchmark
+    public void isValidFullName(Blackhole blackhole) {
+        for (String fullName : fullNames) {
+            blackhole.consume(ValidationUtil.isValidFullName(fullName));
+        }
+    }
+
+    @Benchmark
+    public void isValidPositiveNumber(Blackhole blackhole) {
+        for (String amount : amounts) {
+            blackhole.consume(ValidationUtil.isValidPositiveNumber(amount));
+        }
+    }
+}
@@ -1,16 +1,33 @@
 package com.moneymanager;
 
+import com.moneymanager.dao.SchemaMigrator;
 import com.moneymanager.ui.ModernLoginFrame;
+import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
+import java.sql.SQLException;
 
 /**
  * Main class for the Money Manager application
  */
 public class Main {
     public static void main(String[] args) {
+        // Bring the schema up to date before any window can query it
+        String migrationError = null;
+        try {
+            new SchemaMigrator(new SchemaMigrator.Config()).migrate();
+        } catch (SQLException e) {
+            System.err.println("Schema migration failed: " + e.getMessage());
+            migrationError = e.getMessage();
+        }
+        String error = migrationError;
+
         // Launch the modern application on the Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                JOptionPane.showMessageDialog(null, "Unable to update the database schema:\n" + error,
+                                              "Database Error", JOptionPane.ERROR_MESSAGE);
+            }
             new ModernLoginFrame().setVisible(true);
         });
     }
-}
\ No newline at end of file
+}
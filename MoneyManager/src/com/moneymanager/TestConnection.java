@@ -13,9 +13,8 @@ public class TestConnection {
         System.out.println("Testing database connection...");
         
         // Test 1: Basic connection
-        try {
-            Connection conn = DatabaseConnection.getConnection();
-            if (conn != null && !conn.isClosed()) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!conn.isClosed()) {
                 System.out.println("✓ Database connection successful!");
                 
                 // Test 2: Check if users table exists
@@ -42,7 +41,7 @@ public class TestConnection {
                         
                     } else {
                         System.out.println("✗ ERROR: Users table does not exist!");
-                        System.out.println("Please run the database setup script: database/money_manager.sql");
+                        System.out.println("Start the application or run com.moneymanager.tools.MigrateSchema to create the tables");
                     }
                 } catch (Exception e) {
                     System.out.println("✗ ERROR checking users table: " + e.getMessage());
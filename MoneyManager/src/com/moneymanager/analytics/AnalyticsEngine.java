@@ -0,0 +1,156 @@
+package com.moneymanager.analytics;
+
+import java.time.YearMonth;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless aggregation over {@link TransactionColumns}.
+ * The rows are split into chunks that are summed in parallel on the common
+ * fork/join pool into primitive arrays, then merged. Small inputs are summed
+ * on the calling thread.
+ */
+public final class AnalyticsEngine {
+    // Rows summed by one fork/join leaf
+    static final int CHUNK_SIZE = Integer.getInteger("moneymanager.analytics.chunkSize", 1 << 16);
+    // Longest date span for which a day-to-month lookup table is built (about 11,000 years)
+    private static final long MAX_LOOKUP_DAYS = 1 << 22;
+
+    private AnalyticsEngine() {}
+
+    /**
+     * Compute totals, category breakdown and monthly series
+     * @param columns Rows to aggregate; must not be modified while this runs
+     * @return Aggregates, {@link AnalyticsResult#EMPTY} for no rows
+     */
+    public static AnalyticsResult aggregate(TransactionColumns columns) {
+        if (columns.size == 0) {
+            return AnalyticsResult.EMPTY;
+        }
+        int firstMonth = epochMonth(columns.minEpochDay);
+        int monthCount = epochMonth(columns.maxEpochDay) - firstMonth + 1;
+        int categoryCount = columns.maxCategoryId + 1;
+
+        // Month index of every day in range, so the scan needs no date arithmetic
+        long daySpan = columns.maxEpochDay - columns.minEpochDay + 1;
+        int[] monthOfDay = null;
+        if (daySpan <= MAX_LOOKUP_DAYS) {
+            monthOfDay = new int[(int) daySpan];
+            for (int day = 0; day < monthOfDay.length; day++) {
+                monthOfDay[day] = epochMonth(columns.minEpochDay + day) - firstMonth;
+            }
+        }
+
+        ChunkTask task = new ChunkTask(columns, 0, columns.size, firstMonth, monthOfDay, monthCount, categoryCount);
+        Partial total = columns.size <= CHUNK_SIZE ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+
+        return new AnalyticsResult(total.incomeCents, total.expenseCents, total.categoryExpenseCents,
+                                   YearMonth.of(1970 + Math.floorDiv(firstMonth, 12), Math.floorMod(firstMonth, 12) + 1),
+                                   total.monthlyIncomeCents, total.monthlyExpenseCents);
+    }
+
+    /**
+     * Months since January 1970 for a day since 1970-01-01, without allocating a date.
+     * Uses the days-to-civil conversion from Howard Hinnant's date algorithms.
+     */
+    static int epochMonth(long epochDay) {
+        long z = epochDay + 719_468;
+        long era = (z >= 0 ? z : z - 146_096) / 146_097;
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) ((year - 1970) * 12 + month - 1);
+    }
+
+    /**
+     * Sums of one range of rows
+     */
+    private static final class Partial {
+        long incomeCents;
+        long expenseCents;
+        final long[] categoryExpenseCents;
+        final long[] monthlyIncomeCents;
+        final long[] monthlyExpenseCents;
+
+        Partial(int monthCount, int categoryCount) {
+            categoryExpenseCents = new long[categoryCount];
+            monthlyIncomeCents = new long[monthCount];
+            monthlyExpenseCents = new long[monthCount];
+        }
+
+        Partial merge(Partial other) {
+            incomeCents += other.incomeCents;
+            expenseCents += other.expenseCents;
+            for (int i = 0; i < categoryExpenseCents.length; i++) {
+                categoryExpenseCents[i] += other.categoryExpenseCents[i];
+            }
+            for (int i = 0; i < monthlyIncomeCents.length; i++) {
+                monthlyIncomeCents[i] += other.monthlyIncomeCents[i];
+                monthlyExpenseCents[i] += other.monthlyExpenseCents[i];
+            }
+            return this;
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<Partial> {
+        private final TransactionColumns columns;
+        private final int from;
+        private final int to;
+        private final int firstMonth;
+        private final int[] monthOfDay;
+        private final int monthCount;
+        private final int categoryCount;
+
+        ChunkTask(TransactionColumns columns, int from, int to, int firstMonth, int[] monthOfDay,
+                  int monthCount, int categoryCount) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.firstMonth = firstMonth;
+            this.monthOfDay = monthOfDay;
+            this.monthCount = monthCount;
+            this.categoryCount = categoryCount;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                ChunkTask left = new ChunkTask(columns, from, mid, firstMonth, monthOfDay, monthCount, categoryCount);
+                ChunkTask right = new ChunkTask(columns, mid, to, firstMonth, monthOfDay, monthCount, categoryCount);
+                left.fork();
+                Partial partial = right.compute();
+                return partial.merge(left.join());
+            }
+            return sum();
+        }
+
+        private Partial sum() {
+            Partial partial = new Partial(monthCount, categoryCount);
+            long[] epochDays = columns.epochDays;
+            long[] cents = columns.cents;
+            byte[] types = columns.types;
+            short[] categoryIds = columns.categoryIds;
+
+            long minDay = columns.minEpochDay;
+            for (int i = from; i < to; i++) {
+                int month = monthOfDay != null
+                    ? monthOfDay[(int) (epochDays[i] - minDay)]
+                    : epochMonth(epochDays[i]) - firstMonth;
+                long amount = cents[i];
+                if (types[i] == TransactionColumns.TYPE_INCOME) {
+                    partial.incomeCents += amount;
+                    partial.monthlyIncomeCents[month] += amount;
+                } else {
+                    partial.expenseCents += amount;
+                    partial.monthlyExpenseCents[month] += amount;
+                    partial.categoryExpenseCents[categoryIds[i]] += amount;
+                }
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.moneymanager.analytics;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable output of {@link AnalyticsEngine}: totals, per-category expenses
+ * and a dense monthly income/expense series. Amounts are in cents.
+ */
+public final class AnalyticsResult {
+    /** Result for a user without transactions */
+    public static final AnalyticsResult EMPTY =
+        new AnalyticsResult(0, 0, new long[0], null, new long[0], new long[0]);
+
+    private final long totalIncomeCents;
+    private final long totalExpenseCents;
+    private final List<CategoryTotal> categoryBreakdown;
+    private final YearMonth firstMonth;
+    private final long[] monthlyIncomeCents;
+    private final long[] monthlyExpenseCents;
+
+    AnalyticsResult(long totalIncomeCents, long totalExpenseCents, long[] categoryExpenseCents,
+                    YearMonth firstMonth, long[] monthlyIncomeCents, long[] monthlyExpenseCents) {
+        this.totalIncomeCents = totalIncomeCents;
+        this.totalExpenseCents = totalExpenseCents;
+        this.firstMonth = firstMonth;
+        this.monthlyIncomeCents = monthlyIncomeCents;
+        this.monthlyExpenseCents = monthlyExpenseCents;
+
+        List<CategoryTotal> breakdown = new ArrayList<>();
+        for (int id = 0; id < categoryExpenseCents.length; id++) {
+            if (categoryExpenseCents[id] > 0) {
+                breakdown.add(new CategoryTotal((short) id, categoryExpenseCents[id]));
+            }
+        }
+        breakdown.sort((a, b) -> Long.compare(b.getCents(), a.getCents()));
+        this.categoryBreakdown = Collections.unmodifiableList(breakdown);
+    }
+
+    public long getTotalIncomeCents() {
+        return totalIncomeCents;
+    }
+
+    public long getTotalExpenseCents() {
+        return totalExpenseCents;
+    }
+
+    /**
+     * Income minus expenses
+     */
+    public long getBalanceCents() {
+        return totalIncomeCents - totalExpenseCents;
+    }
+
+    /**
+     * Expenses as a percentage of income, 0 when there is no income
+     */
+    public double getExpenseRatio() {
+        return totalIncomeCents > 0 ? totalExpenseCents * 100.0 / totalIncomeCents : 0;
+    }
+
+    /**
+     * Average expenses over the months that have any expenses
+     */
+    public long getAverageMonthlyExpenseCents() {
+        int months = 0;
+        for (long cents : monthlyExpenseCents) {
+            if (cents != 0) {
+                months++;
+            }
+        }
+        return months == 0 ? 0 : totalExpenseCents / months;
+    }
+
+    /**
+     * Categories with expenses, largest first
+     */
+    public List<CategoryTotal> getCategoryBreakdown() {
+        return categoryBreakdown;
+    }
+
+    /**
+     * Number of months from the first to the last transaction, including empty months
+     */
+    public int getMonthCount() {
+        return monthlyIncomeCents.length;
+    }
+
+    /**
+     * @param index 0 for the month of the oldest transaction
+     */
+    public YearMonth getMonth(int index) {
+        return firstMonth.plusMonths(index);
+    }
+
+    public long getMonthlyIncomeCents(int index) {
+        return monthlyIncomeCents[index];
+    }
+
+    public long getMonthlyExpenseCents(int index) {
+        return monthlyExpenseCents[index];
+    }
+}
@@ -0,0 +1,41 @@
+package com.moneymanager.analytics;
+
+import com.moneymanager.model.Category;
+
+/**
+ * Expense total of one category
+ */
+public final class CategoryTotal {
+    private final short categoryId;
+    private final long cents;
+
+    CategoryTotal(short categoryId, long cents) {
+        this.categoryId = categoryId;
+        this.cents = cents;
+    }
+
+    public short getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategory() {
+        return Category.nameOf(categoryId);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CategoryTotal)) return false;
+        CategoryTotal other = (CategoryTotal) o;
+        return categoryId == other.categoryId && cents == other.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * categoryId + Long.hashCode(cents);
+    }
+}
@@ -0,0 +1,110 @@
+package com.moneymanager.analytics;
+
+import com.moneymanager.model.MonthlyRollup;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented store of transactions for {@link AnalyticsEngine}.
+ * Each attribute lives in its own primitive array so aggregation scans
+ * contiguous memory without boxing or per-row objects.
+ * <p>
+ * Not thread safe while rows are being added; aggregation only reads.
+ */
+public final class TransactionColumns {
+    static final byte TYPE_INCOME = (byte) TransactionType.INCOME.ordinal();
+    static final byte TYPE_EXPENSE = (byte) TransactionType.EXPENSE.ordinal();
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    int size;
+    int[] ids;
+    long[] epochDays;
+    long[] cents;
+    byte[] types;
+    short[] categoryIds;
+
+    // Ranges needed to size the aggregation arrays
+    long minEpochDay = Long.MAX_VALUE;
+    long maxEpochDay = Long.MIN_VALUE;
+    int maxCategoryId = -1;
+
+    public TransactionColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        ids = new int[capacity];
+        epochDays = new long[capacity];
+        cents = new long[capacity];
+        types = new byte[capacity];
+        categoryIds = new short[capacity];
+    }
+
+    /**
+     * Columns holding one row per transaction
+     */
+    public static TransactionColumns of(List<Transaction> transactions) {
+        TransactionColumns columns = new TransactionColumns(transactions.size());
+        for (Transaction t : transactions) {
+            columns.add(t);
+        }
+        return columns;
+    }
+
+    /**
+     * Columns holding one row per rollup, dated on the first day of its month.
+     * Aggregates over these rows equal the aggregates over the underlying transactions.
+     */
+    public static TransactionColumns ofRollups(List<MonthlyRollup> rollups) {
+        TransactionColumns columns = new TransactionColumns(rollups.size());
+        for (MonthlyRollup rollup : rollups) {
+            columns.add(0, YearMonth.parse(rollup.getMonth()).atDay(1).toEpochDay(),
+                        rollup.getTotalCents(), rollup.getType(), rollup.getCategoryId());
+        }
+        return columns;
+    }
+
+    public void add(Transaction transaction) {
+        add(transaction.getId(), Math.floorDiv(transaction.getDateMillis(), MILLIS_PER_DAY),
+            transaction.getAmountCents(), transaction.getType(), transaction.getCategoryId());
+    }
+
+    /**
+     * Append one row
+     * @param id Transaction ID, or 0 for aggregated rows
+     * @param epochDay Day of the transaction in UTC, counted from 1970-01-01
+     * @param amountCents Unsigned amount in cents
+     * @param type Income or expense
+     * @param categoryId Interned category id
+     */
+    public void add(int id, long epochDay, long amountCents, TransactionType type, short categoryId) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        epochDays[size] = epochDay;
+        cents[size] = amountCents;
+        types[size] = (byte) type.ordinal();
+        categoryIds[size] = categoryId;
+        size++;
+
+        minEpochDay = Math.min(minEpochDay, epochDay);
+        maxEpochDay = Math.max(maxEpochDay, epochDay);
+        maxCategoryId = Math.max(maxCategoryId, categoryId);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        types = Arrays.copyOf(types, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+    }
+}
@@ -0,0 +1,224 @@
+package com.moneymanager.analytics;
+
+import com.moneymanager.model.DailyTotal;
+import com.moneymanager.model.TransactionType;
+
+import java.util.List;
+
+/**
+ * Immutable income, expense and running balance series over consecutive
+ * days, weeks or months, with no gaps between the first and last bucket.
+ * Amounts are in cents; the balance of a bucket includes all earlier ones.
+ */
+public final class TrendSeries {
+
+    public enum Resolution {
+        DAY("Daily"), WEEK("Weekly"), MONTH("Monthly");
+
+        private final String displayName;
+
+        Resolution(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    public enum Line {
+        INCOME, EXPENSE, BALANCE
+    }
+
+    public static final TrendSeries EMPTY = new TrendSeries(Resolution.MONTH, new long[0], new long[0], new long[0]);
+
+    private final Resolution resolution;
+    // First day of every bucket, as days since 1970-01-01
+    private final long[] startEpochDays;
+    private final long[][] values;
+
+    private TrendSeries(Resolution resolution, long[] startEpochDays, long[] incomeCents, long[] expenseCents) {
+        this.resolution = resolution;
+        this.startEpochDays = startEpochDays;
+        long[] balanceCents = new long[startEpochDays.length];
+        long balance = 0;
+        for (int i = 0; i < balanceCents.length; i++) {
+            balance += incomeCents[i] - expenseCents[i];
+            balanceCents[i] = balance;
+        }
+        this.values = new long[][]{incomeCents, expenseCents, balanceCents};
+    }
+
+    /**
+     * Monthly series of an analytics result
+     */
+    public static TrendSeries ofMonths(AnalyticsResult result) {
+        int months = result.getMonthCount();
+        long[] starts = new long[months];
+        long[] income = new long[months];
+        long[] expense = new long[months];
+        for (int i = 0; i < months; i++) {
+            starts[i] = result.getMonth(i).atDay(1).toEpochDay();
+            income[i] = result.getMonthlyIncomeCents(i);
+            expense[i] = result.getMonthlyExpenseCents(i);
+        }
+        return new TrendSeries(Resolution.MONTH, starts, income, expense);
+    }
+
+    /**
+     * Daily series from per-day totals
+     * @param totals Totals sorted by day, as returned by {@code TransactionDAO.aggregateByDay}
+     */
+    public static TrendSeries ofDays(List<DailyTotal> totals) {
+        if (totals.isEmpty()) {
+            return new TrendSeries(Resolution.DAY, new long[0], new long[0], new long[0]);
+        }
+        long firstDay = totals.get(0).getEpochDay();
+        int days = (int) (totals.get(totals.size() - 1).getEpochDay() - firstDay + 1);
+        long[] starts = new long[days];
+        long[] income = new long[days];
+        long[] expense = new long[days];
+        for (int i = 0; i < days; i++) {
+            starts[i] = firstDay + i;
+        }
+        for (DailyTotal total : totals) {
+            int index = (int) (total.getEpochDay() - firstDay);
+            if (total.getType() == TransactionType.INCOME) {
+                income[index] += total.getTotalCents();
+            } else {
+                expense[index] += total.getTotalCents();
+            }
+        }
+        return new TrendSeries(Resolution.DAY, starts, income, expense);
+    }
+
+    /**
+     * Weekly series, weeks starting on Monday, from a daily series
+     */
+    public TrendSeries toWeeks() {
+        if (resolution != Resolution.DAY) {
+            throw new IllegalStateException("Weeks can only be built from a daily series");
+        }
+        if (startEpochDays.length == 0) {
+            return new TrendSeries(Resolution.WEEK, new long[0], new long[0], new long[0]);
+        }
+        // 1970-01-01 was a Thursday
+        long firstWeek = weekStart(startEpochDays[0]);
+        int weeks = (int) ((weekStart(startEpochDays[startEpochDays.length - 1]) - firstWeek) / 7 + 1);
+        long[] starts = new long[weeks];
+        long[] income = new long[weeks];
+        long[] expense = new long[weeks];
+        for (int i = 0; i < weeks; i++) {
+            starts[i] = firstWeek + 7L * i;
+        }
+        for (int day = 0; day < startEpochDays.length; day++) {
+            int week = (int) ((startEpochDays[day] - firstWeek) / 7);
+            income[week] += values[0][day];
+            expense[week] += values[1][day];
+        }
+        return new TrendSeries(Resolution.WEEK, starts, income, expense);
+    }
+
+    private static long weekStart(long epochDay) {
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Number of buckets
+     */
+    public int size() {
+        return startEpochDays.length;
+    }
+
+    /**
+     * First day of a bucket, as days since 1970-01-01
+     */
+    public long getStartEpochDay(int index) {
+        return startEpochDays[index];
+    }
+
+    public long get(Line line, int index) {
+        return values[line.ordinal()][index];
+    }
+
+    /**
+     * Smallest and largest value of a line over a range of buckets
+     * @return {min, max}
+     */
+    public long[] range(Line line, int from, int to) {
+        long[] series = values[line.ordinal()];
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, series[i]);
+            max = Math.max(max, series[i]);
+        }
+        return new long[]{min, max};
+    }
+
+    /**
+     * Pick at most maxPoints buckets of a range that preserve the visual shape
+     * of a line, using the largest-triangle-three-buckets algorithm. The first
+     * and last bucket of the range are always included. Runs in time linear
+     * in the range, so the cost of drawing the result depends only on
+     * maxPoints.
+     * @return Bucket indexes in ascending order
+     */
+    public int[] downsample(Line line, int from, int to, int maxPoints) {
+        long[] series = values[line.ordinal()];
+        int count = to - from;
+        if (count <= maxPoints || maxPoints < 3) {
+            int[] all = new int[Math.max(count, 0)];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[maxPoints];
+        sampled[0] = from;
+        // Inner buckets of the range, excluding the fixed first and last point
+        double bucketSize = (double) (count - 2) / (maxPoints - 2);
+        int previous = from;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            // Average of the next bucket is the third corner of the triangle
+            int nextStart = from + (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(from + (int) ((bucket + 2) * bucketSize) + 1, to);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += series[i];
+            }
+            averageX /= nextEnd - nextStart;
+            averageY /= nextEnd - nextStart;
+
+            int start = from + (int) (bucket * bucketSize) + 1;
+            int end = from + (int) ((bucket + 1) * bucketSize) + 1;
+            double previousY = series[previous];
+            double largestArea = -1;
+            int picked = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previous - averageX) * (series[i] - previousY)
+                                       - (previous - i) * (averageY - previousY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    picked = i;
+                }
+            }
+            sampled[bucket + 1] = picked;
+            previous = picked;
+        }
+        sampled[maxPoints - 1] = to - 1;
+        return sampled;
+    }
+}
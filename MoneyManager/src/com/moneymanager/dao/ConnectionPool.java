@@ -0,0 +1,477 @@
+package com.moneymanager.dao;
+
+import com.moneymanager.metrics.LatencyHistogram;
+import com.moneymanager.metrics.QueryMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections handed out are proxies whose close() returns the physical
+ * connection to the pool instead of closing the socket. Each physical
+ * connection keeps a {@link StatementCache} so prepared statements survive
+ * across borrows, and statements are wrapped by {@link InstrumentedStatement}
+ * to feed the query metrics.
+ */
+public class ConnectionPool implements ConnectionPoolMXBean {
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Config config;
+
+    // Idle connections, most recently used first
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledConnection, Borrow> borrowed = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    /**
+     * Pool settings. Defaults can be overridden with -Dmoneymanager.pool.* system properties.
+     */
+    public static class Config {
+        public int minIdle = Integer.getInteger("moneymanager.pool.minIdle", 2);
+        public int maxSize = Integer.getInteger("moneymanager.pool.maxSize", 10);
+        public long borrowTimeoutMillis = Long.getLong("moneymanager.pool.borrowTimeoutMillis", 5000);
+        public long idleTimeoutMillis = Long.getLong("moneymanager.pool.idleTimeoutMillis", 300_000);
+        public long maxLifetimeMillis = Long.getLong("moneymanager.pool.maxLifetimeMillis", 1_800_000);
+        // Report connections held longer than this, with the stack that borrowed them; 0 disables
+        // leak detection, which otherwise captures a stack trace on every borrow
+        public long leakThresholdMillis = Long.getLong("moneymanager.pool.leakThresholdMillis", 0);
+        // Connections returned more recently than this are not pinged again on borrow
+        public long validationIntervalMillis = Long.getLong("moneymanager.pool.validationIntervalMillis", 500);
+        public int validationTimeoutSeconds = 2;
+        public long housekeepingPeriodMillis = 30_000;
+        // Prepared statements kept per connection, 0 disables the cache
+        public int statementCacheSize = Integer.getInteger("moneymanager.pool.statementCacheSize", 64);
+    }
+
+    public ConnectionPool(String url, String username, String password, Config config) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, config.housekeepingPeriodMillis,
+                                           config.housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+        fillToMinIdle();
+    }
+
+    /**
+     * Borrow a connection, waiting up to the configured borrow timeout
+     * @return Connection whose close() returns it to the pool
+     * @throws SQLException if the pool is exhausted or a connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + config.borrowTimeoutMillis
+                                       + "ms waiting for a database connection (pool size " + config.maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                if (reserveSlot()) {
+                    pooled = openConnection();
+                } else {
+                    // Housekeeping holds the last slot for a connection it is pre-opening
+                    pooled = awaitIdle(start);
+                }
+            }
+            borrowed.put(pooled, new Borrow(config.leakThresholdMillis > 0));
+            long waited = System.nanoTime() - start;
+            borrowWait.record(waited);
+            return pooled.newHandle(waited);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (now - pooled.createdAt > config.maxLifetimeMillis) {
+                discard(pooled);
+                continue;
+            }
+            if (now - pooled.lastReturnedAt <= config.validationIntervalMillis || isValid(pooled)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(config.validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wait for a connection to be returned or pre-opened, until the borrow timeout
+     */
+    private PooledConnection awaitIdle(long start) throws SQLException {
+        long remaining = config.borrowTimeoutMillis - (System.nanoTime() - start) / 1_000_000;
+        PooledConnection pooled;
+        try {
+            pooled = idle.pollFirst(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (pooled == null) {
+            borrowTimeouts.incrementAndGet();
+            throw new SQLException("Timed out after " + config.borrowTimeoutMillis
+                                   + "ms waiting for a database connection (pool size " + config.maxSize + ")");
+        }
+        return pooled;
+    }
+
+    /**
+     * Count a connection about to be opened against the maximum size
+     * @return false if the pool is already at its maximum size
+     */
+    private boolean reserveSlot() {
+        while (true) {
+            int total = totalConnections.get();
+            if (total >= config.maxSize) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(total, total + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Open a physical connection for a slot taken with {@link #reserveSlot}, giving the slot back if it fails
+     */
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            return new PooledConnection(DriverManager.getConnection(url, username, password));
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.statements.release();
+        try {
+            boolean healthy = !pooled.physical.isClosed();
+            if (healthy && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (healthy && !shutdown) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+                // shutdown() may have drained the idle connections in between
+                if (shutdown && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            } else {
+                discard(pooled);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Evict idle connections beyond the minimum, oldest first
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > config.minIdle) {
+            PooledConnection pooled = it.next();
+            boolean expired = now - pooled.lastReturnedAt > config.idleTimeoutMillis
+                              || now - pooled.createdAt > config.maxLifetimeMillis;
+            if (expired && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+
+        // Report connections held longer than the leak threshold
+        for (Borrow borrow : borrowed.values()) {
+            if (borrow.trace != null && !borrow.reported && now - borrow.borrowedAt > config.leakThresholdMillis) {
+                borrow.reported = true;
+                System.err.println("Possible connection leak: connection held for "
+                                   + (now - borrow.borrowedAt) + "ms by " + borrow.thread);
+                borrow.trace.printStackTrace();
+            }
+        }
+
+        fillToMinIdle();
+    }
+
+    private void fillToMinIdle() {
+        while (!shutdown && idle.size() < config.minIdle && reserveSlot()) {
+            try {
+                PooledConnection pooled = openConnection();
+                idle.offerLast(pooled);
+                if (shutdown && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            } catch (SQLException e) {
+                System.err.println("Unable to pre-open pooled connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Close all idle connections and stop the housekeeping thread.
+     * Borrowed connections are closed as they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return config.maxSize;
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowWait.getCount();
+    }
+
+    @Override
+    public long getBorrowTimeouts() {
+        return borrowTimeouts.get();
+    }
+
+    /**
+     * Borrow waits recorded so far in nanoseconds; compare two with {@link LatencyHistogram#since}
+     */
+    public LatencyHistogram snapshotBorrowWait() {
+        return borrowWait.snapshot();
+    }
+
+    @Override
+    public double getBorrowWaitMeanMillis() {
+        return borrowWait.getMean() / 1_000_000.0;
+    }
+
+    @Override
+    public double getBorrowWaitP99Millis() {
+        return borrowWait.getPercentile(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getBorrowWaitMaxMillis() {
+        return borrowWait.getMax() / 1_000_000.0;
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * Fraction of prepareStatement calls served from a connection's statement cache
+     * @return Ratio between 0 and 1, or 0 before the first prepare
+     */
+    @Override
+    public double getStatementCacheHitRatio() {
+        long hits = statementCacheHits.get();
+        long total = hits + statementCacheMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Physical connection owned by the pool
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastReturnedAt = createdAt;
+        private final StatementCache statements =
+            new StatementCache(config.statementCacheSize, statementCacheHits, statementCacheMisses);
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle(long waitedNanos) {
+            return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(this, waitedNanos));
+        }
+    }
+
+    /**
+     * Logical connection given to callers; only valid until close()
+     */
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        // Closed from worker threads and checked from others, e.g. on cancellation
+        private volatile boolean closed = false;
+        // Borrow wait, recorded in the query metrics by the first statement executed
+        private final AtomicLong poolWaitNanos;
+
+        Handle(PooledConnection pooled, long waitedNanos) {
+            this.pooled = pooled;
+            this.poolWaitNanos = new AtomicLong(QueryMetrics.ENABLED ? waitedNanos : -1);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (closed) {
+                            return null;
+                        }
+                        closed = true;
+                    }
+                    release(pooled);
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", closed]" : "]");
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    if (isCacheablePrepare(method, args)) {
+                        int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        PreparedStatement stmt = pooled.statements.prepare(
+                            pooled.physical, (Connection) proxy, (String) args[0], autoGeneratedKeys);
+                        Statement instrumented = InstrumentedStatement.wrap(PreparedStatement.class, stmt, (String) args[0],
+                                                                            poolWaitNanos);
+                        DbExecutor.track(instrumented);
+                        return instrumented;
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        Statement instrumented = InstrumentedStatement.wrap(method.getReturnType(), (Statement) result, sql,
+                                                                            poolWaitNanos);
+                        DbExecutor.track(instrumented);
+                        return instrumented;
+                    }
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys) go through the cache
+     */
+    private static boolean isCacheablePrepare(Method method, Object[] args) {
+        if (!"prepareStatement".equals(method.getName())) {
+            return false;
+        }
+        Class<?>[] params = method.getParameterTypes();
+        return params.length == 1 || (params.length == 2 && params[1] == int.class);
+    }
+
+    /**
+     * Bookkeeping for a borrowed connection, used for leak detection
+     */
+    private static class Borrow {
+        private final long borrowedAt = System.currentTimeMillis();
+        private final String thread = Thread.currentThread().getName();
+        // Only captured when leak detection is enabled
+        private final Throwable trace;
+        private boolean reported = false;
+
+        Borrow(boolean traceLeaks) {
+            this.trace = traceLeaks ? new Throwable("Connection borrowed here") : null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.moneymanager.dao;
+
+/**
+ * JMX view of the connection pool, registered as {@code com.moneymanager:type=ConnectionPool}
+ */
+public interface ConnectionPoolMXBean {
+    int getTotalConnections();
+
+    int getIdleConnections();
+
+    int getActiveConnections();
+
+    int getMaxSize();
+
+    long getBorrowCount();
+
+    long getBorrowTimeouts();
+
+    double getBorrowWaitMeanMillis();
+
+    double getBorrowWaitP99Millis();
+
+    double getBorrowWaitMaxMillis();
+
+    long getStatementCacheHits();
+
+    long getStatementCacheMisses();
+
+    double getStatementCacheHitRatio();
+}
@@ -1,47 +1,82 @@
 package com.moneymanager.dao;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Database connection utility class
+ * Database connection utility class.
+ * Connections come from a shared {@link ConnectionPool}; closing them returns them to the pool.
+ * The pool is published over JMX as {@code com.moneymanager:type=ConnectionPool}.
  */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/money_manager?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    private static final String URL = "jdbc:mysql://localhost:3306/money_manager?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+                                      + "&useServerPrepStmts=true" // Statements are cached per pooled connection
+                                      + "&rewriteBatchedStatements=true" // Send JDBC batches as multi-row INSERTs
+                                      + "&useCursorFetch=true"; // Statements with a fetch size read through a server-side cursor
     private static final String USERNAME = "root";
     private static final String PASSWORD = "1234567890"; // Update with your MySQL password
     
-    private static Connection connection = null;
+    private static final String POOL_MBEAN_NAME = "com.moneymanager:type=ConnectionPool";
+    
+    private static ConnectionPool pool = null;
     
     /**
-     * Get database connection
+     * Get the shared connection pool, creating it on first use
+     * @return ConnectionPool instance
+     */
+    public static synchronized ConnectionPool getPool() throws ClassNotFoundException {
+        if (pool == null) {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+            pool = new ConnectionPool(URL, USERNAME, PASSWORD, new ConnectionPool.Config());
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(POOL_MBEAN_NAME);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(pool, name);
+            } catch (JMException e) {
+                System.err.println("Unable to register connection pool MBean: " + e.getMessage());
+            }
+        }
+        return pool;
+    }
+    
+    /**
+     * Get database connection from the pool. Callers must close it to return it.
      * @return Connection object
+     * @throws SQLException if the driver is missing, or the pool times out, is interrupted or has been shut down
      */
-    public static Connection getConnection() {
+    public static Connection getConnection() throws SQLException {
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            }
+            return getPool().getConnection();
         } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
-        } catch (SQLException e) {
-            System.err.println("Database connection error: " + e.getMessage());
+            throw new SQLException("MySQL JDBC Driver not found: " + e.getMessage(), e);
         }
-        return connection;
     }
     
     /**
-     * Close database connection
+     * Open an unpooled connection that may send local files with LOAD DATA LOCAL INFILE.
+     * Only bulk-load tools use this; pooled connections never allow local files.
+     * @return New connection, to be closed by the caller
      */
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+    public static Connection openBulkLoadConnection() throws ClassNotFoundException, SQLException {
+        Class.forName("com.mysql.cj.jdbc.Driver");
+        return DriverManager.getConnection(URL + "&allowLoadLocalInfile=true", USERNAME, PASSWORD);
+    }
+    
+    /**
+     * Shut down the connection pool and close all idle connections
+     */
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
         }
     }
     
@@ -50,9 +85,8 @@ public class DatabaseConnection {
      * @return true if connection is successful, false otherwise
      */
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            return conn != null && !conn.isClosed();
+        try (Connection conn = getConnection()) {
+            return !conn.isClosed();
         } catch (SQLException e) {
             System.err.println("Connection test failed: " + e.getMessage());
             return false;
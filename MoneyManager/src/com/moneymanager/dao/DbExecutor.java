@@ -0,0 +1,115 @@
+package com.moneymanager.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor for database work that must not run on the Swing Event Dispatch Thread.
+ * Statements created while a {@link Cancellation} is bound to the current thread are
+ * tracked so that an in-flight query can be cancelled on the server.
+ */
+public class DbExecutor {
+    private static final int THREADS = Integer.getInteger("moneymanager.db.threads", 4);
+    private static final int QUEUE_SIZE = Integer.getInteger("moneymanager.db.queueSize", 256);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        THREADS, THREADS, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(QUEUE_SIZE),
+        r -> {
+            Thread t = new Thread(r, "db-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+    private static final ThreadLocal<Cancellation> current = new ThreadLocal<>();
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private DbExecutor() {}
+
+    /**
+     * Queue a task on the database executor
+     * @param task Task to run
+     * @throws java.util.concurrent.RejectedExecutionException if the queue is full
+     */
+    public static void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Run a callable on the calling thread with the given cancellation bound,
+     * so statements it creates can be cancelled from another thread.
+     */
+    public static <T> T callWith(Cancellation cancellation, Callable<T> callable) throws Exception {
+        Cancellation previous = current.get();
+        current.set(cancellation);
+        try {
+            return callable.call();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Register a statement with the cancellation bound to this thread, if any
+     */
+    static void track(Statement statement) {
+        Cancellation cancellation = current.get();
+        if (cancellation != null) {
+            cancellation.track(statement);
+        }
+    }
+
+    /**
+     * Handle used to cancel the statements of one unit of background work
+     */
+    public static class Cancellation {
+        private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled = false;
+
+        void track(Statement statement) {
+            statements.add(statement);
+            if (cancelled) {
+                cancelStatement(statement);
+            }
+        }
+
+        /**
+         * Ask the server to abort every statement still running for this unit of work
+         */
+        public void cancel() {
+            cancelled = true;
+            for (Statement statement : statements) {
+                cancelStatement(statement);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancelStatement(Statement statement) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.cancel();
+                }
+            } catch (SQLException e) {
+                System.err.println("Error cancelling statement: " + e.getMessage());
+            }
+        }
+    }
+}
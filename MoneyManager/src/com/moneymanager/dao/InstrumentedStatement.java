@@ -0,0 +1,106 @@
+package com.moneymanager.dao;
+
+import com.moneymanager.metrics.QueryMetrics;
+import com.moneymanager.metrics.QueryStats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps statements handed out by the pool to time every execution and count
+ * the rows and approximate bytes read from their result sets into {@link QueryMetrics}.
+ * Execution time includes transferring the result: the MySQL driver reads it
+ * completely before executeQuery returns, unless the statement has a fetch
+ * size, in which case {@link MeteredResultSet} keeps timing until the rows
+ * are read.
+ */
+final class InstrumentedStatement implements InvocationHandler {
+    private final Statement target;
+    private final String preparedSql;
+    // Pool wait of the borrow not yet charged to a statement, shared by the connection's statements
+    private final AtomicLong poolWaitNanos;
+
+    private InstrumentedStatement(Statement target, String preparedSql, AtomicLong poolWaitNanos) {
+        this.target = target;
+        this.preparedSql = preparedSql;
+        this.poolWaitNanos = poolWaitNanos;
+    }
+
+    /**
+     * Wrap a statement, or return it unchanged when metrics are disabled
+     * @param statementType Statement, PreparedStatement or CallableStatement
+     * @param preparedSql SQL it was prepared with, null for plain statements
+     * @param poolWaitNanos Wait for the connection, charged to the first statement executed and then reset
+     */
+    static Statement wrap(Class<?> statementType, Statement statement, String preparedSql, AtomicLong poolWaitNanos) {
+        if (!QueryMetrics.ENABLED) {
+            return statement;
+        }
+        return (Statement) (Proxy.newProxyInstance(
+            InstrumentedStatement.class.getClassLoader(),
+            new Class<?>[]{statementType},
+            new InstrumentedStatement(statement, preparedSql, poolWaitNanos)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.equals("equals")) {
+            return proxy == args[0];
+        }
+        if (name.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        if (!name.startsWith("execute") && !name.equals("getResultSet")) {
+            return call(method, args);
+        }
+
+        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+        QueryStats stats = QueryMetrics.forSql(sql == null ? "<unknown>" : sql);
+        if (name.equals("getResultSet")) {
+            return wrapResultSet(call(method, args), stats, proxy);
+        }
+
+        long waited = poolWaitNanos.getAndSet(-1);
+        if (waited >= 0) {
+            QueryMetrics.recordPoolWait(stats, waited);
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        boolean fetching = false;
+        try {
+            Object result = call(method, args);
+            failed = false;
+            if (result instanceof ResultSet && target.getFetchSize() != 0) {
+                fetching = true;
+                return new MeteredResultSet((ResultSet) result, (Statement) proxy, stats, sql, start);
+            }
+            return wrapResultSet(result, stats, proxy);
+        } finally {
+            if (!fetching) {
+                QueryMetrics.recordExecution(stats, sql, System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object wrapResultSet(Object result, QueryStats stats, Object statement) {
+        if (!(result instanceof ResultSet)) {
+            return result;
+        }
+        return new MeteredResultSet((ResultSet) result, (Statement) statement, stats);
+    }
+}
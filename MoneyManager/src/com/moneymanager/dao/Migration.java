@@ -0,0 +1,59 @@
+package com.moneymanager.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One versioned schema change applied by {@link SchemaMigrator}.
+ * <p>
+ * MySQL commits DDL implicitly, so a migration that fails part way cannot be
+ * rolled back. Statements are therefore written to be rerunnable: tables are
+ * created with IF NOT EXISTS, and an index or column that already exists is
+ * skipped, so the failed migration is simply applied again on the next start.
+ */
+public final class Migration {
+    // ER_DUP_FIELDNAME and ER_DUP_KEYNAME: left behind by an earlier partial run
+    private static final int DUPLICATE_COLUMN = 1060;
+    private static final int DUPLICATE_KEY_NAME = 1061;
+
+    private final int version;
+    private final String description;
+    private final String[] statements;
+
+    public Migration(int version, String description, String... statements) {
+        this.version = version;
+        this.description = description;
+        this.statements = statements;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Execute the statements in order on the given connection
+     */
+    void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != DUPLICATE_COLUMN && e.getErrorCode() != DUPLICATE_KEY_NAME) {
+                        throw new SQLException("V" + version + " failed: " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+}
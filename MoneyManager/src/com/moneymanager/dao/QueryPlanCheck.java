@@ -0,0 +1,199 @@
+package com.moneymanager.dao;
+
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionQuery;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs EXPLAIN on the hot transaction queries, exactly as TransactionDAO
+ * issues them, and checks that the indexes from {@link SchemaMigrator} are
+ * used: the newest-first listings must read the history index in order
+ * instead of sorting, keyset pages must be index range scans, also when the
+ * dashboard filters or sorts them, and the aggregates must be answered from
+ * a covering index.
+ * <p>
+ * The plans are taken for the user with the most recent transaction. On an
+ * empty or very small table the optimizer may prefer a full scan, so
+ * problems are reported rather than treated as errors.
+ */
+public class QueryPlanCheck {
+    static final String HISTORY_INDEX = "idx_transactions_user_date";
+
+    /**
+     * Plan of one checked query
+     */
+    public static final class Result {
+        private final String query;
+        private final String accessType;
+        private final String key;
+        private final String extra;
+        private final String problem;
+
+        Result(String query, String accessType, String key, String extra, String problem) {
+            this.query = query;
+            this.accessType = accessType;
+            this.key = key;
+            this.extra = extra;
+            this.problem = problem;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * EXPLAIN access type, e.g. {@code ref} or {@code range}
+         */
+        public String getAccessType() {
+            return accessType;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getExtra() {
+            return extra;
+        }
+
+        /**
+         * @return Why the plan is not as expected, or null if it is
+         */
+        public String getProblem() {
+            return problem;
+        }
+
+        @Override
+        public String toString() {
+            return query + ": type=" + accessType + ", key=" + key + ", extra=" + extra
+                   + (problem == null ? "" : " -- " + problem);
+        }
+    }
+
+    /**
+     * A query to explain; either fixed SQL taking only the user id, or a
+     * dashboard page for a filter, explained as a follow-up page
+     */
+    private static final class Check {
+        final String name;
+        final String sql;
+        final TransactionQuery query;
+        final String expectedIndex;
+        final boolean listing;
+
+        Check(String name, String sql, String expectedIndex, boolean listing) {
+            this.name = name;
+            this.sql = sql;
+            this.query = null;
+            this.expectedIndex = expectedIndex;
+            this.listing = listing;
+        }
+
+        Check(String name, TransactionQuery query, String expectedIndex) {
+            this.name = name;
+            this.sql = TransactionDAO.pageQuery(query, true, false);
+            this.query = query;
+            this.expectedIndex = expectedIndex;
+            this.listing = true;
+        }
+    }
+
+    /**
+     * Explain every checked query
+     * @return One result per query, or an empty list if there are no transactions to plan for
+     */
+    public List<Result> explain() throws SQLException {
+        List<Result> results = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Transaction newest;
+            try (PreparedStatement stmt = conn.prepareStatement(TransactionDAO.COLUMNS + "ORDER BY id DESC LIMIT 1");
+                 ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return results;
+                }
+                newest = TransactionDAO.mapRow(rs);
+            }
+
+            for (Check check : checks(newest)) {
+                try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + check.sql)) {
+                    if (check.query == null) {
+                        stmt.setInt(1, newest.getUserId());
+                    } else {
+                        TransactionDAO.bindPage(stmt, newest.getUserId(), check.query, newest, null, 100);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        String type = rs.getString("type");
+                        String key = rs.getString("key");
+                        String extra = rs.getString("Extra");
+                        results.add(new Result(check.name, type, key, extra, verify(check, type, key, extra)));
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Explain every checked query and collect the plans that are not as expected
+     * @return Descriptions of the problems; empty if all plans are fine
+     */
+    public List<String> run() {
+        List<String> problems = new ArrayList<>();
+        try {
+            for (Result result : explain()) {
+                if (result.getProblem() != null) {
+                    problems.add(result.toString());
+                }
+            }
+        } catch (SQLException e) {
+            problems.add("EXPLAIN failed: " + e.getMessage());
+        }
+        return problems;
+    }
+
+    private static List<Check> checks(Transaction newest) {
+        long thirtyDays = 30L * 24 * 60 * 60 * 1000;
+        return Arrays.asList(
+            new Check("history, newest first", TransactionDAO.COLUMNS + "WHERE user_id = ?" + TransactionDAO.NEWEST_FIRST,
+                      HISTORY_INDEX, true),
+            new Check("keyset page", TransactionQuery.ALL, HISTORY_INDEX),
+            new Check("category, last 30 days", TransactionQuery.ALL.withCategory(newest.getCategory())
+                          .withDateRange(newest.getDateMillis() - thirtyDays, newest.getDateMillis() + 1),
+                      "idx_transactions_user_category_date"),
+            new Check("type, newest first", TransactionQuery.ALL.withType(newest.getType()),
+                      "idx_transactions_user_type_date"),
+            new Check("largest amount first", TransactionQuery.ALL.sortedBy(TransactionQuery.SortColumn.AMOUNT, false),
+                      "idx_transactions_user_amount"),
+            new Check("monthly totals", TransactionDAO.MONTHLY_TOTALS, null, false),
+            new Check("daily totals", TransactionDAO.DAILY_TOTALS, null, false));
+    }
+
+    private static String verify(Check check, String type, String key, String extra) {
+        String details = extra == null ? "" : extra;
+        if (key == null || "ALL".equals(type) || "index".equals(type)) {
+            return "full scan";
+        }
+        if (!check.listing) {
+            // Grouping by a date expression sorts the groups, which is cheap; reading rows is not
+            return details.contains("Using index") ? null : "index does not cover the query";
+        }
+        if (!check.expectedIndex.equals(key)) {
+            return "expected " + check.expectedIndex;
+        }
+        if (details.contains("Using filesort")) {
+            return "sorts instead of reading the index in order";
+        }
+        if (check.query != null && !"range".equals(type)) {
+            return "expected an index range scan";
+        }
+        return null;
+    }
+}
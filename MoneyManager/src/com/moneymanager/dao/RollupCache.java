@@ -0,0 +1,195 @@
+package com.moneymanager.dao;
+
+import com.moneymanager.model.MonthlyRollup;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process copy of the user_balances and monthly_category_rollups rows of
+ * recently used users, shared by all windows of the application.
+ * <p>
+ * {@link RollupDAO} fills an entry on the first read for a user, and
+ * {@link TransactionDAO} applies each committed change to it, so balance and
+ * analytics reads for a loaded user need no database round trip. Entries are
+ * evicted least recently used first once the total number of cached rows
+ * across users exceeds the limit ({@code -Dmoneymanager.cache.maxRows},
+ * default 100000).
+ * <p>
+ * A load that overlaps a write for the same user is not cached, since it may
+ * or may not include that write; writers bracket their database transaction
+ * with {@link #beginWrite} and {@link #endWrite} for this. Writes made by
+ * other processes are picked up by {@link RollupDAO#reconcileBalanceCents}.
+ */
+final class RollupCache {
+    private static final RollupCache shared = new RollupCache(Integer.getInteger("moneymanager.cache.maxRows", 100_000));
+    private static final int STRIPES = 64;
+
+    private final int maxRows;
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int rows;
+    // Per stripe of users: writes in progress, and a counter bumped by every finished write
+    private final int[] writesInFlight = new int[STRIPES];
+    private final long[] writeStamps = new long[STRIPES];
+
+    RollupCache(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    static RollupCache shared() {
+        return shared;
+    }
+
+    /**
+     * Cached balance of a user as {income cents, expense cents}, or null if the user is not cached
+     */
+    synchronized long[] getBalance(int userId) {
+        Entry entry = entries.get(userId);
+        return entry == null ? null : new long[]{entry.incomeCents, entry.expenseCents};
+    }
+
+    /**
+     * Cached rollups of a user, newest month first, or null if the user is not cached
+     */
+    synchronized List<MonthlyRollup> getRollups(int userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        List<MonthlyRollup> rollups = new ArrayList<>(entry.rollups.size());
+        for (Map.Entry<List<Object>, long[]> rollup : entry.rollups.entrySet()) {
+            List<Object> key = rollup.getKey();
+            rollups.add(new MonthlyRollup((String) key.get(0), (TransactionType) key.get(1), (Short) key.get(2),
+                                          rollup.getValue()[0], (int) rollup.getValue()[1]));
+        }
+        rollups.sort(Comparator.comparing(MonthlyRollup::getMonth).reversed());
+        return rollups;
+    }
+
+    /**
+     * Token to pass to {@link #put} for a load that starts now
+     */
+    synchronized long loadStamp(int userId) {
+        return writeStamps[stripe(userId)];
+    }
+
+    /**
+     * Cache a user's data as loaded from the database, unless a write for the
+     * user was in progress or finished since the load started
+     * @param stamp Result of {@link #loadStamp} taken before reading the database
+     */
+    synchronized void put(int userId, long stamp, long incomeCents, long expenseCents, List<MonthlyRollup> rollups) {
+        int stripe = stripe(userId);
+        if (writesInFlight[stripe] > 0 || writeStamps[stripe] != stamp || entries.containsKey(userId)) {
+            return;
+        }
+        Entry entry = new Entry(incomeCents, expenseCents);
+        for (MonthlyRollup rollup : rollups) {
+            entry.rollups.put(key(rollup.getMonth(), rollup.getType(), rollup.getCategoryId()),
+                              new long[]{rollup.getTotalCents(), rollup.getCount()});
+        }
+        entries.put(userId, entry);
+        rows += entry.rows();
+        evict();
+    }
+
+    /**
+     * Mark the start of a database transaction that changes a user's data
+     */
+    synchronized void beginWrite(int userId) {
+        writesInFlight[stripe(userId)]++;
+    }
+
+    /**
+     * Mark the end of a write started with {@link #beginWrite}, committed or not
+     */
+    synchronized void endWrite(int userId) {
+        int stripe = stripe(userId);
+        writesInFlight[stripe]--;
+        writeStamps[stripe]++;
+    }
+
+    /**
+     * Apply a committed change to the cached copy of its user, if any
+     * @param sign 1 for an added transaction, -1 for a removed one
+     */
+    synchronized void apply(Transaction transaction, int sign) {
+        Entry entry = entries.get(transaction.getUserId());
+        if (entry == null) {
+            return;
+        }
+        long cents = sign * transaction.getAmountCents();
+        if (transaction.getType() == TransactionType.INCOME) {
+            entry.incomeCents += cents;
+        } else {
+            entry.expenseCents += cents;
+        }
+
+        List<Object> key = key(RollupDAO.monthOf(transaction.getDateMillis()), transaction.getType(),
+                               transaction.getCategoryId());
+        long[] rollup = entry.rollups.get(key);
+        if (rollup == null) {
+            rollup = new long[2];
+            entry.rollups.put(key, rollup);
+            rows++;
+        }
+        rollup[0] += cents;
+        rollup[1] += sign;
+        if (rollup[1] <= 0) {
+            entry.rollups.remove(key);
+            rows--;
+        }
+        evict();
+    }
+
+    /**
+     * Drop a user's cached data, e.g. after it was rebuilt or changed elsewhere
+     */
+    synchronized void invalidate(int userId) {
+        Entry entry = entries.remove(userId);
+        if (entry != null) {
+            rows -= entry.rows();
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        // Always keep the most recently used user, even if it alone exceeds the limit
+        while (rows > maxRows && entries.size() > 1) {
+            rows -= eldest.next().rows();
+            eldest.remove();
+        }
+    }
+
+    private static int stripe(int userId) {
+        return userId & (STRIPES - 1);
+    }
+
+    private static List<Object> key(String month, TransactionType type, short categoryId) {
+        return Arrays.asList(month, type, categoryId);
+    }
+
+    private static final class Entry {
+        long incomeCents;
+        long expenseCents;
+        // (month, type, category id) -> {total cents, count}
+        final Map<List<Object>, long[]> rollups = new HashMap<>();
+
+        Entry(long incomeCents, long expenseCents) {
+            this.incomeCents = incomeCents;
+            this.expenseCents = expenseCents;
+        }
+
+        int rows() {
+            return 1 + rollups.size();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.moneymanager.dao;
+
+import com.moneymanager.model.Category;
+import com.moneymanager.model.MonthlyRollup;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+import java.sql.*;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for the user_balances and monthly_category_rollups tables.
+ * The tables are kept current by {@link TransactionDAO}, which applies every
+ * change through {@link #apply} inside its own database transaction, so reads
+ * here cost O(months x categories) rather than a scan of the user's history.
+ * Reads are served from the shared {@link RollupCache} once a user is loaded.
+ */
+public class RollupDAO {
+    private static final String UPSERT_BALANCE =
+        "INSERT INTO user_balances (user_id, income_cents, expense_cents, transaction_count) VALUES (?, ?, ?, ?) AS new " +
+        "ON DUPLICATE KEY UPDATE income_cents = income_cents + new.income_cents, " +
+        "expense_cents = expense_cents + new.expense_cents, " +
+        "transaction_count = transaction_count + new.transaction_count";
+    private static final String UPSERT_ROLLUP =
+        "INSERT INTO monthly_category_rollups (user_id, month, type, category, total_cents, transaction_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?) AS new " +
+        "ON DUPLICATE KEY UPDATE total_cents = total_cents + new.total_cents, " +
+        "transaction_count = transaction_count + new.transaction_count";
+    private static final String DELETE_EMPTY_ROLLUP =
+        "DELETE FROM monthly_category_rollups " +
+        "WHERE user_id = ? AND month = ? AND type = ? AND category = ? AND transaction_count <= 0";
+
+    /**
+     * Read a user's balance, from the shared {@link RollupCache} if the user is loaded
+     * @param userId User ID
+     * @return Income minus expenses, in cents
+     */
+    public long getBalanceCents(int userId) throws SQLException {
+        long[] balance = RollupCache.shared().getBalance(userId);
+        if (balance == null) {
+            balance = load(userId);
+        }
+        return balance[0] - balance[1];
+    }
+
+    /**
+     * Load every monthly rollup of a user, from the shared {@link RollupCache} if the user is loaded
+     * @param userId User ID
+     * @return Rollups ordered by month, newest first
+     */
+    public List<MonthlyRollup> findMonthlyRollups(int userId) throws SQLException {
+        List<MonthlyRollup> rollups = RollupCache.shared().getRollups(userId);
+        if (rollups == null) {
+            load(userId);
+            rollups = RollupCache.shared().getRollups(userId);
+        }
+        if (rollups == null) {
+            // Not cached because a write overlapped the load; read without caching
+            rollups = readMonthlyRollups(userId);
+        }
+        return rollups;
+    }
+
+    /**
+     * Read a user's balance from the database, bypassing the cache. Drops the
+     * user's cached data if it no longer matches, i.e. if another process
+     * changed the user's transactions.
+     * @param userId User ID
+     * @return Income minus expenses, in cents
+     */
+    public long reconcileBalanceCents(int userId) throws SQLException {
+        RollupCache cache = RollupCache.shared();
+        long stamp = cache.loadStamp(userId);
+        long[] balance = readBalance(userId);
+        long[] cached = cache.getBalance(userId);
+        if (cached != null && !Arrays.equals(cached, balance) && stamp == cache.loadStamp(userId)) {
+            cache.invalidate(userId);
+        }
+        return balance[0] - balance[1];
+    }
+
+    /**
+     * Read a user's balance and rollups from the database and offer them to the cache
+     * @return The balance as {income cents, expense cents}
+     */
+    private long[] load(int userId) throws SQLException {
+        RollupCache cache = RollupCache.shared();
+        long stamp = cache.loadStamp(userId);
+        long[] balance = readBalance(userId);
+        cache.put(userId, stamp, balance[0], balance[1], readMonthlyRollups(userId));
+        return balance;
+    }
+
+    private static long[] readBalance(int userId) throws SQLException {
+        String query = "SELECT income_cents, expense_cents FROM user_balances WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? new long[]{rs.getLong("income_cents"), rs.getLong("expense_cents")} : new long[2];
+            }
+        }
+    }
+
+    private static List<MonthlyRollup> readMonthlyRollups(int userId) throws SQLException {
+        String query = "SELECT month, type, category, total_cents, transaction_count " +
+                      "FROM monthly_category_rollups WHERE user_id = ? ORDER BY month DESC";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setInt(1, userId);
+            List<MonthlyRollup> rollups = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rollups.add(new MonthlyRollup(
+                        rs.getString("month"),
+                        TransactionType.fromDisplayName(rs.getString("type")),
+                        Category.idOf(rs.getString("category")),
+                        rs.getLong("total_cents"),
+                        rs.getInt("transaction_count")
+                    ));
+                }
+            }
+            return rollups;
+        }
+    }
+
+    /**
+     * List every user that can have rollups, for a full rebuild
+     * @return User IDs in ascending order
+     */
+    public List<Integer> findUserIds() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM users ORDER BY id");
+             ResultSet rs = stmt.executeQuery()) {
+
+            List<Integer> userIds = new ArrayList<>();
+            while (rs.next()) {
+                userIds.add(rs.getInt("id"));
+            }
+            return userIds;
+        }
+    }
+
+    /**
+     * Regenerate a user's balance and rollups from the transactions table
+     * in a single database transaction
+     * @param userId User ID
+     * @return Number of rollup rows written
+     */
+    public int rebuild(int userId) throws SQLException {
+        RollupCache.shared().beginWrite(userId);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Lock the balance row first so concurrent writers for this user wait
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "SELECT user_id FROM user_balances WHERE user_id = ? FOR UPDATE")) {
+                    stmt.setInt(1, userId);
+                    stmt.executeQuery().close();
+                }
+                executeForUser(conn, "DELETE FROM user_balances WHERE user_id = ?", userId);
+                executeForUser(conn, "DELETE FROM monthly_category_rollups WHERE user_id = ?", userId);
+                executeForUser(conn,
+                    "INSERT INTO user_balances (user_id, income_cents, expense_cents, transaction_count) " +
+                    "SELECT user_id, " +
+                    "ROUND(SUM(CASE WHEN type = 'Income' THEN amount ELSE 0 END) * 100), " +
+                    "ROUND(SUM(CASE WHEN type = 'Expense' THEN amount ELSE 0 END) * 100), COUNT(*) " +
+                    "FROM transactions WHERE user_id = ? GROUP BY user_id", userId);
+                int rows = executeForUser(conn,
+                    "INSERT INTO monthly_category_rollups (user_id, month, type, category, total_cents, transaction_count) " +
+                    "SELECT user_id, DATE_FORMAT(transaction_date, '%Y-%m'), type, category, ROUND(SUM(amount) * 100), COUNT(*) " +
+                    "FROM transactions WHERE user_id = ? " +
+                    "GROUP BY user_id, DATE_FORMAT(transaction_date, '%Y-%m'), type, category", userId);
+                conn.commit();
+                RollupCache.shared().invalidate(userId);
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            RollupCache.shared().endWrite(userId);
+        }
+    }
+
+    /**
+     * Add a transaction to, or with a negative sign remove it from, the
+     * balance and rollup of its user. Runs on the caller's connection so it
+     * commits or rolls back together with the change to the transactions table.
+     * @param conn Connection with auto-commit disabled
+     * @param transaction Transaction being added or removed
+     * @param sign 1 to add, -1 to remove
+     */
+    static void apply(Connection conn, Transaction transaction, int sign) throws SQLException {
+        long cents = sign * transaction.getAmountCents();
+        boolean income = transaction.getType() == TransactionType.INCOME;
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_BALANCE)) {
+            stmt.setInt(1, transaction.getUserId());
+            stmt.setLong(2, income ? cents : 0);
+            stmt.setLong(3, income ? 0 : cents);
+            stmt.setInt(4, sign);
+            stmt.executeUpdate();
+        }
+
+        String month = monthOf(transaction.getDateMillis());
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_ROLLUP)) {
+            stmt.setInt(1, transaction.getUserId());
+            stmt.setString(2, month);
+            stmt.setString(3, transaction.getType().getDisplayName());
+            stmt.setString(4, transaction.getCategory());
+            stmt.setLong(5, cents);
+            stmt.setInt(6, sign);
+            stmt.executeUpdate();
+        }
+
+        if (sign < 0) {
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_EMPTY_ROLLUP)) {
+                stmt.setInt(1, transaction.getUserId());
+                stmt.setString(2, month);
+                stmt.setString(3, transaction.getType().getDisplayName());
+                stmt.setString(4, transaction.getCategory());
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Add many new transactions to the balances and rollups of their users.
+     * The transactions are summed per group first, so each balance and rollup
+     * row is written once per call.
+     * @param conn Connection with auto-commit disabled
+     * @param transactions Newly inserted transactions
+     */
+    static void applyAll(Connection conn, List<Transaction> transactions) throws SQLException {
+        Map<Integer, long[]> balances = new HashMap<>();
+        Map<List<Object>, long[]> rollups = new HashMap<>();
+        for (Transaction t : transactions) {
+            boolean income = t.getType() == TransactionType.INCOME;
+            long[] balance = balances.computeIfAbsent(t.getUserId(), id -> new long[3]);
+            balance[income ? 0 : 1] += t.getAmountCents();
+            balance[2]++;
+
+            List<Object> key = Arrays.asList(t.getUserId(), monthOf(t.getDateMillis()), t.getType(), t.getCategoryId());
+            long[] rollup = rollups.computeIfAbsent(key, k -> new long[2]);
+            rollup[0] += t.getAmountCents();
+            rollup[1]++;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_BALANCE)) {
+            for (Map.Entry<Integer, long[]> entry : balances.entrySet()) {
+                stmt.setInt(1, entry.getKey());
+                stmt.setLong(2, entry.getValue()[0]);
+                stmt.setLong(3, entry.getValue()[1]);
+                stmt.setLong(4, entry.getValue()[2]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_ROLLUP)) {
+            for (Map.Entry<List<Object>, long[]> entry : rollups.entrySet()) {
+                List<Object> key = entry.getKey();
+                stmt.setInt(1, (Integer) key.get(0));
+                stmt.setString(2, (String) key.get(1));
+                stmt.setString(3, ((TransactionType) key.get(2)).getDisplayName());
+                stmt.setString(4, Category.nameOf((Short) key.get(3)));
+                stmt.setLong(5, entry.getValue()[0]);
+                stmt.setLong(6, entry.getValue()[1]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Rollup month of a transaction date, matching DATE_FORMAT(transaction_date, '%Y-%m')
+     * on a connection that uses UTC
+     */
+    static String monthOf(long dateMillis) {
+        return YearMonth.from(Instant.ofEpochMilli(dateMillis).atZone(ZoneOffset.UTC)).toString();
+    }
+
+    private static int executeForUser(Connection conn, String sql, int userId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            return stmt.executeUpdate();
+        }
+    }
+}
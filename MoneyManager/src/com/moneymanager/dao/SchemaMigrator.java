@@ -0,0 +1,262 @@
+package com.moneymanager.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Brings the money_manager database up to the schema this build expects.
+ * <p>
+ * Migrations are numbered and applied in order; every applied version is
+ * recorded in the schema_version table, so each runs once per database. A
+ * named MySQL lock keeps two applications starting at the same time from
+ * applying the same migration twice. The migrations of an existing database
+ * created from the old setup scripts are written to leave its data intact.
+ */
+public class SchemaMigrator {
+    private static final String LOCK_NAME = "money_manager.schema_migration";
+
+    private static final String CREATE_VERSION_TABLE =
+        "CREATE TABLE IF NOT EXISTS schema_version (" +
+        "version INT NOT NULL PRIMARY KEY, " +
+        "description VARCHAR(200) NOT NULL, " +
+        "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+        "execution_millis INT NOT NULL)";
+
+    /** All migrations in version order; append new ones, never edit applied ones */
+    static final List<Migration> MIGRATIONS = Collections.unmodifiableList(Arrays.asList(
+        new Migration(1, "Baseline tables, views and demo users",
+            "CREATE TABLE IF NOT EXISTS users (" +
+            "id INT AUTO_INCREMENT PRIMARY KEY, " +
+            "username VARCHAR(50) NOT NULL UNIQUE, " +
+            "password VARCHAR(255) NOT NULL, " +
+            "email VARCHAR(100), " +
+            "full_name VARCHAR(100), " +
+            "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)",
+
+            // transaction_date is stored in UTC, see DatabaseConnection
+            "CREATE TABLE IF NOT EXISTS transactions (" +
+            "id INT AUTO_INCREMENT PRIMARY KEY, " +
+            "user_id INT NOT NULL, " +
+            "type VARCHAR(10) NOT NULL, " +
+            "category VARCHAR(50) NOT NULL, " +
+            "description VARCHAR(255), " +
+            "amount DECIMAL(15, 2) NOT NULL, " +
+            "transaction_date DATETIME NOT NULL, " +
+            "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)",
+
+            "CREATE TABLE IF NOT EXISTS categories (" +
+            "id INT AUTO_INCREMENT PRIMARY KEY, " +
+            "name VARCHAR(50) NOT NULL UNIQUE)",
+
+            "INSERT IGNORE INTO categories (name) VALUES ('Food'), ('Transportation'), ('Entertainment'), " +
+            "('Utilities'), ('Healthcare'), ('Shopping'), ('Salary'), ('Investment'), ('Other')",
+
+            "CREATE TABLE IF NOT EXISTS budgets (" +
+            "id INT AUTO_INCREMENT PRIMARY KEY, " +
+            "user_id INT NOT NULL, " +
+            "category VARCHAR(50) NOT NULL, " +
+            "month CHAR(7) NOT NULL, " +
+            "amount DECIMAL(15, 2) NOT NULL, " +
+            "UNIQUE KEY (user_id, category, month), " +
+            "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)",
+
+            "CREATE OR REPLACE VIEW user_balance AS " +
+            "SELECT u.id AS user_id, u.username, " +
+            "COALESCE(SUM(CASE WHEN t.type = 'Income' THEN t.amount ELSE 0 END), 0) AS total_income, " +
+            "COALESCE(SUM(CASE WHEN t.type = 'Expense' THEN t.amount ELSE 0 END), 0) AS total_expense, " +
+            "COALESCE(SUM(CASE WHEN t.type = 'Income' THEN t.amount ELSE -t.amount END), 0) AS balance " +
+            "FROM users u LEFT JOIN transactions t ON t.user_id = u.id " +
+            "GROUP BY u.id, u.username",
+
+            "CREATE OR REPLACE VIEW monthly_summary AS " +
+            "SELECT user_id, DATE_FORMAT(transaction_date, '%Y-%m') AS month, type, " +
+            "SUM(amount) AS total, COUNT(*) AS transaction_count " +
+            "FROM transactions GROUP BY user_id, DATE_FORMAT(transaction_date, '%Y-%m'), type",
+
+            "INSERT IGNORE INTO users (username, password, email, full_name) VALUES " +
+            "('demo_user', 'demo123', 'demo@example.com', 'Demo User'), " +
+            "('admin', 'password123', 'admin@example.com', 'Administrator')"),
+
+        // Formerly database/rollups.sql. The backfill rebuilds both tables from
+        // transactions, so it is also correct where that script already ran.
+        new Migration(2, "Materialized balances and monthly category rollups",
+            "CREATE TABLE IF NOT EXISTS user_balances (" +
+            "user_id INT NOT NULL PRIMARY KEY, " +
+            "income_cents BIGINT NOT NULL DEFAULT 0, " +
+            "expense_cents BIGINT NOT NULL DEFAULT 0, " +
+            "transaction_count INT NOT NULL DEFAULT 0, " +
+            "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)",
+
+            // month is 'YYYY-MM' of transaction_date as stored (UTC)
+            "CREATE TABLE IF NOT EXISTS monthly_category_rollups (" +
+            "user_id INT NOT NULL, " +
+            "month CHAR(7) NOT NULL, " +
+            "type VARCHAR(10) NOT NULL, " +
+            "category VARCHAR(50) NOT NULL, " +
+            "total_cents BIGINT NOT NULL DEFAULT 0, " +
+            "transaction_count INT NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY (user_id, month, type, category), " +
+            "FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE)",
+
+            "DELETE FROM user_balances",
+            "DELETE FROM monthly_category_rollups",
+
+            "INSERT INTO user_balances (user_id, income_cents, expense_cents, transaction_count) " +
+            "SELECT user_id, " +
+            "ROUND(SUM(CASE WHEN type = 'Income' THEN amount ELSE 0 END) * 100), " +
+            "ROUND(SUM(CASE WHEN type = 'Expense' THEN amount ELSE 0 END) * 100), " +
+            "COUNT(*) " +
+            "FROM transactions GROUP BY user_id",
+
+            "INSERT INTO monthly_category_rollups (user_id, month, type, category, total_cents, transaction_count) " +
+            "SELECT user_id, DATE_FORMAT(transaction_date, '%Y-%m'), type, category, ROUND(SUM(amount) * 100), COUNT(*) " +
+            "FROM transactions " +
+            "GROUP BY user_id, DATE_FORMAT(transaction_date, '%Y-%m'), type, category"),
+
+        // The first index serves every newest-first listing and keyset page
+        // without a filesort. The second covers the per-month and per-day
+        // aggregates, so they are computed from the index alone.
+        new Migration(3, "Composite indexes for the transaction history and aggregates",
+            "ALTER TABLE transactions ADD INDEX idx_transactions_user_date (user_id, transaction_date, id)",
+            "ALTER TABLE transactions ADD INDEX idx_transactions_user_type_category " +
+            "(user_id, type, category, transaction_date, amount)"),
+
+        // Dashboard filters: a category or type narrowed to a date range, and
+        // sorting or filtering by amount, are index range scans in list order
+        new Migration(4, "Indexes for filtering and sorting the transaction table",
+            "ALTER TABLE transactions ADD INDEX idx_transactions_user_category_date (user_id, category, transaction_date, id)",
+            "ALTER TABLE transactions ADD INDEX idx_transactions_user_type_date (user_id, type, transaction_date, id)",
+            "ALTER TABLE transactions ADD INDEX idx_transactions_user_amount (user_id, amount, id)")
+    ));
+
+    /**
+     * Migration settings
+     */
+    public static class Config {
+        public boolean enabled = !Boolean.getBoolean("moneymanager.migrations.skip");
+        // Seconds to wait for another application that is migrating the same database
+        public int lockTimeoutSeconds = Integer.getInteger("moneymanager.migrations.lockTimeoutSeconds", 60);
+        // Check the plans of the hot queries with EXPLAIN after migrating
+        public boolean verifyPlans = !Boolean.getBoolean("moneymanager.migrations.skipPlanCheck");
+    }
+
+    private final Config config;
+
+    public SchemaMigrator(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Apply every migration newer than the database's current version
+     * @return Migrations applied by this call, oldest first
+     */
+    public List<Migration> migrate() throws SQLException {
+        List<Migration> applied = new ArrayList<>();
+        if (!config.enabled) {
+            return applied;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            acquireLock(conn);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(CREATE_VERSION_TABLE);
+                }
+                int current = currentVersion(conn);
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.getVersion() > current) {
+                        apply(conn, migration);
+                        applied.add(migration);
+                    }
+                }
+            } finally {
+                releaseLock(conn);
+            }
+        }
+
+        if (config.verifyPlans) {
+            for (String problem : new QueryPlanCheck().run()) {
+                System.err.println("Query plan check: " + problem);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Highest version recorded in schema_version
+     * @return Version, or 0 for a database that was never migrated
+     */
+    public int currentVersion() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return currentVersion(conn);
+        }
+    }
+
+    /**
+     * Latest version this build knows about
+     */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).getVersion();
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException e) {
+            // ER_NO_SUCH_TABLE
+            if (e.getErrorCode() == 1146) {
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        conn.setAutoCommit(false);
+        try {
+            migration.apply(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description, execution_millis) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, migration.getVersion());
+                stmt.setString(2, migration.getDescription());
+                stmt.setInt(3, (int) ((System.nanoTime() - start) / 1_000_000));
+                stmt.executeUpdate();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, config.lockTimeoutSeconds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another schema migration to finish");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package com.moneymanager.dao;
+
+import com.moneymanager.event.TransactionEvent;
+import com.moneymanager.event.TransactionEventBus;
+import com.moneymanager.model.Category;
+import com.moneymanager.model.DailyTotal;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.MonthlyRollup;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionQuery;
+import com.moneymanager.model.TransactionType;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data Access Object for transaction operations.
+ * All SQL against the transactions table lives here. Writes also maintain the
+ * materialized balance and rollup tables through {@link RollupDAO} in the same
+ * database transaction, and the shared {@link RollupCache} once it has
+ * committed, after which the change is published on the
+ * {@link TransactionEventBus}. Methods throw SQLException so callers running on a
+ * {@code DbWorker} can report the failure.
+ */
+public class TransactionDAO {
+    // Package-private so QueryPlanCheck can EXPLAIN the queries as they are run
+    static final String COLUMNS =
+        "SELECT id, user_id, transaction_date, type, category, description, amount FROM transactions ";
+    static final String NEWEST_FIRST = " ORDER BY transaction_date DESC, id DESC";
+    static final String MONTHLY_TOTALS =
+        "SELECT DATE_FORMAT(transaction_date, '%Y-%m') AS month, type, category, " +
+        "SUM(amount) AS total, COUNT(*) AS transaction_count " +
+        "FROM transactions WHERE user_id = ? " +
+        "GROUP BY month, type, category ORDER BY month DESC";
+    static final String DAILY_TOTALS =
+        "SELECT DATEDIFF(transaction_date, '1970-01-01') AS epoch_day, type, SUM(amount) AS total " +
+        "FROM transactions WHERE user_id = ? " +
+        "GROUP BY epoch_day, type ORDER BY epoch_day";
+
+    /**
+     * Receives the rows of {@link #streamByUser} one at a time
+     */
+    public interface RowHandler {
+        void handle(Transaction transaction) throws IOException;
+    }
+
+    /**
+     * Insert a transaction and add it to the user's balance and rollups
+     * @param transaction Transaction to insert; its id is ignored
+     * @return The transaction with its generated id
+     */
+    public Transaction insert(Transaction transaction) throws SQLException {
+        String query = "INSERT INTO transactions (user_id, type, category, description, amount, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+        RollupCache.shared().beginWrite(transaction.getUserId());
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Transaction inserted;
+                try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setInt(1, transaction.getUserId());
+                    stmt.setString(2, transaction.getType().getDisplayName());
+                    stmt.setString(3, transaction.getCategory());
+                    stmt.setString(4, transaction.getDescription());
+                    stmt.setBigDecimal(5, Transaction.toDecimal(transaction.getAmountCents()));
+                    stmt.setTimestamp(6, new Timestamp(transaction.getDateMillis()));
+                    stmt.executeUpdate();
+
+                    try (ResultSet keys = stmt.getGeneratedKeys()) {
+                        if (!keys.next()) {
+                            throw new SQLException("Insert did not return a generated id");
+                        }
+                        inserted = transaction.withId(keys.getInt(1));
+                    }
+                }
+                RollupDAO.apply(conn, inserted, 1);
+                conn.commit();
+                RollupCache.shared().apply(inserted, 1);
+                TransactionEventBus.publish(TransactionEvent.inserted(inserted));
+                return inserted;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            RollupCache.shared().endWrite(transaction.getUserId());
+        }
+    }
+
+    /**
+     * Insert many transactions with one JDBC batch in a single database
+     * transaction, and add them to the balances and rollups
+     * @param transactions Transactions to insert; their ids are ignored
+     */
+    public void insertAll(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        String query = "INSERT INTO transactions (user_id, type, category, description, amount, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+        Set<Integer> userIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (userIds.add(transaction.getUserId())) {
+                RollupCache.shared().beginWrite(transaction.getUserId());
+            }
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    for (Transaction transaction : transactions) {
+                        stmt.setInt(1, transaction.getUserId());
+                        stmt.setString(2, transaction.getType().getDisplayName());
+                        stmt.setString(3, transaction.getCategory());
+                        stmt.setString(4, transaction.getDescription());
+                        stmt.setBigDecimal(5, Transaction.toDecimal(transaction.getAmountCents()));
+                        stmt.setTimestamp(6, new Timestamp(transaction.getDateMillis()));
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                RollupDAO.applyAll(conn, transactions);
+                conn.commit();
+                Map<Integer, long[]> perUser = new HashMap<>();
+                for (Transaction transaction : transactions) {
+                    RollupCache.shared().apply(transaction, 1);
+                    long[] totals = perUser.computeIfAbsent(transaction.getUserId(), id -> new long[2]);
+                    totals[0]++;
+                    totals[1] += transaction.getSignedAmountCents();
+                }
+                List<TransactionEvent> events = new ArrayList<>(perUser.size());
+                for (Map.Entry<Integer, long[]> user : perUser.entrySet()) {
+                    events.add(TransactionEvent.bulkInserted(user.getKey(), (int) user.getValue()[0], user.getValue()[1]));
+                }
+                TransactionEventBus.publishAll(events);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            for (int userId : userIds) {
+                RollupCache.shared().endWrite(userId);
+            }
+        }
+    }
+
+    /**
+     * Update an existing transaction owned by the transaction's user,
+     * moving its amount between balance and rollup entries as needed
+     * @param transaction Transaction with the new values
+     * @return true if a row was updated, false otherwise
+     */
+    public boolean update(Transaction transaction) throws SQLException {
+        String query = "UPDATE transactions SET type = ?, category = ?, description = ?, amount = ?, transaction_date = ? WHERE id = ? AND user_id = ?";
+
+        RollupCache.shared().beginWrite(transaction.getUserId());
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Transaction previous = findForUpdate(conn, transaction.getUserId(), transaction.getId());
+                if (previous == null) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setString(1, transaction.getType().getDisplayName());
+                    stmt.setString(2, transaction.getCategory());
+                    stmt.setString(3, transaction.getDescription());
+                    stmt.setBigDecimal(4, Transaction.toDecimal(transaction.getAmountCents()));
+                    stmt.setTimestamp(5, new Timestamp(transaction.getDateMillis()));
+                    stmt.setInt(6, transaction.getId());
+                    stmt.setInt(7, transaction.getUserId());
+                    stmt.executeUpdate();
+                }
+                RollupDAO.apply(conn, previous, -1);
+                RollupDAO.apply(conn, transaction, 1);
+                conn.commit();
+                RollupCache.shared().apply(previous, -1);
+                RollupCache.shared().apply(transaction, 1);
+                TransactionEventBus.publish(TransactionEvent.updated(previous, transaction));
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            RollupCache.shared().endWrite(transaction.getUserId());
+        }
+    }
+
+    /**
+     * Delete a transaction owned by the given user and remove it from the user's balance and rollups
+     * @param userId Owner of the transaction
+     * @param transactionId Transaction ID
+     * @return true if a row was deleted, false otherwise
+     */
+    public boolean delete(int userId, int transactionId) throws SQLException {
+        String query = "DELETE FROM transactions WHERE id = ? AND user_id = ?";
+
+        RollupCache.shared().beginWrite(userId);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Transaction previous = findForUpdate(conn, userId, transactionId);
+                if (previous == null) {
+                    conn.rollback();
+                    return false;
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    stmt.setInt(1, transactionId);
+                    stmt.setInt(2, userId);
+                    stmt.executeUpdate();
+                }
+                RollupDAO.apply(conn, previous, -1);
+                conn.commit();
+                RollupCache.shared().apply(previous, -1);
+                TransactionEventBus.publish(TransactionEvent.deleted(previous));
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            RollupCache.shared().endWrite(userId);
+        }
+    }
+
+    /**
+     * Load one page of a user's transactions, newest first, using keyset pagination
+     * @param userId User ID
+     * @param after Only rows strictly older than this row's (date, id) key; null for the first page
+     * @param until Only rows at or newer than this row's key; null for no lower bound
+     * @param limit Maximum number of rows
+     * @return Transactions in (transaction_date, id) descending order
+     */
+    public List<Transaction> findPage(int userId, Transaction after, Transaction until, int limit) throws SQLException {
+        return findPage(userId, TransactionQuery.ALL, after, until, limit);
+    }
+
+    /**
+     * Load one page of a user's transactions matching a filter, in the query's
+     * sort order, using keyset pagination on (sort column, id). Filters and
+     * sorting run in the database, so only the page crosses the wire.
+     * @param userId User ID
+     * @param query Filter and sort order
+     * @param after Only rows listed after this row; null for the first page
+     * @param until Only rows listed before this row, or the row itself; null for no bound
+     * @param limit Maximum number of rows
+     * @return Matching transactions in the query's order
+     */
+    public List<Transaction> findPage(int userId, TransactionQuery query, Transaction after, Transaction until,
+                                      int limit) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(pageQuery(query, after != null, until != null))) {
+
+            bindPage(stmt, userId, query, after, until, limit);
+            return readAll(stmt, limit);
+        }
+    }
+
+    /**
+     * SQL of {@link #findPage}; parameters are bound by {@link #bindPage}
+     */
+    static String pageQuery(TransactionQuery query, boolean hasAfter, boolean hasUntil) {
+        StringBuilder sql = new StringBuilder(COLUMNS).append("WHERE user_id = ?");
+        if (query.getFromMillis() != Long.MIN_VALUE) {
+            sql.append(" AND transaction_date >= ?");
+        }
+        if (query.getToMillis() != Long.MAX_VALUE) {
+            sql.append(" AND transaction_date < ?");
+        }
+        if (query.getType() != null) {
+            sql.append(" AND type = ?");
+        }
+        if (query.getCategory() != null) {
+            sql.append(" AND category = ?");
+        }
+        if (query.getMinCents() != Long.MIN_VALUE) {
+            sql.append(" AND amount >= ?");
+        }
+        if (query.getMaxCents() != Long.MAX_VALUE) {
+            sql.append(" AND amount <= ?");
+        }
+        if (query.getTextMatchIds() != null) {
+            appendIdList(sql, query.getTextMatchIds().length);
+        }
+        if (query.getText() != null) {
+            // Also checked with known ids, where it costs little, in case they are out of date
+            sql.append(" AND description LIKE ?");
+        }
+
+        String column = sortExpression(query.getSortColumn());
+        String direction = query.isAscending() ? " ASC" : " DESC";
+        // Rows after a key come later in the listing: greater when ascending, smaller when descending
+        String later = query.isAscending() ? " > ?" : " < ?";
+        String earlier = query.isAscending() ? " < ?" : " > ?";
+        if (hasAfter) {
+            appendKeyBound(sql, query, column, later, later);
+        }
+        if (hasUntil) {
+            appendKeyBound(sql, query, column, earlier, earlier.replace(" ?", "= ?"));
+        }
+        sql.append(" ORDER BY ");
+        if (query.getSortColumn() != TransactionQuery.SortColumn.ID) {
+            sql.append(column).append(direction).append(", ");
+        }
+        return sql.append("id").append(direction).append(" LIMIT ?").toString();
+    }
+
+    /**
+     * Restrict to a list of ids. The list is padded to a power of two so that
+     * the statement cache sees a few distinct statements, not one per length.
+     */
+    private static void appendIdList(StringBuilder sql, int count) {
+        if (count == 0) {
+            sql.append(" AND FALSE");
+            return;
+        }
+        sql.append(" AND id IN (?");
+        for (int i = 1; i < paddedLength(count); i++) {
+            sql.append(", ?");
+        }
+        sql.append(')');
+    }
+
+    private static int paddedLength(int count) {
+        return count <= 1 ? count : Integer.highestOneBit(count - 1) << 1;
+    }
+
+    private static void appendKeyBound(StringBuilder sql, TransactionQuery query, String column,
+                                       String columnComparison, String idComparison) {
+        if (query.getSortColumn() == TransactionQuery.SortColumn.ID) {
+            sql.append(" AND id").append(idComparison);
+        } else {
+            sql.append(" AND (").append(column).append(columnComparison)
+               .append(" OR (").append(column).append(" = ? AND id").append(idComparison).append("))");
+        }
+    }
+
+    private static String sortExpression(TransactionQuery.SortColumn column) {
+        switch (column) {
+            case DATE: return "transaction_date";
+            case TYPE: return "type";
+            case CATEGORY: return "category";
+            // NULL would never satisfy the key comparisons
+            case DESCRIPTION: return "COALESCE(description, '')";
+            case AMOUNT: return "amount";
+            default: return "id";
+        }
+    }
+
+    /**
+     * Bind the parameters of {@link #pageQuery} in order
+     */
+    static void bindPage(PreparedStatement stmt, int userId, TransactionQuery query, Transaction after,
+                         Transaction until, int limit) throws SQLException {
+        int param = 1;
+        stmt.setInt(param++, userId);
+        if (query.getFromMillis() != Long.MIN_VALUE) {
+            stmt.setTimestamp(param++, new Timestamp(query.getFromMillis()));
+        }
+        if (query.getToMillis() != Long.MAX_VALUE) {
+            stmt.setTimestamp(param++, new Timestamp(query.getToMillis()));
+        }
+        if (query.getType() != null) {
+            stmt.setString(param++, query.getType().getDisplayName());
+        }
+        if (query.getCategory() != null) {
+            stmt.setString(param++, query.getCategory());
+        }
+        if (query.getMinCents() != Long.MIN_VALUE) {
+            stmt.setBigDecimal(param++, Transaction.toDecimal(query.getMinCents()));
+        }
+        if (query.getMaxCents() != Long.MAX_VALUE) {
+            stmt.setBigDecimal(param++, Transaction.toDecimal(query.getMaxCents()));
+        }
+        int[] ids = query.getTextMatchIds();
+        if (ids != null) {
+            // Padding repeats the last id
+            for (int i = 0; i < paddedLength(ids.length); i++) {
+                stmt.setInt(param++, ids[Math.min(i, ids.length - 1)]);
+            }
+        }
+        if (query.getText() != null) {
+            stmt.setString(param++, "%" + escapeLike(query.getText()) + "%");
+        }
+        if (after != null) {
+            param = setKey(stmt, param, query.getSortColumn(), after);
+        }
+        if (until != null) {
+            param = setKey(stmt, param, query.getSortColumn(), until);
+        }
+        stmt.setInt(param, limit);
+    }
+
+    private static int setKey(PreparedStatement stmt, int param, TransactionQuery.SortColumn column,
+                              Transaction key) throws SQLException {
+        if (column != TransactionQuery.SortColumn.ID) {
+            // The sort value is compared twice, once for the row's own column and once for ties
+            for (int i = 0; i < 2; i++) {
+                switch (column) {
+                    case DATE:
+                        stmt.setTimestamp(param++, new Timestamp(key.getDateMillis()));
+                        break;
+                    case TYPE:
+                        stmt.setString(param++, key.getType().getDisplayName());
+                        break;
+                    case CATEGORY:
+                        stmt.setString(param++, key.getCategory());
+                        break;
+                    case DESCRIPTION:
+                        stmt.setString(param++, key.getDescription() == null ? "" : key.getDescription());
+                        break;
+                    default:
+                        stmt.setBigDecimal(param++, Transaction.toDecimal(key.getAmountCents()));
+                        break;
+                }
+            }
+        }
+        stmt.setInt(param++, key.getId());
+        return param;
+    }
+
+    /**
+     * Escape the LIKE wildcards of user input, using MySQL's default escape character
+     */
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Load the complete history of a user, newest first
+     * @param userId User ID
+     * @return All transactions of the user
+     */
+    public List<Transaction> findByUser(int userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COLUMNS + "WHERE user_id = ?" + NEWEST_FIRST)) {
+
+            stmt.setInt(1, userId);
+            return readAll(stmt, 16);
+        }
+    }
+
+    /**
+     * Stream the complete history of a user, newest first, without holding it in memory.
+     * Rows are read through a forward-only server-side cursor, fetchSize rows per round trip.
+     * @param userId User ID
+     * @param fetchSize Rows fetched from the server at a time
+     * @param handler Called for every row on the calling thread
+     * @return Number of rows streamed
+     */
+    public long streamByUser(int userId, int fetchSize, RowHandler handler) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COLUMNS + "WHERE user_id = ?" + NEWEST_FIRST,
+                                                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(fetchSize);
+            stmt.setInt(1, userId);
+            long rows = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(mapRow(rs));
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Aggregate a user's transactions in the database, one row per
+     * (month, type, category) group, so only distinct groups cross the wire
+     * @param userId User ID
+     * @return Totals per group, newest month first
+     */
+    public List<MonthlyRollup> aggregateByMonth(int userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(MONTHLY_TOTALS)) {
+
+            stmt.setInt(1, userId);
+            List<MonthlyRollup> groups = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    groups.add(new MonthlyRollup(
+                        rs.getString("month"),
+                        TransactionType.fromDisplayName(rs.getString("type")),
+                        Category.idOf(rs.getString("category")),
+                        readCents(rs, "total"),
+                        rs.getInt("transaction_count")
+                    ));
+                }
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * Aggregate a user's transactions per UTC day and type in the database
+     * @param userId User ID
+     * @return Totals per day and type, oldest day first; days without transactions are absent
+     */
+    public List<DailyTotal> aggregateByDay(int userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DAILY_TOTALS)) {
+
+            stmt.setInt(1, userId);
+            List<DailyTotal> totals = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new DailyTotal(
+                        rs.getLong("epoch_day"),
+                        TransactionType.fromDisplayName(rs.getString("type")),
+                        readCents(rs, "total")
+                    ));
+                }
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * Read a user's balance from the materialized user_balances table,
+     * or from the rollup cache if the user is loaded
+     * @param userId User ID
+     * @return Income minus expenses, in cents
+     */
+    public long getBalanceCents(int userId) throws SQLException {
+        return new RollupDAO().getBalanceCents(userId);
+    }
+
+    /**
+     * Read a user's balance from the database, bypassing the rollup cache,
+     * to pick up changes made by other sessions
+     * @param userId User ID
+     * @return Income minus expenses, in cents
+     */
+    public long reconcileBalanceCents(int userId) throws SQLException {
+        return new RollupDAO().reconcileBalanceCents(userId);
+    }
+
+    /**
+     * Read and lock the current values of a row inside the caller's transaction
+     */
+    private static Transaction findForUpdate(Connection conn, int userId, int transactionId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(COLUMNS + "WHERE id = ? AND user_id = ? FOR UPDATE")) {
+            stmt.setInt(1, transactionId);
+            stmt.setInt(2, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        }
+    }
+
+    private static List<Transaction> readAll(PreparedStatement stmt, int expectedRows) throws SQLException {
+        List<Transaction> transactions = new ArrayList<>(expectedRows);
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                transactions.add(mapRow(rs));
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Read a DECIMAL amount column as cents. The text the driver returns is
+     * parsed directly, which avoids building BigDecimals for every row.
+     */
+    static long readCents(ResultSet rs, String column) throws SQLException {
+        String value = rs.getString(column);
+        try {
+            return Money.parse(value);
+        } catch (NumberFormatException e) {
+            // Wider scales or exponent notation from other column types
+            return Transaction.toCents(new BigDecimal(value));
+        }
+    }
+
+    /**
+     * Map the current row of a result set selected with the standard column list
+     */
+    static Transaction mapRow(ResultSet rs) throws SQLException {
+        return new Transaction(
+            rs.getInt("id"),
+            rs.getInt("user_id"),
+            rs.getTimestamp("transaction_date").getTime(),
+            readCents(rs, "amount"),
+            TransactionType.fromDisplayName(rs.getString("type")),
+            Category.idOf(rs.getString("category")),
+            rs.getString("description")
+        );
+    }
+}
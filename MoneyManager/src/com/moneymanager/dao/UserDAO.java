@@ -117,17 +117,4 @@ public class UserDAO {
         
         return false;
     }
-    
-    /**
-     * Get all transactions for analytics
-     * @param userId User ID
-     * @return ResultSet containing user transactions
-     */
-    public ResultSet getUserTransactions(int userId) throws SQLException {
-        String query = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC";
-        Connection conn = DatabaseConnection.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(query);
-        stmt.setInt(1, userId);
-        return stmt.executeQuery();
-    }
 }
\ No newline at end of file
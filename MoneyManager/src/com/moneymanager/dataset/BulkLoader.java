@@ -0,0 +1,164 @@
+package com.moneymanager.dataset;
+
+import com.moneymanager.dao.DatabaseConnection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Loads a dataset written by {@link DatasetFiles} into MySQL.
+ * <p>
+ * Users get explicit ids following the current maximum, so user indexes in
+ * the files map to ids without lookups. Transactions are loaded either with
+ * {@code LOAD DATA LOCAL INFILE} (fastest; needs local_infile enabled on the
+ * server) or with batched multi-row INSERTs. Balance and rollup tables are
+ * not touched; rebuild them for the returned users afterwards.
+ */
+public class BulkLoader {
+
+    public enum Mode {
+        /** Multi-row INSERTs through JDBC batches */
+        BATCH,
+        /** LOAD DATA LOCAL INFILE on a dedicated connection */
+        INFILE
+    }
+
+    private final int batchSize;
+
+    public BulkLoader(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Load users and transactions from a dataset directory
+     * @param directory Directory containing users.csv and transactions.csv
+     * @param mode How to load the transactions
+     * @param progress Called with the number of transactions loaded so far (BATCH mode only)
+     * @return Database ids of the loaded users, in user index order
+     */
+    public List<Integer> load(Path directory, Mode mode, LongConsumer progress)
+            throws IOException, SQLException, ClassNotFoundException {
+        try (Connection conn = mode == Mode.INFILE ? DatabaseConnection.openBulkLoadConnection()
+                                                   : DatabaseConnection.getConnection()) {
+            int baseId = maxUserId(conn);
+            List<Integer> userIds = loadUsers(conn, directory.resolve(DatasetFiles.USERS_FILE), baseId);
+            if (mode == Mode.INFILE) {
+                loadTransactionsFromFile(conn, directory.resolve(DatasetFiles.TRANSACTIONS_FILE), baseId);
+            } else {
+                insertTransactions(conn, directory.resolve(DatasetFiles.TRANSACTIONS_FILE), baseId, progress);
+            }
+            return userIds;
+        }
+    }
+
+    private static int maxUserId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM users")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private List<Integer> loadUsers(Connection conn, Path file, int baseId) throws IOException, SQLException {
+        String query = "INSERT INTO users (id, username, password, email, full_name) VALUES (?, ?, ?, ?, ?)";
+        List<Integer> userIds = new ArrayList<>();
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            reader.readLine(); // header
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",", -1);
+                int id = baseId + Integer.parseInt(fields[0]);
+                stmt.setInt(1, id);
+                stmt.setString(2, fields[1]);
+                stmt.setString(3, "password");
+                stmt.setString(4, fields[2]);
+                stmt.setString(5, fields[3]);
+                stmt.addBatch();
+                userIds.add(id);
+                if (userIds.size() % batchSize == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        } catch (IOException | SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return userIds;
+    }
+
+    private static void loadTransactionsFromFile(Connection conn, Path file, int baseId) throws SQLException {
+        String path = file.toAbsolutePath().toString().replace("\\", "\\\\").replace("'", "\\'");
+        try (Statement stmt = conn.createStatement()) {
+            // The dataset is consistent by construction; skip per-row checks for this session only
+            stmt.execute("SET unique_checks = 0, foreign_key_checks = 0");
+            stmt.execute("LOAD DATA LOCAL INFILE '" + path + "' INTO TABLE transactions " +
+                         "CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n' IGNORE 1 LINES " +
+                         "(@user, transaction_date, type, category, description, amount) " +
+                         "SET user_id = @user + " + baseId);
+            stmt.execute("SET unique_checks = 1, foreign_key_checks = 1");
+        }
+    }
+
+    private void insertTransactions(Connection conn, Path file, int baseId, LongConsumer progress)
+            throws IOException, SQLException {
+        String query = "INSERT INTO transactions (user_id, transaction_date, type, category, description, amount) " +
+                      "VALUES (?, ?, ?, ?, ?, ?)";
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            reader.readLine(); // header
+            long rows = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",", -1);
+                stmt.setInt(1, baseId + Integer.parseInt(fields[0]));
+                stmt.setTimestamp(2, Timestamp.from(LocalDateTime.parse(fields[1].replace(' ', 'T')).toInstant(ZoneOffset.UTC)));
+                stmt.setString(3, fields[2]);
+                stmt.setString(4, fields[3]);
+                stmt.setString(5, fields[4]);
+                stmt.setBigDecimal(6, new BigDecimal(fields[5]));
+                stmt.addBatch();
+                if (++rows % batchSize == 0) {
+                    stmt.executeBatch();
+                    conn.commit();
+                    progress.accept(rows);
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+            progress.accept(rows);
+        } catch (IOException | SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+}
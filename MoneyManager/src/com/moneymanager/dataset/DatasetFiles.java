@@ -0,0 +1,76 @@
+package com.moneymanager.dataset;
+
+import com.moneymanager.model.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a generated dataset as two CSV files in a directory:
+ * {@code users.csv} (user,username,email,full_name) and
+ * {@code transactions.csv} (user,date,type,category,description,amount),
+ * where user is the 1-based user index. Dates are UTC; amounts have two
+ * decimals. The generator's vocabularies contain no commas or quotes, so
+ * fields are never quoted and the files load directly with LOAD DATA INFILE
+ * or into in-memory engines.
+ */
+public class DatasetFiles implements DatasetGenerator.Sink, AutoCloseable {
+    public static final String USERS_FILE = "users.csv";
+    public static final String TRANSACTIONS_FILE = "transactions.csv";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final BufferedWriter users;
+    private final BufferedWriter transactions;
+    private final StringBuilder line = new StringBuilder(128);
+    private long transactionCount;
+
+    public DatasetFiles(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        users = new BufferedWriter(Files.newBufferedWriter(directory.resolve(USERS_FILE), StandardCharsets.UTF_8), BUFFER_SIZE);
+        transactions = new BufferedWriter(Files.newBufferedWriter(directory.resolve(TRANSACTIONS_FILE), StandardCharsets.UTF_8), BUFFER_SIZE);
+        users.write("user,username,email,full_name\n");
+        transactions.write("user,date,type,category,description,amount\n");
+    }
+
+    @Override
+    public void user(int userIndex, String username, String email, String fullName) throws IOException {
+        users.write(userIndex + "," + username + "," + email + "," + fullName + "\n");
+    }
+
+    @Override
+    public void transaction(Transaction transaction) throws IOException {
+        line.setLength(0);
+        line.append(transaction.getUserId()).append(',')
+            .append(DATE_FORMAT.format(LocalDateTime.ofEpochSecond(transaction.getDateMillis() / 1000, 0, ZoneOffset.UTC))).append(',')
+            .append(transaction.getType().getDisplayName()).append(',')
+            .append(transaction.getCategory()).append(',')
+            .append(transaction.getDescription()).append(',')
+            .append(transaction.getAmountCents() / 100).append('.')
+            .append((char) ('0' + transaction.getAmountCents() % 100 / 10))
+            .append((char) ('0' + transaction.getAmountCents() % 10)).append('\n');
+        transactions.append(line);
+        transactionCount++;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Close both writers even if one fails
+        try {
+            users.close();
+        } finally {
+            transactions.close();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.moneymanager.dataset;
+
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates realistic synthetic users and transaction histories for
+ * benchmarking. Output depends only on the {@link Config}: the same seed
+ * always produces the same users and transactions in the same order, so
+ * benchmark runs against generated databases are comparable.
+ * <p>
+ * Every user gets a monthly salary, occasional investment income and a
+ * number of expenses that varies per user and follows a yearly cycle peaking
+ * in December. Expense categories, amounts and descriptions are drawn from
+ * per-category weights, log-normal amount distributions and vocabularies.
+ * Each user has its own random stream, so users can be generated
+ * independently of each other.
+ */
+public class DatasetGenerator {
+
+    /**
+     * Dataset size and shape
+     */
+    public static class Config {
+        public int users = 100;
+        // Average per user; individual users vary around it
+        public int transactionsPerUser = 1000;
+        public int years = 3;
+        public long seed = 42;
+        // Amplitude of the yearly expense cycle, 0 for none; 0.3 means 30% more spending in December
+        public double seasonality = 0.3;
+        // Fixed so that the output does not depend on the day it is generated
+        public LocalDate endDate = LocalDate.of(2025, 12, 31);
+        public String usernamePrefix = "gen_";
+    }
+
+    /**
+     * Receives the generated data, users first and then the history of each
+     * user in chronological order
+     */
+    public interface Sink {
+        void user(int userIndex, String username, String email, String fullName) throws IOException;
+
+        /**
+         * @param transaction Generated transaction; its user id is the 1-based user index and its id is 0
+         */
+        void transaction(Transaction transaction) throws IOException;
+    }
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Carlos", "Ana",
+        "Wei", "Mei", "Arjun", "Priya", "Omar", "Fatima", "Lukas", "Sofia", "Kenji", "Yuki"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor", "Moore", "Martin", "Lee", "Chen", "Wang",
+        "Patel", "Kumar", "Khan", "Ali", "Schmidt", "Muller", "Rossi", "Tanaka", "Sato", "Nguyen"
+    };
+    private static final String[] PLACES = {"Downtown", "Mall", "Online", "Main St", "Airport", "Station", "Market"};
+
+    private static final ExpenseCategory[] EXPENSES = {
+        new ExpenseCategory("Food", 30, 2_500, "Grocery store", "Supermarket", "Bakery", "Coffee shop",
+                            "Restaurant", "Pizza delivery", "Farmers market", "Lunch"),
+        new ExpenseCategory("Shopping", 18, 5_000, "Clothing", "Electronics", "Home goods", "Online order",
+                            "Gifts", "Furniture", "Shoes"),
+        new ExpenseCategory("Transportation", 15, 4_000, "Fuel", "Bus pass", "Train ticket", "Taxi",
+                            "Parking", "Car service"),
+        new ExpenseCategory("Entertainment", 10, 3_000, "Cinema", "Concert tickets", "Streaming subscription",
+                            "Books", "Video game", "Museum"),
+        new ExpenseCategory("Utilities", 9, 9_000, "Electricity bill", "Water bill", "Internet", "Phone bill",
+                            "Gas bill"),
+        new ExpenseCategory("Healthcare", 6, 6_000, "Pharmacy", "Doctor visit", "Dentist", "Gym membership"),
+        new ExpenseCategory("Other", 7, 3_000, "Bank fee", "Donation", "Haircut", "Post office", "Miscellaneous")
+    };
+    private static final String[] INVESTMENT_INCOME = {"Dividend", "Interest", "Stock sale", "Fund distribution"};
+
+    private final Config config;
+    private final int totalWeight;
+    private final short salaryCategory = Category.idOf("Salary");
+    private final short investmentCategory = Category.idOf("Investment");
+
+    public DatasetGenerator(Config config) {
+        this.config = config;
+        int weight = 0;
+        for (ExpenseCategory category : EXPENSES) {
+            weight += category.weight;
+        }
+        totalWeight = weight;
+    }
+
+    /**
+     * Generate all users and then all transactions
+     */
+    public void generate(Sink sink) throws IOException {
+        for (int user = 1; user <= config.users; user++) {
+            Random random = randomFor(user, 0);
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String username = config.usernamePrefix + config.seed + "_" + user;
+            sink.user(user, username, username + "@example.com", first + " " + last);
+        }
+        for (int user = 1; user <= config.users; user++) {
+            generateHistory(user, sink);
+        }
+    }
+
+    /**
+     * Generate the chronological history of one user
+     * @param userIndex 1-based user index
+     */
+    public void generateHistory(int userIndex, Sink sink) throws IOException {
+        Random random = randomFor(userIndex, 1);
+        int months = config.years * 12;
+        LocalDate firstMonth = config.endDate.withDayOfMonth(1).minusMonths(months - 1);
+
+        long salaryCents = logNormal(random, 350_000, 0.4);
+        int count = (int) Math.max(months, Math.round(config.transactionsPerUser * Math.exp(0.35 * random.nextGaussian())));
+        int incomeCount = months + months / 4; // salaries plus expected investment income
+        int expenseCount = Math.max(0, count - incomeCount);
+
+        double[] weights = new double[months];
+        double weightSum = 0;
+        for (int m = 0; m < months; m++) {
+            int calendarMonth = firstMonth.plusMonths(m).getMonthValue();
+            weights[m] = 1 + config.seasonality * Math.cos(2 * Math.PI * (calendarMonth - 12) / 12.0);
+            weightSum += weights[m];
+        }
+
+        List<Transaction> month = new ArrayList<>();
+        double carry = 0;
+        for (int m = 0; m < months; m++) {
+            LocalDate start = firstMonth.plusMonths(m);
+            long startMillis = start.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            int days = start.lengthOfMonth();
+            month.clear();
+
+            month.add(new Transaction(0, userIndex, startMillis + 9 * 3_600_000L,
+                                      Math.round(salaryCents * (1 + 0.02 * random.nextGaussian())),
+                                      TransactionType.INCOME, salaryCategory, "Monthly salary"));
+            if (random.nextInt(4) == 0) {
+                month.add(new Transaction(0, userIndex, randomTime(random, startMillis, days),
+                                          logNormal(random, 20_000, 0.8), TransactionType.INCOME, investmentCategory,
+                                          INVESTMENT_INCOME[random.nextInt(INVESTMENT_INCOME.length)]));
+            }
+
+            // Spread expenses over months by weight, carrying fractions so the total is exact
+            double expected = expenseCount * weights[m] / weightSum + carry;
+            int expenses = (int) expected;
+            carry = expected - expenses;
+            for (int i = 0; i < expenses; i++) {
+                ExpenseCategory category = pickCategory(random);
+                String description = category.vocabulary[random.nextInt(category.vocabulary.length)]
+                                     + " " + PLACES[random.nextInt(PLACES.length)];
+                month.add(new Transaction(0, userIndex, randomTime(random, startMillis, days),
+                                          logNormal(random, category.medianCents, 0.6), TransactionType.EXPENSE,
+                                          category.id, description));
+            }
+
+            month.sort(Comparator.comparingLong(Transaction::getDateMillis));
+            for (Transaction transaction : month) {
+                sink.transaction(transaction);
+            }
+        }
+    }
+
+    /**
+     * Independent, reproducible random stream per user and purpose
+     */
+    private Random randomFor(int userIndex, int stream) {
+        long h = config.seed * 0x9E3779B97F4A7C15L + userIndex * 2L + stream;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return new Random(h ^ (h >>> 31));
+    }
+
+    private ExpenseCategory pickCategory(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (ExpenseCategory category : EXPENSES) {
+            pick -= category.weight;
+            if (pick < 0) {
+                return category;
+            }
+        }
+        return EXPENSES[EXPENSES.length - 1];
+    }
+
+    /**
+     * Random time in a month, mostly during waking hours
+     */
+    private static long randomTime(Random random, long monthStartMillis, int days) {
+        long day = random.nextInt(days);
+        long seconds = (7 * 3600 + random.nextInt(16 * 3600));
+        return monthStartMillis + day * DAY_MILLIS + seconds * 1000;
+    }
+
+    private static long logNormal(Random random, long medianCents, double sigma) {
+        return Math.max(50, Math.round(medianCents * Math.exp(sigma * random.nextGaussian())));
+    }
+
+    private static final class ExpenseCategory {
+        final short id;
+        final int weight;
+        final long medianCents;
+        final String[] vocabulary;
+
+        ExpenseCategory(String name, int weight, long medianCents, String... vocabulary) {
+            this.id = Category.idOf(name);
+            this.weight = weight;
+            this.medianCents = medianCents;
+            this.vocabulary = vocabulary;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.moneymanager.event;
+
+import com.moneymanager.model.Transaction;
+
+/**
+ * A committed change to a user's transactions, published on the
+ * {@link TransactionEventBus}.
+ * <p>
+ * Single-row changes carry the transaction as it was before and after the
+ * change. Bulk inserts, such as a CSV import chunk, carry only the number of
+ * rows and their effect on the balance, since their generated ids are not
+ * read back; subscribers reload what they show for that user instead.
+ */
+public final class TransactionEvent {
+
+    public enum Type {
+        INSERT, UPDATE, DELETE, BULK
+    }
+
+    private final Type type;
+    private final int userId;
+    private final Transaction oldValue;
+    private final Transaction newValue;
+    private final int count;
+    private final long balanceDeltaCents;
+
+    private TransactionEvent(Type type, int userId, Transaction oldValue, Transaction newValue,
+                             int count, long balanceDeltaCents) {
+        this.type = type;
+        this.userId = userId;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.count = count;
+        this.balanceDeltaCents = balanceDeltaCents;
+    }
+
+    /**
+     * @param inserted Transaction as stored, including its generated id
+     */
+    public static TransactionEvent inserted(Transaction inserted) {
+        return new TransactionEvent(Type.INSERT, inserted.getUserId(), null, inserted, 1,
+                                    inserted.getSignedAmountCents());
+    }
+
+    public static TransactionEvent updated(Transaction previous, Transaction updated) {
+        return new TransactionEvent(Type.UPDATE, updated.getUserId(), previous, updated, 1,
+                                    updated.getSignedAmountCents() - previous.getSignedAmountCents());
+    }
+
+    public static TransactionEvent deleted(Transaction deleted) {
+        return new TransactionEvent(Type.DELETE, deleted.getUserId(), deleted, null, 1,
+                                    -deleted.getSignedAmountCents());
+    }
+
+    /**
+     * Many transactions of one user inserted at once
+     * @param count Number of inserted rows
+     * @param balanceDeltaCents Signed sum of their amounts
+     */
+    public static TransactionEvent bulkInserted(int userId, int count, long balanceDeltaCents) {
+        return new TransactionEvent(Type.BULK, userId, null, null, count, balanceDeltaCents);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Transaction before the change; null for inserts
+     */
+    public Transaction getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Transaction after the change; null for deletes and bulk inserts
+     */
+    public Transaction getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * Number of rows affected
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Signed change of the user's balance in cents
+     */
+    public long getBalanceDeltaCents() {
+        return balanceDeltaCents;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionEvent{" + type + ", user=" + userId + ", count=" + count
+            + ", old=" + oldValue + ", new=" + newValue + "}";
+    }
+}
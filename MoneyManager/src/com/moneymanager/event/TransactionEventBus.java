@@ -0,0 +1,92 @@
+package com.moneymanager.event;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process publish/subscribe channel for committed transaction changes, so
+ * that every open window can follow changes made in any other.
+ * <p>
+ * Events may be published from any thread. They are queued and delivered on
+ * the Event Dispatch Thread at most once per frame
+ * ({@code -Dmoneymanager.events.frameMillis}, default 16), each listener
+ * receiving the whole batch in one call: a burst of inserts from an import
+ * causes one update of each window rather than one per row. Nothing is
+ * queued while no listener is subscribed, e.g. in the command line tools.
+ */
+public class TransactionEventBus {
+    private static final int FRAME_MILLIS = Integer.getInteger("moneymanager.events.frameMillis", 16);
+
+    private static final List<TransactionListener> listeners = new CopyOnWriteArrayList<>();
+    private static final Object lock = new Object();
+    private static List<TransactionEvent> pending = new ArrayList<>();
+    private static boolean scheduled;
+    private static Timer timer;
+
+    private TransactionEventBus() {}
+
+    public static void subscribe(TransactionListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void unsubscribe(TransactionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queue an event for delivery with the next frame
+     */
+    public static void publish(TransactionEvent event) {
+        publishAll(Collections.singletonList(event));
+    }
+
+    /**
+     * Queue events for delivery with the next frame, in order
+     */
+    public static void publishAll(List<TransactionEvent> events) {
+        if (listeners.isEmpty() || events.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            pending.addAll(events);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        SwingUtilities.invokeLater(TransactionEventBus::scheduleFlush);
+    }
+
+    /**
+     * Runs on the EDT; wait for the end of the frame so that events published
+     * meanwhile are delivered together
+     */
+    private static void scheduleFlush() {
+        if (timer == null) {
+            timer = new Timer(FRAME_MILLIS, e -> flush());
+            timer.setRepeats(false);
+        }
+        timer.start();
+    }
+
+    private static void flush() {
+        List<TransactionEvent> events;
+        synchronized (lock) {
+            events = Collections.unmodifiableList(pending);
+            pending = new ArrayList<>();
+            scheduled = false;
+        }
+        for (TransactionListener listener : listeners) {
+            try {
+                listener.transactionsChanged(events);
+            } catch (RuntimeException e) {
+                System.err.println("Transaction listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.moneymanager.event;
+
+import java.util.List;
+
+/**
+ * Subscriber of the {@link TransactionEventBus}
+ */
+public interface TransactionListener {
+
+    /**
+     * Called on the Event Dispatch Thread with all changes published since
+     * the previous call, oldest first. Events of every user are delivered;
+     * listeners pick out the ones they show.
+     */
+    void transactionsChanged(List<TransactionEvent> events);
+}
@@ -0,0 +1,304 @@
+package com.moneymanager.exporter;
+
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's transactions to a CSV or JSON file.
+ * <p>
+ * Rows come from a server-side cursor and are formatted straight into a
+ * buffered writer over a FileChannel, optionally gzip-compressed, so heap use
+ * does not depend on the number of rows. The export is written to a temporary
+ * file next to the target and moved into place when complete.
+ * <p>
+ * CSV files use the columns id, date, type, category, description and amount
+ * and can be read back by {@link com.moneymanager.importer.CsvImporter}.
+ * JSON files hold one array of objects with the same fields.
+ */
+public class TransactionExporter {
+
+    public enum Format {
+        CSV, JSON;
+
+        /**
+         * Format implied by a file name such as statement.json or statement.csv.gz; CSV by default
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".gz")) {
+                name = name.substring(0, name.length() - 3);
+            }
+            return name.endsWith(".json") ? JSON : CSV;
+        }
+    }
+
+    /**
+     * Export settings. Defaults can be overridden with -Dmoneymanager.export.* system properties.
+     */
+    public static class Config {
+        public Format format = Format.CSV;
+        public boolean gzip = false;
+        // Rows fetched from the server per round trip
+        public int fetchSize = Integer.getInteger("moneymanager.export.fetchSize", 1000);
+        public int bufferSize = Integer.getInteger("moneymanager.export.bufferSize", 1 << 16);
+
+        /**
+         * Settings for a target file, taking the format and compression from its name
+         */
+        public static Config forFile(Path file) {
+            Config config = new Config();
+            config.format = Format.of(file);
+            config.gzip = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+            return config;
+        }
+    }
+
+    private final Config config;
+    private final TransactionDAO transactionDAO;
+
+    public TransactionExporter(Config config) {
+        this(config, new TransactionDAO());
+    }
+
+    TransactionExporter(Config config, TransactionDAO transactionDAO) {
+        this.config = config;
+        this.transactionDAO = transactionDAO;
+    }
+
+    /**
+     * Export all transactions of a user, newest first
+     * @param userId Owner of the transactions
+     * @param file Target file, replaced when the export completes
+     * @param progress Called with the number of rows written after every fetchSize rows
+     * @return Number of rows written
+     * @throws InterruptedIOException if the exporting thread was interrupted
+     */
+    public long export(int userId, Path file, LongConsumer progress) throws IOException, SQLException {
+        Path temp = file.resolveSibling(file.getFileName() + ".part");
+        boolean complete = false;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            if (config.gzip) {
+                out = new GZIPOutputStream(out, config.bufferSize);
+            }
+            long rows;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), config.bufferSize)) {
+                RowWriter rowWriter = config.format == Format.JSON ? new JsonRowWriter(writer) : new CsvRowWriter(writer);
+                rowWriter.begin();
+                rows = transactionDAO.streamByUser(userId, config.fetchSize, transaction -> {
+                    rowWriter.write(transaction);
+                    if (rowWriter.count % config.fetchSize == 0) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Export cancelled");
+                        }
+                        progress.accept(rowWriter.count);
+                    }
+                });
+                rowWriter.end();
+            }
+            complete = true;
+            progress.accept(rows);
+            return rows;
+        } finally {
+            if (complete) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Formats rows into a writer, reusing one line buffer to avoid per-row garbage
+     */
+    private abstract static class RowWriter {
+        final Writer writer;
+        final StringBuilder line = new StringBuilder(256);
+        private char[] chars = new char[256];
+        long count;
+        private long cachedEpochDay = Long.MIN_VALUE;
+        private String cachedDate;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        abstract void begin() throws IOException;
+
+        abstract void write(Transaction transaction) throws IOException;
+
+        abstract void end() throws IOException;
+
+        /**
+         * Append a UTC timestamp as yyyy-MM-dd HH:mm:ss. Rows arrive sorted by
+         * date, so the date part is formatted once per day.
+         */
+        void appendDate(long millis) {
+            long epochDay = Math.floorDiv(millis, 86_400_000L);
+            if (epochDay != cachedEpochDay) {
+                cachedEpochDay = epochDay;
+                cachedDate = LocalDate.ofEpochDay(epochDay).toString();
+            }
+            int seconds = (int) (Math.floorMod(millis, 86_400_000L) / 1000);
+            line.append(cachedDate).append(' ');
+            appendTwoDigits(seconds / 3600);
+            line.append(':');
+            appendTwoDigits(seconds / 60 % 60);
+            line.append(':');
+            appendTwoDigits(seconds % 60);
+        }
+
+        private void appendTwoDigits(int value) {
+            line.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+        }
+
+        void flushLine() throws IOException {
+            int length = line.length();
+            if (length > chars.length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            line.getChars(0, length, chars, 0);
+            writer.write(chars, 0, length);
+            line.setLength(0);
+            count++;
+        }
+    }
+
+    private static final class CsvRowWriter extends RowWriter {
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void begin() throws IOException {
+            writer.write("id,date,type,category,description,amount\n");
+        }
+
+        @Override
+        void write(Transaction transaction) throws IOException {
+            line.append(transaction.getId()).append(',');
+            appendDate(transaction.getDateMillis());
+            line.append(',').append(transaction.getType().getDisplayName()).append(',');
+            appendField(transaction.getCategory());
+            line.append(',');
+            appendField(transaction.getDescription());
+            line.append(',');
+            Money.appendPlain(line, transaction.getAmountCents());
+            line.append('\n');
+            flushLine();
+        }
+
+        @Override
+        void end() {
+        }
+
+        /**
+         * Append a field, quoting it if it contains a separator, quote or line break
+         * @param value Field text; null is written as an empty field
+         */
+        private void appendField(String value) {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+    }
+
+    private static final class JsonRowWriter extends RowWriter {
+        JsonRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void begin() throws IOException {
+            writer.write("[");
+        }
+
+        @Override
+        void write(Transaction transaction) throws IOException {
+            line.append(count == 0 ? "\n" : ",\n");
+            line.append("{\"id\":").append(transaction.getId()).append(",\"date\":\"");
+            appendDate(transaction.getDateMillis());
+            line.append("\",\"type\":\"").append(transaction.getType().getDisplayName());
+            line.append("\",\"category\":");
+            appendString(transaction.getCategory());
+            line.append(",\"description\":");
+            appendString(transaction.getDescription());
+            line.append(",\"amount\":");
+            Money.appendPlain(line, transaction.getAmountCents());
+            line.append('}');
+            flushLine();
+        }
+
+        @Override
+        void end() throws IOException {
+            writer.write(count == 0 ? "]\n" : "\n]\n");
+        }
+
+        /**
+         * Append a JSON string, or null
+         */
+        private void appendString(String value) {
+            if (value == null) {
+                line.append("null");
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    line.append('\\').append(c);
+                } else if (c == '\n') {
+                    line.append("\\n");
+                } else if (c == '\r') {
+                    line.append("\\r");
+                } else if (c == '\t') {
+                    line.append("\\t");
+                } else if (c < 0x20) {
+                    line.append(String.format("\\u%04x", (int) c));
+                } else {
+                    line.append(c);
+                }
+            }
+            line.append('"');
+        }
+    }
+}
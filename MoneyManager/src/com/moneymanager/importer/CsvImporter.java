@@ -0,0 +1,349 @@
+package com.moneymanager.importer;
+
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.model.Transaction;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Streams a CSV file of transactions into the database.
+ * <p>
+ * Three stages run concurrently: a reader thread splits the file into chunks
+ * of records, parse workers validate them into transactions, and the calling
+ * thread inserts each chunk as one JDBC batch in its own database transaction.
+ * The stages are connected by bounded queues, so a slow database holds back
+ * reading and memory stays bounded regardless of file size. Rejected records
+ * are written to an error report next to the file.
+ * <p>
+ * The import runs on the calling thread; interrupting it cancels the import.
+ * Chunks already written stay committed.
+ */
+public class CsvImporter {
+
+    /**
+     * Import settings. Defaults can be overridden with -Dmoneymanager.import.* system properties.
+     */
+    public static class Config {
+        // Records per parse chunk and per database transaction
+        public int chunkSize = Integer.getInteger("moneymanager.import.chunkSize", 1000);
+        public int parseThreads = Integer.getInteger("moneymanager.import.parseThreads",
+                                                     Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        // Chunks buffered between two stages
+        public int queueCapacity = Integer.getInteger("moneymanager.import.queueCapacity", 4);
+        // Rejected records kept in memory for the result; all are written to the report
+        public int maxReportedErrors = 100;
+    }
+
+    /**
+     * Destination of parsed chunks
+     */
+    interface ChunkWriter {
+        void write(List<Transaction> transactions) throws SQLException;
+    }
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Config config;
+    private final ChunkWriter writer;
+
+    public CsvImporter(Config config) {
+        this(config, new TransactionDAO()::insertAll);
+    }
+
+    CsvImporter(Config config, ChunkWriter writer) {
+        this.config = config;
+        this.writer = writer;
+    }
+
+    /**
+     * Import a file for a user
+     * @param file CSV file with a header row
+     * @param userId Owner of the imported transactions
+     * @param progress Called on the importing thread after each written chunk
+     * @return Counts and the error report location
+     * @throws IOException if the file cannot be read or has no valid header
+     * @throws SQLException if a chunk cannot be written; earlier chunks stay imported
+     * @throws InterruptedException if the importing thread was interrupted
+     */
+    public ImportResult importFile(Path file, int userId, Consumer<ImportProgress> progress)
+            throws IOException, SQLException, InterruptedException {
+        long start = System.nanoTime();
+        BlockingQueue<RecordChunk> records = new ArrayBlockingQueue<>(config.queueCapacity);
+        BlockingQueue<ParsedChunk> parsed = new ArrayBlockingQueue<>(config.queueCapacity);
+        AtomicLong recordsRead = new AtomicLong();
+        Failure failure = new Failure();
+        ExecutorService stages = Executors.newFixedThreadPool(config.parseThreads + 1, r -> {
+            Thread t = new Thread(r, "csv-import");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(
+                 Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER_SIZE), READ_BUFFER_SIZE);
+             ErrorReport errors = new ErrorReport(errorReportPath(file), config.maxReportedErrors)) {
+
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("The file is empty");
+            }
+            CsvTransactionParser parser;
+            try {
+                parser = new CsvTransactionParser(userId, header);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            }
+            long totalBytes = channel.size();
+
+            stages.execute(() -> readRecords(reader, records, recordsRead, failure));
+            for (int i = 0; i < config.parseThreads; i++) {
+                stages.execute(() -> parseRecords(parser, records, parsed, failure));
+            }
+
+            long imported = 0;
+            int finishedParsers = 0;
+            while (finishedParsers < config.parseThreads) {
+                failure.rethrow();
+                ParsedChunk chunk = parsed.poll(100, TimeUnit.MILLISECONDS);
+                if (chunk == null) {
+                    continue;
+                }
+                if (chunk == ParsedChunk.END) {
+                    finishedParsers++;
+                    continue;
+                }
+                if (!chunk.transactions.isEmpty()) {
+                    writer.write(chunk.transactions);
+                    imported += chunk.transactions.size();
+                }
+                for (ImportError error : chunk.errors) {
+                    errors.add(error);
+                }
+                progress.accept(new ImportProgress(recordsRead.get(), imported, errors.count(),
+                                                   channel.position(), totalBytes));
+            }
+            failure.rethrow();
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new ImportResult(imported, errors.count(), elapsedMillis, errors.path(), errors.first());
+        } finally {
+            stages.shutdownNow();
+        }
+    }
+
+    /**
+     * Report path for an import file: statement.csv becomes statement.errors.csv
+     */
+    static Path errorReportPath(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return file.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".errors.csv");
+    }
+
+    private void readRecords(BufferedReader reader, BlockingQueue<RecordChunk> records,
+                             AtomicLong recordsRead, Failure failure) {
+        try {
+            RecordChunk chunk = new RecordChunk(config.chunkSize);
+            StringBuilder pending = null;
+            int pendingLine = 0;
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                // A quoted field may span lines; keep reading until its quote is closed
+                if (pending != null) {
+                    pending.append('\n').append(line);
+                    if (!CsvTransactionParser.isComplete(pending)) {
+                        continue;
+                    }
+                    line = pending.toString();
+                    pending = null;
+                } else if (!CsvTransactionParser.isComplete(line)) {
+                    pending = new StringBuilder(line);
+                    pendingLine = lineNumber;
+                    continue;
+                } else {
+                    pendingLine = lineNumber;
+                }
+                if (line.isEmpty()) {
+                    continue;
+                }
+                chunk.add(pendingLine, line);
+                recordsRead.incrementAndGet();
+                if (chunk.size() == config.chunkSize) {
+                    records.put(chunk);
+                    chunk = new RecordChunk(config.chunkSize);
+                }
+            }
+            if (pending != null) {
+                chunk.add(pendingLine, pending.toString());
+                recordsRead.incrementAndGet();
+            }
+            if (chunk.size() > 0) {
+                records.put(chunk);
+            }
+            for (int i = 0; i < config.parseThreads; i++) {
+                records.put(RecordChunk.END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            failure.set(e);
+        }
+    }
+
+    private static void parseRecords(CsvTransactionParser parser, BlockingQueue<RecordChunk> records,
+                                     BlockingQueue<ParsedChunk> parsed, Failure failure) {
+        try {
+            RecordChunk chunk;
+            while ((chunk = records.take()) != RecordChunk.END) {
+                ParsedChunk result = new ParsedChunk(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        result.transactions.add(parser.parse(chunk.records.get(i)));
+                    } catch (IllegalArgumentException e) {
+                        result.errors.add(new ImportError(chunk.lineNumbers[i], e.getMessage(), chunk.records.get(i)));
+                    }
+                }
+                parsed.put(result);
+            }
+            parsed.put(ParsedChunk.END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            failure.set(e);
+        }
+    }
+
+    /**
+     * Raw records handed from the reader to the parse workers
+     */
+    private static final class RecordChunk {
+        static final RecordChunk END = new RecordChunk(0);
+
+        final int[] lineNumbers;
+        final List<String> records;
+
+        RecordChunk(int capacity) {
+            lineNumbers = new int[capacity];
+            records = new ArrayList<>(capacity);
+        }
+
+        void add(int lineNumber, String record) {
+            lineNumbers[records.size()] = lineNumber;
+            records.add(record);
+        }
+
+        int size() {
+            return records.size();
+        }
+    }
+
+    /**
+     * Validated transactions and rejected records handed to the writer
+     */
+    private static final class ParsedChunk {
+        static final ParsedChunk END = new ParsedChunk(0);
+
+        final List<Transaction> transactions;
+        final List<ImportError> errors = new ArrayList<>();
+
+        ParsedChunk(int capacity) {
+            transactions = new ArrayList<>(capacity);
+        }
+    }
+
+    /**
+     * First error raised by a background stage, rethrown on the importing thread
+     */
+    private static final class Failure {
+        private volatile Exception error;
+
+        void set(Exception e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+
+        void rethrow() throws IOException {
+            Exception e = error;
+            if (e instanceof IOException) {
+                throw (IOException) e;
+            } else if (e != null) {
+                throw new IOException("Import failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Streams rejected records to a CSV report, created on the first error
+     */
+    private static final class ErrorReport implements AutoCloseable {
+        private final Path path;
+        private final int maxKept;
+        private final List<ImportError> first = new ArrayList<>();
+        private BufferedWriter out;
+        private long count;
+
+        ErrorReport(Path path, int maxKept) throws IOException {
+            this.path = path;
+            this.maxKept = maxKept;
+            Files.deleteIfExists(path);
+        }
+
+        void add(ImportError error) throws IOException {
+            if (out == null) {
+                out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                out.write("line,error,record");
+                out.newLine();
+            }
+            out.write(error.getLineNumber() + "," + quote(error.getMessage()) + "," + quote(error.getRecord()));
+            out.newLine();
+            if (first.size() < maxKept) {
+                first.add(error);
+            }
+            count++;
+        }
+
+        long count() {
+            return count;
+        }
+
+        Path path() {
+            return count == 0 ? null : path;
+        }
+
+        List<ImportError> first() {
+            return first;
+        }
+
+        private static String quote(String value) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.moneymanager.importer;
+
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns CSV records into validated transactions.
+ * Expects a header naming the columns date, type, category, description and
+ * amount in any order; other columns are ignored. Fields follow RFC 4180:
+ * quoted fields may contain commas, doubled quotes and line breaks.
+ * <p>
+ * Dates are yyyy-MM-dd or yyyy-MM-dd HH:mm[:ss] in UTC, types are Income or
+ * Expense, amounts are positive with at most two decimals and may carry a
+ * leading $ and thousands separators. Instances are immutable and shared by
+ * the parse workers.
+ */
+class CsvTransactionParser {
+    static final String[] REQUIRED_COLUMNS = {"date", "type", "category", "description", "amount"};
+    private static final int MAX_CATEGORY_LENGTH = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private final int userId;
+    private final int dateColumn;
+    private final int typeColumn;
+    private final int categoryColumn;
+    private final int descriptionColumn;
+    private final int amountColumn;
+    private final int minFields;
+
+    /**
+     * @param userId Owner of the imported transactions
+     * @param header First record of the file
+     * @throws IllegalArgumentException if a required column is missing
+     */
+    CsvTransactionParser(int userId, String header) {
+        this.userId = userId;
+        List<String> names = splitFields(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int[] columns = new int[REQUIRED_COLUMNS.length];
+        int max = 0;
+        for (int i = 0; i < REQUIRED_COLUMNS.length; i++) {
+            columns[i] = indexOf(names, REQUIRED_COLUMNS[i]);
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Missing column '" + REQUIRED_COLUMNS[i] + "' in header: " + header);
+            }
+            max = Math.max(max, columns[i]);
+        }
+        dateColumn = columns[0];
+        typeColumn = columns[1];
+        categoryColumn = columns[2];
+        descriptionColumn = columns[3];
+        amountColumn = columns[4];
+        minFields = max + 1;
+    }
+
+    /**
+     * Parse and validate one record
+     * @throws IllegalArgumentException with a message for the error report if the record is invalid
+     */
+    Transaction parse(String record) {
+        List<String> fields = splitFields(record);
+        if (fields.size() < minFields) {
+            throw new IllegalArgumentException("Expected at least " + minFields + " fields but found " + fields.size());
+        }
+
+        long dateMillis = parseDate(fields.get(dateColumn).trim());
+        TransactionType type = parseType(fields.get(typeColumn).trim());
+
+        String category = fields.get(categoryColumn).trim();
+        if (category.isEmpty() || category.length() > MAX_CATEGORY_LENGTH) {
+            throw new IllegalArgumentException("Category must be 1 to " + MAX_CATEGORY_LENGTH + " characters");
+        }
+        // An empty description is stored as NULL, as exported for transactions without one
+        String description = fields.get(descriptionColumn).trim();
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        if (description.isEmpty()) {
+            description = null;
+        }
+
+        long amountCents = parseAmount(fields.get(amountColumn).trim());
+        return new Transaction(0, userId, dateMillis, amountCents, type, Category.idOf(category), description);
+    }
+
+    /**
+     * Whether a record is complete, i.e. has no quoted field still open at its end
+     */
+    static boolean isComplete(CharSequence record) {
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quoted = !quoted;
+            }
+        }
+        return !quoted;
+    }
+
+    static List<String> splitFields(String record) {
+        List<String> fields = new ArrayList<>(8);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int indexOf(List<String> names, String column) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).trim().equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long parseDate(String value) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+            }
+            return LocalDateTime.parse(value.replace(' ', 'T')).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "', expected yyyy-MM-dd or yyyy-MM-dd HH:mm:ss");
+        }
+    }
+
+    private static TransactionType parseType(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "income":
+                return TransactionType.INCOME;
+            case "expense":
+                return TransactionType.EXPENSE;
+            default:
+                throw new IllegalArgumentException("Invalid type '" + value + "', expected Income or Expense");
+        }
+    }
+
+    private static long parseAmount(String value) {
+        long cents;
+        try {
+            cents = Money.parse(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(e.getMessage() + ": '" + value + "'");
+        }
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + value);
+        }
+        return cents;
+    }
+}
@@ -0,0 +1,36 @@
+package com.moneymanager.importer;
+
+/**
+ * A CSV record that was rejected, with the reason
+ */
+public final class ImportError {
+    private final int lineNumber;
+    private final String message;
+    private final String record;
+
+    ImportError(int lineNumber, String message, String record) {
+        this.lineNumber = lineNumber;
+        this.message = message;
+        this.record = record;
+    }
+
+    /**
+     * Line of the file the record starts on, counting the header as line 1
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getRecord() {
+        return record;
+    }
+
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + message;
+    }
+}
@@ -0,0 +1,47 @@
+package com.moneymanager.importer;
+
+/**
+ * Snapshot of a running import, reported after every written chunk
+ */
+public final class ImportProgress {
+    private final long recordsRead;
+    private final long imported;
+    private final long rejected;
+    private final long bytesRead;
+    private final long totalBytes;
+
+    ImportProgress(long recordsRead, long imported, long rejected, long bytesRead, long totalBytes) {
+        this.recordsRead = recordsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Share of the file read so far, from 0 to 100
+     */
+    public int getPercent() {
+        return totalBytes == 0 ? 100 : (int) Math.min(100, bytesRead * 100 / totalBytes);
+    }
+}
@@ -0,0 +1,49 @@
+package com.moneymanager.importer;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of a finished import
+ */
+public final class ImportResult {
+    private final long imported;
+    private final long rejected;
+    private final long elapsedMillis;
+    private final Path errorReport;
+    private final List<ImportError> firstErrors;
+
+    ImportResult(long imported, long rejected, long elapsedMillis, Path errorReport, List<ImportError> firstErrors) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.elapsedMillis = elapsedMillis;
+        this.errorReport = errorReport;
+        this.firstErrors = firstErrors;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * CSV file listing every rejected record, or null if none were rejected
+     */
+    public Path getErrorReport() {
+        return errorReport;
+    }
+
+    /**
+     * The first rejected records, for display
+     */
+    public List<ImportError> getFirstErrors() {
+        return firstErrors;
+    }
+}
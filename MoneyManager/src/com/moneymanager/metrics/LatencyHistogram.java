@@ -0,0 +1,122 @@
+package com.moneymanager.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with HDR-style log-linear buckets.
+ * Each power of two is split into 64 linear sub-buckets, so recorded values
+ * are kept with better than 2% relative precision over the full long range
+ * in a fixed 30 KB of counters.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record one value, e.g. a duration in nanoseconds. Negative values count as 0.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(v);
+        maxValue.accumulateAndGet(v, Math::max);
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+
+    /**
+     * Value at or below which the given percentage of recorded values fall,
+     * reported as the upper edge of its bucket
+     * @param percentile Percentile between 0 and 100, e.g. 99.9
+     * @return Value in recorded units, 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Copy of the values recorded so far
+     */
+    public LatencyHistogram snapshot() {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy.counts.set(i, counts.get(i));
+        }
+        copy.totalCount.set(totalCount.get());
+        copy.totalValue.set(totalValue.get());
+        copy.maxValue.set(maxValue.get());
+        return copy;
+    }
+
+    /**
+     * Values recorded after an earlier snapshot of this histogram. Unless the
+     * maximum grew since then, the maximum of the difference is estimated as
+     * the upper edge of the highest bucket that received values.
+     * @param earlier Snapshot taken from this histogram before
+     */
+    public LatencyHistogram since(LatencyHistogram earlier) {
+        LatencyHistogram difference = new LatencyHistogram();
+        long count = 0;
+        int highest = -1;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long added = counts.get(i) - earlier.counts.get(i);
+            if (added > 0) {
+                difference.counts.set(i, added);
+                count += added;
+                highest = i;
+            }
+        }
+        difference.totalCount.set(count);
+        difference.totalValue.set(Math.max(0, totalValue.get() - earlier.totalValue.get()));
+        long max = maxValue.get();
+        if (highest >= 0) {
+            difference.maxValue.set(max > earlier.maxValue.get() ? max : Math.min(highestValueAt(highest), max));
+        }
+        return difference;
+    }
+
+    static int indexOf(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value | (SUB_BUCKET_COUNT - 1));
+        int shift = highestBit - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return shift * SUB_BUCKET_HALF + subBucket;
+    }
+
+    static long highestValueAt(int index) {
+        int shift = Math.max(0, index / SUB_BUCKET_HALF - 1);
+        long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.moneymanager.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-statement query statistics.
+ * Statements are grouped by the DAO method that issued them, found once per
+ * distinct SQL text by walking the stack, e.g. "UserDAO.authenticateUser".
+ * Every group is exposed as an MXBean named
+ * {@code com.moneymanager:type=Query,name="<group>"}. The wait for a pooled
+ * connection counts towards the group of the first statement run on it, and
+ * executions slower than the threshold are written to the slow-query log on
+ * System.err.
+ * <p>
+ * Settings: -Dmoneymanager.metrics.enabled=false turns instrumentation off,
+ * -Dmoneymanager.metrics.slowQueryMillis sets the slow-query threshold (default 500).
+ */
+public final class QueryMetrics {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("moneymanager.metrics.enabled", "true"));
+    private static final long SLOW_QUERY_NANOS = Long.getLong("moneymanager.metrics.slowQueryMillis", 500) * 1_000_000L;
+
+    private static final Map<String, QueryStats> byName = new ConcurrentHashMap<>();
+    private static final Map<String, QueryStats> bySql = new ConcurrentHashMap<>();
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private QueryMetrics() {}
+
+    /**
+     * Statistics for a SQL text, grouped under the DAO method that first issued it
+     */
+    public static QueryStats forSql(String sql) {
+        QueryStats stats = bySql.get(sql);
+        if (stats == null) {
+            stats = bySql.computeIfAbsent(sql, s -> named(callerName()));
+        }
+        return stats;
+    }
+
+    /**
+     * Record how long a connection borrow waited, charged to the first
+     * statement run on the connection so no stack walk is needed per borrow
+     * @param stats Statistics of that statement
+     * @param nanos Time spent waiting for the connection
+     */
+    public static void recordPoolWait(QueryStats stats, long nanos) {
+        stats.recordPoolWait(nanos);
+    }
+
+    /**
+     * Record one statement execution and log it if it was slow
+     * @param stats Statistics of the statement
+     * @param sql SQL text
+     * @param nanos Time spent executing
+     * @param failed Whether the execution threw
+     */
+    public static void recordExecution(QueryStats stats, String sql, long nanos, boolean failed) {
+        boolean slow = nanos >= SLOW_QUERY_NANOS;
+        stats.recordExecution(sql, nanos, failed, slow);
+        if (slow) {
+            System.err.printf("Slow query (%.1f ms, %s%s): %s%n", nanos / 1_000_000.0, stats.getName(),
+                              failed ? ", failed" : "", sql);
+        }
+    }
+
+    /**
+     * Snapshot of all statement groups seen so far
+     */
+    public static List<QueryStats> getAll() {
+        return new ArrayList<>(byName.values());
+    }
+
+    private static QueryStats named(String name) {
+        QueryStats stats = byName.get(name);
+        if (stats == null) {
+            stats = byName.computeIfAbsent(name, n -> {
+                QueryStats created = new QueryStats(n);
+                register(created);
+                return created;
+            });
+        }
+        return stats;
+    }
+
+    private static void register(QueryStats stats) {
+        try {
+            ObjectName objectName = new ObjectName("com.moneymanager:type=Query,name=" + ObjectName.quote(stats.getName()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName);
+        } catch (JMException e) {
+            System.err.println("Unable to register query metrics for " + stats.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * First frame on the stack outside the connection pool, JDBC and proxy plumbing
+     */
+    private static String callerName() {
+        return walker.walk(frames -> frames
+            .filter(frame -> !isInfrastructure(frame.getClassName()))
+            .findFirst()
+            .map(frame -> {
+                String className = frame.getClassName();
+                return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+            })
+            .orElse("unknown"));
+    }
+
+    private static boolean isInfrastructure(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.")
+               || className.startsWith("com.sun.") || className.contains("$Proxy")
+               || className.startsWith("com.moneymanager.metrics.")
+               || className.startsWith("com.moneymanager.dao.ConnectionPool")
+               || className.startsWith("com.moneymanager.dao.StatementCache")
+               || className.startsWith("com.moneymanager.dao.InstrumentedStatement")
+               || className.equals("com.moneymanager.dao.DatabaseConnection");
+    }
+}
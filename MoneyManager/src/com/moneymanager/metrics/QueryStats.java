@@ -0,0 +1,132 @@
+package com.moneymanager.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and latency histograms of one logical statement, i.e. all SQL
+ * issued from one DAO method
+ */
+public class QueryStats implements QueryStatsMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String name;
+    private volatile String sql;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram poolWait = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong slowExecutions = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    QueryStats(String name) {
+        this.name = name;
+    }
+
+    void recordExecution(String sql, long nanos, boolean failed, boolean slow) {
+        this.sql = sql;
+        latency.record(nanos);
+        if (failed) {
+            errors.incrementAndGet();
+        }
+        if (slow) {
+            slowExecutions.incrementAndGet();
+        }
+    }
+
+    void recordPoolWait(long nanos) {
+        poolWait.record(nanos);
+    }
+
+    /**
+     * Count one row read from a result set and the approximate size of its values
+     */
+    public void recordRows(long count) {
+        rows.addAndGet(count);
+    }
+
+    public void recordBytes(long count) {
+        bytes.addAndGet(count);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public long getExecutions() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.get();
+    }
+
+    @Override
+    public long getSlowExecutions() {
+        return slowExecutions.get();
+    }
+
+    @Override
+    public long getRowsReturned() {
+        return rows.get();
+    }
+
+    @Override
+    public long getBytesFetched() {
+        return bytes.get();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentile(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.getPercentile(99.9) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getConnectionBorrows() {
+        return poolWait.getCount();
+    }
+
+    @Override
+    public double getPoolWaitMeanMillis() {
+        return poolWait.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getPoolWaitP99Millis() {
+        return poolWait.getPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-45s %8d exec %6d err %10d rows %12d bytes  p50 %8.2f  p99 %8.2f  p999 %8.2f  max %8.2f ms",
+                             name, getExecutions(), getErrors(), getRowsReturned(), getBytesFetched(),
+                             getP50Millis(), getP99Millis(), getP999Millis(), getMaxMillis());
+    }
+}
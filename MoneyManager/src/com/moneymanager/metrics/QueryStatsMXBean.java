@@ -0,0 +1,36 @@
+package com.moneymanager.metrics;
+
+/**
+ * JMX view of the statistics of one logical statement
+ */
+public interface QueryStatsMXBean {
+    String getName();
+
+    String getSql();
+
+    long getExecutions();
+
+    long getErrors();
+
+    long getSlowExecutions();
+
+    long getRowsReturned();
+
+    long getBytesFetched();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    long getConnectionBorrows();
+
+    double getPoolWaitMeanMillis();
+
+    double getPoolWaitP99Millis();
+}
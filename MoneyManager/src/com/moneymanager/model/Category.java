@@ -0,0 +1,67 @@
+package com.moneymanager.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interned transaction categories.
+ * Each distinct category name gets a small numeric id for the lifetime of the
+ * application, so transactions can carry a short instead of a String.
+ */
+public final class Category {
+    /** Categories offered in the entry forms */
+    public static final String[] DEFAULT_NAMES = {
+        "Food", "Transportation", "Entertainment", "Utilities", 
+        "Healthcare", "Shopping", "Salary", "Investment", "Other"
+    };
+    
+    private static final Map<String, Short> ids = new HashMap<>();
+    // Copy-on-write so lookups by id need no locking
+    private static volatile String[] names = new String[0];
+    
+    static {
+        for (String name : DEFAULT_NAMES) {
+            idOf(name);
+        }
+    }
+    
+    private Category() {}
+    
+    /**
+     * Get the id for a category name, assigning a new id for unseen names
+     * @param name Category name as stored in the database
+     * @return Category id
+     */
+    public static synchronized short idOf(String name) {
+        Short id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (names.length == Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many distinct categories");
+        }
+        short newId = (short) names.length;
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[newId] = name;
+        names = grown;
+        ids.put(name, newId);
+        return newId;
+    }
+    
+    /**
+     * Get the name for a category id
+     * @param id Category id returned by {@link #idOf(String)}
+     * @return Category name
+     */
+    public static String nameOf(short id) {
+        return names[id];
+    }
+    
+    /**
+     * Number of category ids assigned so far
+     */
+    public static int count() {
+        return names.length;
+    }
+}
@@ -0,0 +1,36 @@
+package com.moneymanager.model;
+
+/**
+ * Total of one user's transactions of a type on one day
+ */
+public final class DailyTotal {
+    private final long epochDay;
+    private final TransactionType type;
+    private final long totalCents;
+
+    /**
+     * @param epochDay UTC day as days since 1970-01-01
+     */
+    public DailyTotal(long epochDay, TransactionType type, long totalCents) {
+        this.epochDay = epochDay;
+        this.type = type;
+        this.totalCents = totalCents;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyTotal{" + epochDay + ", " + type + ", " + totalCents + "}";
+    }
+}
@@ -0,0 +1,174 @@
+package com.moneymanager.model;
+
+/**
+ * Parsing and formatting of US dollar amounts held as {@code long} cents.
+ * <p>
+ * Amounts stay primitive throughout the application; these helpers convert
+ * them to and from text exactly, without BigDecimal, regular expressions,
+ * {@code String.format} or boxing. The append methods write into a caller's
+ * StringBuilder and allocate nothing.
+ */
+public final class Money {
+    // Largest dollar part whose amount in cents fits in a long
+    private static final long MAX_UNITS = Long.MAX_VALUE / 100;
+
+    private Money() {}
+
+    /**
+     * Parse an amount such as {@code 12.5}, {@code -3}, {@code $1,234.56} or
+     * {@code +0.99}. A sign may come before or after the dollar sign, commas
+     * are accepted only as thousands separators (1 to 3 leading digits, then
+     * groups of exactly 3) and at most two fraction digits are allowed,
+     * except for trailing zeros. A decimal comma such as {@code 1,50} is
+     * rejected rather than read as a hundred times the amount.
+     * @return Amount in cents
+     * @throws NumberFormatException if the text is not an amount or does not fit in a long
+     */
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        boolean signed = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            signed = true;
+            i++;
+        }
+        if (i < length && text.charAt(i) == '$') {
+            i++;
+            if (!signed && i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                negative = text.charAt(i) == '-';
+                i++;
+            }
+        }
+
+        long units = 0;
+        int digits = 0;
+        // Digits since the last comma, or -1 before the first comma
+        int groupDigits = -1;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                // Constant bounds, so the common case needs no division
+                if (units > (MAX_UNITS - 9) / 10 && (units > MAX_UNITS / 10 || units * 10 + digit > MAX_UNITS)) {
+                    throw new NumberFormatException("Amount is too large");
+                }
+                units = units * 10 + digit;
+                digits++;
+                if (groupDigits >= 0) {
+                    groupDigits++;
+                }
+            } else if (c == ',') {
+                boolean firstGroup = groupDigits < 0;
+                if (firstGroup ? digits == 0 || digits > 3 : groupDigits != 3) {
+                    throw new NumberFormatException("Invalid digit grouping");
+                }
+                groupDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (groupDigits >= 0 && groupDigits != 3) {
+            throw new NumberFormatException("Invalid digit grouping");
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            for (i++; i < length; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (fractionDigits < 2) {
+                    fraction = fraction * 10 + (c - '0');
+                } else if (c != '0') {
+                    throw new NumberFormatException("Amount has more than two decimals");
+                }
+                fractionDigits++;
+            }
+        }
+        if (i != length || digits + fractionDigits == 0) {
+            throw new NumberFormatException("Invalid amount");
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        if (units == MAX_UNITS && fraction > Long.MAX_VALUE % 100) {
+            throw new NumberFormatException("Amount is too large");
+        }
+        long cents = units * 100 + fraction;
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Format as currency, e.g. {@code $1,234.56} or {@code -$0.05}
+     */
+    public static String format(long cents) {
+        StringBuilder text = new StringBuilder(24);
+        appendTo(text, cents);
+        return text.toString();
+    }
+
+    /**
+     * Format without currency symbol or grouping, e.g. {@code 1234.56}, as
+     * typed into the amount fields and written to exports
+     */
+    public static String formatPlain(long cents) {
+        StringBuilder text = new StringBuilder(22);
+        appendPlain(text, cents);
+        return text.toString();
+    }
+
+    /**
+     * Append in the form of {@link #format}
+     */
+    public static void appendTo(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+        }
+        out.append('$');
+        appendUnits(out, cents, true);
+        appendFraction(out, cents);
+    }
+
+    /**
+     * Append in the form of {@link #formatPlain}
+     */
+    public static void appendPlain(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+        }
+        appendUnits(out, cents, false);
+        appendFraction(out, cents);
+    }
+
+    private static void appendUnits(StringBuilder out, long cents, boolean grouped) {
+        // Dividing first keeps Long.MIN_VALUE in range when negating
+        long units = Math.abs(cents / 100);
+        if (units < 1000 || !grouped) {
+            out.append(units);
+            return;
+        }
+        long group = 1;
+        while (group <= units / 1000) {
+            group *= 1000;
+        }
+        out.append(units / group);
+        for (group /= 1000; group > 0; group /= 1000) {
+            long part = units / group % 1000;
+            out.append(',');
+            out.append((char) ('0' + part / 100));
+            out.append((char) ('0' + part / 10 % 10));
+            out.append((char) ('0' + part % 10));
+        }
+    }
+
+    private static void appendFraction(StringBuilder out, long cents) {
+        int fraction = (int) Math.abs(cents % 100);
+        out.append('.');
+        out.append((char) ('0' + fraction / 10));
+        out.append((char) ('0' + fraction % 10));
+    }
+}
@@ -0,0 +1,59 @@
+package com.moneymanager.model;
+
+/**
+ * Total and count of one user's transactions of a type and category in a month,
+ * as stored in the monthly_category_rollups table
+ */
+public final class MonthlyRollup {
+    private final String month;
+    private final TransactionType type;
+    private final short categoryId;
+    private final long totalCents;
+    private final int count;
+
+    /**
+     * @param month Month as "yyyy-MM" in UTC
+     */
+    public MonthlyRollup(String month, TransactionType type, short categoryId, long totalCents, int count) {
+        this.month = month;
+        this.type = type;
+        this.categoryId = categoryId;
+        this.totalCents = totalCents;
+        this.count = count;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public short getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategory() {
+        return Category.nameOf(categoryId);
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "MonthlyRollup{" +
+                "month='" + month + '\'' +
+                ", type=" + type +
+                ", category='" + getCategory() + '\'' +
+                ", totalCents=" + totalCents +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,124 @@
+package com.moneymanager.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Immutable transaction value.
+ * Amounts are held in cents and dates as epoch milliseconds; formatting is
+ * left to the UI renderers.
+ */
+public final class Transaction {
+    private final int id;
+    private final int userId;
+    private final long dateMillis;
+    private final long amountCents;
+    private final TransactionType type;
+    private final short categoryId;
+    private final String description;
+    
+    public Transaction(int id, int userId, long dateMillis, long amountCents, 
+                       TransactionType type, short categoryId, String description) {
+        this.id = id;
+        this.userId = userId;
+        this.dateMillis = dateMillis;
+        this.amountCents = amountCents;
+        this.type = type;
+        this.categoryId = categoryId;
+        this.description = description;
+    }
+    
+    /**
+     * Copy of this transaction with the database generated id
+     */
+    public Transaction withId(int newId) {
+        return new Transaction(newId, userId, dateMillis, amountCents, type, categoryId, description);
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    public int getUserId() {
+        return userId;
+    }
+    
+    public long getDateMillis() {
+        return dateMillis;
+    }
+    
+    public long getAmountCents() {
+        return amountCents;
+    }
+    
+    public TransactionType getType() {
+        return type;
+    }
+    
+    public short getCategoryId() {
+        return categoryId;
+    }
+    
+    public String getCategory() {
+        return Category.nameOf(categoryId);
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Amount with its sign applied: positive for income, negative for expenses
+     */
+    public long getSignedAmountCents() {
+        return type == TransactionType.INCOME ? amountCents : -amountCents;
+    }
+    
+    /**
+     * Convert a decimal amount to cents, rounding half up
+     * @param amount Decimal amount such as 12.34
+     * @return Amount in cents
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+    
+    /**
+     * Convert cents to a decimal amount with two fraction digits
+     */
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Transaction)) return false;
+        Transaction other = (Transaction) o;
+        return id == other.id && userId == other.userId && dateMillis == other.dateMillis
+                && amountCents == other.amountCents && type == other.type
+                && categoryId == other.categoryId && Objects.equals(description, other.description);
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = Integer.hashCode(id);
+        result = 31 * result + Long.hashCode(dateMillis);
+        result = 31 * result + Long.hashCode(amountCents);
+        return result;
+    }
+    
+    @Override
+    public String toString() {
+        return "Transaction{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", dateMillis=" + dateMillis +
+                ", amountCents=" + amountCents +
+                ", type=" + type +
+                ", category='" + getCategory() + '\'' +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
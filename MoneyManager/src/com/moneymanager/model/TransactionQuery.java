@@ -0,0 +1,219 @@
+package com.moneymanager.model;
+
+import java.util.Locale;
+
+/**
+ * Immutable filter and sort order for listing a user's transactions.
+ * TransactionDAO turns it into the WHERE and ORDER BY of a keyset query;
+ * {@link #matches} and {@link #compare} apply the same rules in memory so
+ * rows changed locally can be placed without asking the database.
+ * <p>
+ * Dates are epoch milliseconds, from inclusive and to exclusive; amounts are
+ * cents, both bounds inclusive. Unset bounds are the extreme long values.
+ */
+public final class TransactionQuery {
+
+    /** Sortable columns, in the order of the dashboard table */
+    public enum SortColumn {
+        ID, DATE, TYPE, CATEGORY, DESCRIPTION, AMOUNT
+    }
+
+    /** Every transaction, newest first */
+    public static final TransactionQuery ALL = new TransactionQuery(
+        Long.MIN_VALUE, Long.MAX_VALUE, null, null, Long.MIN_VALUE, Long.MAX_VALUE, null, null, SortColumn.DATE, false);
+
+    private final long fromMillis;
+    private final long toMillis;
+    private final TransactionType type;
+    private final String category;
+    private final long minCents;
+    private final long maxCents;
+    private final String text;
+    // Lower case copy of text for matches()
+    private final String lowerText;
+    // Sorted ids of every transaction whose description contains text, if known
+    private final int[] textMatchIds;
+    private final SortColumn sortColumn;
+    private final boolean ascending;
+
+    private TransactionQuery(long fromMillis, long toMillis, TransactionType type, String category,
+                             long minCents, long maxCents, String text, int[] textMatchIds,
+                             SortColumn sortColumn, boolean ascending) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.type = type;
+        this.category = category;
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+        this.text = text == null || text.isEmpty() ? null : text;
+        this.lowerText = this.text == null ? null : this.text.toLowerCase(Locale.ROOT);
+        this.textMatchIds = this.text == null ? null : textMatchIds;
+        this.sortColumn = sortColumn;
+        this.ascending = ascending;
+    }
+
+    /**
+     * @param fromMillis First included instant, or Long.MIN_VALUE
+     * @param toMillis First excluded instant, or Long.MAX_VALUE
+     */
+    public TransactionQuery withDateRange(long fromMillis, long toMillis) {
+        return new TransactionQuery(fromMillis, toMillis, type, category, minCents, maxCents, text, textMatchIds,
+                                    sortColumn, ascending);
+    }
+
+    /**
+     * @param type Type to keep, or null for both
+     */
+    public TransactionQuery withType(TransactionType type) {
+        return new TransactionQuery(fromMillis, toMillis, type, category, minCents, maxCents, text, textMatchIds,
+                                    sortColumn, ascending);
+    }
+
+    /**
+     * @param category Category name to keep, or null for all
+     */
+    public TransactionQuery withCategory(String category) {
+        return new TransactionQuery(fromMillis, toMillis, type, category, minCents, maxCents, text, textMatchIds,
+                                    sortColumn, ascending);
+    }
+
+    /**
+     * @param minCents Smallest included amount, or Long.MIN_VALUE
+     * @param maxCents Largest included amount, or Long.MAX_VALUE
+     */
+    public TransactionQuery withAmountRange(long minCents, long maxCents) {
+        return new TransactionQuery(fromMillis, toMillis, type, category, minCents, maxCents, text, textMatchIds,
+                                    sortColumn, ascending);
+    }
+
+    /**
+     * @param text Text the description must contain, ignoring case, or null
+     */
+    public TransactionQuery withText(String text) {
+        return withText(text, null);
+    }
+
+    /**
+     * Filter by description text whose matches are already known, e.g. from
+     * a search index, so the database can look them up by id instead of
+     * scanning descriptions
+     * @param text Text the description must contain, ignoring case, or null
+     * @param matchingIds Sorted ids of all transactions matching the text, or null if unknown
+     */
+    public TransactionQuery withText(String text, int[] matchingIds) {
+        return new TransactionQuery(fromMillis, toMillis, type, category, minCents, maxCents, text, matchingIds,
+                                    sortColumn, ascending);
+    }
+
+    /**
+     * Sort by a column; ties are broken by id in the same direction
+     */
+    public TransactionQuery sortedBy(SortColumn sortColumn, boolean ascending) {
+        return new TransactionQuery(fromMillis, toMillis, type, category, minCents, maxCents, text, textMatchIds,
+                                    sortColumn, ascending);
+    }
+
+    /**
+     * Same sort order without any filter
+     */
+    public TransactionQuery withoutFilters() {
+        return ALL.sortedBy(sortColumn, ascending);
+    }
+
+    public long getFromMillis() {
+        return fromMillis;
+    }
+
+    public long getToMillis() {
+        return toMillis;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public long getMinCents() {
+        return minCents;
+    }
+
+    public long getMaxCents() {
+        return maxCents;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return Sorted ids of the transactions matching the text, or null if unknown
+     */
+    public int[] getTextMatchIds() {
+        return textMatchIds;
+    }
+
+    public SortColumn getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public boolean isFiltered() {
+        return fromMillis != Long.MIN_VALUE || toMillis != Long.MAX_VALUE || type != null || category != null
+            || minCents != Long.MIN_VALUE || maxCents != Long.MAX_VALUE || text != null;
+    }
+
+    /**
+     * Whether a transaction passes the filter
+     */
+    public boolean matches(Transaction transaction) {
+        return transaction.getDateMillis() >= fromMillis && transaction.getDateMillis() < toMillis
+            && (type == null || transaction.getType() == type)
+            && (category == null || category.equalsIgnoreCase(transaction.getCategory()))
+            && transaction.getAmountCents() >= minCents && transaction.getAmountCents() <= maxCents
+            && (lowerText == null || (transaction.getDescription() != null
+                                      && transaction.getDescription().toLowerCase(Locale.ROOT).contains(lowerText)));
+    }
+
+    /**
+     * Compare by display order, as the database sorts. Text columns compare
+     * ignoring case like the default MySQL collation.
+     * @return Negative if a is listed before b
+     */
+    public int compare(Transaction a, Transaction b) {
+        int byColumn;
+        switch (sortColumn) {
+            case DATE:
+                byColumn = Long.compare(a.getDateMillis(), b.getDateMillis());
+                break;
+            case TYPE:
+                byColumn = String.CASE_INSENSITIVE_ORDER.compare(a.getType().getDisplayName(), b.getType().getDisplayName());
+                break;
+            case CATEGORY:
+                byColumn = String.CASE_INSENSITIVE_ORDER.compare(a.getCategory(), b.getCategory());
+                break;
+            case DESCRIPTION:
+                byColumn = String.CASE_INSENSITIVE_ORDER.compare(descriptionOf(a), descriptionOf(b));
+                break;
+            case AMOUNT:
+                byColumn = Long.compare(a.getAmountCents(), b.getAmountCents());
+                break;
+            default:
+                byColumn = 0;
+                break;
+        }
+        if (byColumn == 0) {
+            byColumn = Integer.compare(a.getId(), b.getId());
+        }
+        return ascending ? byColumn : -byColumn;
+    }
+
+    private static String descriptionOf(Transaction transaction) {
+        return transaction.getDescription() == null ? "" : transaction.getDescription();
+    }
+}
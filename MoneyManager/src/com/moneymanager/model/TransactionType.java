@@ -0,0 +1,39 @@
+package com.moneymanager.model;
+
+/**
+ * Kind of transaction, stored as its display name in the transactions.type column
+ */
+public enum TransactionType {
+    INCOME("Income"),
+    EXPENSE("Expense");
+    
+    private final String displayName;
+    
+    TransactionType(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Look up a type by the value stored in the database
+     * @param value "Income" or "Expense"
+     * @return Matching type
+     * @throws IllegalArgumentException if the value is not a known type
+     */
+    public static TransactionType fromDisplayName(String value) {
+        for (TransactionType type : values()) {
+            if (type.displayName.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction type: " + value);
+    }
+    
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,188 @@
+package com.moneymanager.search;
+
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Guesses the category of a new transaction from its description with a
+ * multinomial naive Bayes classifier, trained on one user's history.
+ * <p>
+ * The words of a description are the features. The prior is the share of
+ * each category among transactions of the same type, so an income is not
+ * guessed into an expense category. Training only adds or subtracts counts,
+ * so transactions are learned and unlearned one at a time as they change.
+ * <p>
+ * Like {@link DescriptionIndex}, it is filled by a background build and then
+ * kept current with {@link #add} and {@link #remove}. All methods are
+ * thread-safe.
+ */
+public class CategoryPredictor {
+    // Word counts per category id
+    private final Map<String, int[]> wordCounts = new HashMap<>();
+    // Total words per category id
+    private int[] wordTotals = new int[0];
+    // Transactions per type and category id
+    private final int[][] transactionCounts = new int[TransactionType.values().length][0];
+
+    private boolean ready;
+    private int build;
+    // Transactions changed while a build is running; the build's older copy of them is skipped
+    private Set<Integer> changedDuringBuild;
+
+    /**
+     * Whether a build has completed
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Forget everything learned and start collecting changes until {@link #endBuild}
+     * @return Build number to pass to {@link #addFromBuild} and {@link #endBuild}
+     */
+    public synchronized int beginBuild() {
+        wordCounts.clear();
+        wordTotals = new int[0];
+        Arrays.fill(transactionCounts, new int[0]);
+        ready = false;
+        changedDuringBuild = new HashSet<>();
+        return ++build;
+    }
+
+    /**
+     * Learn a transaction read by the build, unless it changed since the build began
+     */
+    public synchronized void addFromBuild(int build, Transaction transaction) {
+        if (build == this.build && !changedDuringBuild.contains(transaction.getId())) {
+            learn(transaction, 1);
+        }
+    }
+
+    public synchronized void endBuild(int build) {
+        if (build == this.build) {
+            changedDuringBuild = null;
+            ready = true;
+        }
+    }
+
+    /**
+     * Learn a new or edited transaction
+     */
+    public synchronized void add(Transaction transaction) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(transaction.getId());
+        }
+        learn(transaction, 1);
+    }
+
+    /**
+     * Unlearn a deleted transaction, or the previous version of an edited one
+     */
+    public synchronized void remove(Transaction transaction) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(transaction.getId());
+        }
+        learn(transaction, -1);
+    }
+
+    /**
+     * Most likely category for a new transaction
+     * @param description Description typed so far
+     * @param type Type of the new transaction
+     * @return Category name, or null if no word of the description has been seen before
+     */
+    public synchronized String predict(String description, TransactionType type) {
+        int[] priors = transactionCounts[type.ordinal()];
+        List<int[]> known = new ArrayList<>();
+        for (String word : words(description)) {
+            int[] counts = wordCounts.get(word);
+            if (counts != null) {
+                known.add(counts);
+            }
+        }
+        if (known.isEmpty()) {
+            return null;
+        }
+
+        int vocabulary = wordCounts.size();
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int category = 0; category < priors.length; category++) {
+            if (priors[category] == 0) {
+                continue;
+            }
+            // Log probabilities with add-one smoothing; the shared denominator of the prior is left out
+            double score = Math.log(priors[category]);
+            double denominator = Math.log(wordTotals[category] + vocabulary);
+            for (int[] counts : known) {
+                int count = category < counts.length ? counts[category] : 0;
+                score += Math.log(count + 1) - denominator;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = category;
+            }
+        }
+        return best < 0 ? null : Category.nameOf((short) best);
+    }
+
+    /**
+     * @param delta 1 to learn the transaction, -1 to unlearn it
+     */
+    private void learn(Transaction transaction, int delta) {
+        int category = transaction.getCategoryId();
+        int type = transaction.getType().ordinal();
+        if (category >= wordTotals.length) {
+            wordTotals = Arrays.copyOf(wordTotals, Category.count());
+        }
+        if (category >= transactionCounts[type].length) {
+            transactionCounts[type] = Arrays.copyOf(transactionCounts[type], Category.count());
+        }
+        // Counts never go below zero, in case a change raced with a build
+        transactionCounts[type][category] = Math.max(0, transactionCounts[type][category] + delta);
+        for (String word : words(transaction.getDescription())) {
+            int[] counts = wordCounts.get(word);
+            if (counts == null) {
+                if (delta < 0) {
+                    continue;
+                }
+                counts = new int[Category.count()];
+                wordCounts.put(word, counts);
+            } else if (category >= counts.length) {
+                counts = Arrays.copyOf(counts, Category.count());
+                wordCounts.put(word, counts);
+            }
+            if (delta < 0 && counts[category] == 0) {
+                continue;
+            }
+            counts[category] += delta;
+            wordTotals[category] += delta;
+        }
+    }
+
+    /**
+     * Lower case words of a description; digits and punctuation separate words
+     */
+    private static List<String> words(String description) {
+        List<String> words = new ArrayList<>();
+        if (description == null) {
+            return words;
+        }
+        for (String word : description.toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+            if (word.length() > 1) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
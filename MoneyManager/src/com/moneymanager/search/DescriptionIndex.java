@@ -0,0 +1,284 @@
+package com.moneymanager.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory substring index over one user's transaction descriptions.
+ * <p>
+ * Descriptions repeat a lot ("Grocery store", "Monthly salary"), so the index
+ * has two levels: every distinct description, ignoring case, is a term with
+ * the sorted ids of its transactions, and every trigram maps to the sorted
+ * ids of the terms containing it. A search intersects the trigram postings of
+ * the text, confirms the candidate terms with a substring test and collects
+ * their transactions, so its cost depends on the number of distinct
+ * descriptions rather than on the number of transactions.
+ * <p>
+ * The index is filled in the background by {@link #beginBuild},
+ * {@link #addFromBuild} and {@link #endBuild}, and kept current with
+ * {@link #add} and {@link #remove} as transactions change. All methods are
+ * thread-safe.
+ */
+public class DescriptionIndex {
+
+    /**
+     * Transactions whose description contains a text
+     */
+    public static final class Result {
+        static final Result NONE = new Result(0, new int[0]);
+
+        private final int count;
+        private final int[] ids;
+
+        Result(int count, int[] ids) {
+            this.count = count;
+            this.ids = ids;
+        }
+
+        /**
+         * Number of matching transactions; if {@link #hasMore}, only a lower bound
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Whether there are more matches than requested, so the search stopped early
+         */
+        public boolean hasMore() {
+            return ids == null;
+        }
+
+        /**
+         * @return Ids of the matching transactions in ascending order, or null if {@link #hasMore}
+         */
+        public int[] getIds() {
+            return ids;
+        }
+    }
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private String[] terms = new String[64];
+    private Postings[] termTransactions = new Postings[64];
+    private final Map<Long, Postings> trigrams = new HashMap<>();
+    private int transactionCount;
+
+    private boolean ready;
+    // Incremented by every build, so rows from an abandoned build are ignored
+    private int build;
+    // Transactions changed while a build is running; the build's older copy of them is skipped
+    private Set<Integer> changedDuringBuild;
+
+    /**
+     * Whether a build has completed, so searches cover every transaction
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of indexed transactions
+     */
+    public synchronized int size() {
+        return transactionCount;
+    }
+
+    /**
+     * Clear the index and start collecting changes until {@link #endBuild}
+     * @return Build number to pass to {@link #addFromBuild} and {@link #endBuild}
+     */
+    public synchronized int beginBuild() {
+        termIds.clear();
+        terms = new String[64];
+        termTransactions = new Postings[64];
+        trigrams.clear();
+        transactionCount = 0;
+        ready = false;
+        changedDuringBuild = new HashSet<>();
+        return ++build;
+    }
+
+    /**
+     * Add a transaction read by the build, unless it changed since the build began
+     */
+    public synchronized void addFromBuild(int build, int transactionId, String description) {
+        if (build == this.build && !changedDuringBuild.contains(transactionId)) {
+            insert(transactionId, description);
+        }
+    }
+
+    public synchronized void endBuild(int build) {
+        if (build == this.build) {
+            changedDuringBuild = null;
+            ready = true;
+        }
+    }
+
+    /**
+     * Index a new or edited transaction
+     */
+    public synchronized void add(int transactionId, String description) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(transactionId);
+        }
+        insert(transactionId, description);
+    }
+
+    /**
+     * Remove a deleted transaction, or the previous version of an edited one
+     * @param description Description the transaction was indexed with
+     */
+    public synchronized void remove(int transactionId, String description) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(transactionId);
+        }
+        if (description == null) {
+            return;
+        }
+        Integer term = termIds.get(normalize(description));
+        if (term != null && termTransactions[term].remove(transactionId)) {
+            transactionCount--;
+        }
+    }
+
+    /**
+     * Find the transactions whose description contains a text, ignoring case
+     * @param text Text to look for
+     * @param maxIds Largest number of ids to return; the search stops once it finds more
+     * @return Matching transactions
+     */
+    public synchronized Result search(String text, int maxIds) {
+        String needle = normalize(text);
+        if (needle.isEmpty()) {
+            return Result.NONE;
+        }
+        List<Postings> matches = new ArrayList<>();
+        int count = 0;
+        if (needle.length() < 3) {
+            // Shorter than a trigram: test every term
+            for (int term = 0; term < termIds.size(); term++) {
+                Postings transactions = termTransactions[term];
+                if (transactions.size() > 0 && terms[term].contains(needle)) {
+                    matches.add(transactions);
+                    count += transactions.size();
+                    if (count > maxIds) {
+                        return new Result(count, null);
+                    }
+                }
+            }
+            return collect(matches, count);
+        }
+
+        long[] keys = trigramsOf(needle);
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = trigrams.get(keys[i]);
+            if (lists[i] == null) {
+                return Result.NONE;
+            }
+        }
+        // Walk the rarest trigram's terms and look each one up in the other
+        // postings, so a search that finds more than maxIds matches stops
+        // early instead of intersecting every list in full
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+        int[] from = new int[lists.length];
+        Postings rarest = lists[0];
+        for (int i = 0; i < rarest.size(); i++) {
+            int term = rarest.get(i);
+            if (!containsAll(lists, from, term)) {
+                continue;
+            }
+            Postings transactions = termTransactions[term];
+            // Every trigram of a three-letter text is the text itself
+            if (transactions.size() > 0 && (needle.length() == 3 || terms[term].contains(needle))) {
+                matches.add(transactions);
+                count += transactions.size();
+                if (count > maxIds) {
+                    return new Result(count, null);
+                }
+            }
+        }
+        return collect(matches, count);
+    }
+
+    /**
+     * Whether every list after the first has the term. Terms are looked up in
+     * ascending order, so each list is only searched past the previous hit.
+     */
+    private static boolean containsAll(Postings[] lists, int[] from, int term) {
+        for (int i = 1; i < lists.length; i++) {
+            int index = lists[i].indexOf(term, from[i]);
+            if (index < 0) {
+                from[i] = -index - 1;
+                return false;
+            }
+            from[i] = index + 1;
+        }
+        return true;
+    }
+
+    private static Result collect(List<Postings> matches, int count) {
+        int[] ids = new int[count];
+        int length = 0;
+        for (Postings transactions : matches) {
+            for (int i = 0; i < transactions.size(); i++) {
+                ids[length++] = transactions.get(i);
+            }
+        }
+        Arrays.sort(ids);
+        return new Result(count, ids);
+    }
+
+    private void insert(int transactionId, String description) {
+        if (description == null || description.isEmpty()) {
+            return;
+        }
+        String term = normalize(description);
+        Integer id = termIds.get(term);
+        if (id == null) {
+            id = termIds.size();
+            if (id == terms.length) {
+                terms = Arrays.copyOf(terms, id * 2);
+                termTransactions = Arrays.copyOf(termTransactions, id * 2);
+            }
+            terms[id] = term;
+            termTransactions[id] = new Postings();
+            termIds.put(term, id);
+            for (long key : trigramsOf(term)) {
+                trigrams.computeIfAbsent(key, k -> new Postings()).add(id);
+            }
+        }
+        if (termTransactions[id].add(transactionId)) {
+            transactionCount++;
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct trigrams of a text, three UTF-16 chars packed into a long
+     */
+    private static long[] trigramsOf(String text) {
+        int count = Math.max(0, text.length() - 2);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+}
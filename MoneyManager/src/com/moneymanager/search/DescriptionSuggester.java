@@ -0,0 +1,222 @@
+package com.moneymanager.search;
+
+import com.moneymanager.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Autocomplete for the description field: a prefix trie of one user's past
+ * descriptions, ignoring case, ranked by how often and how recently each was
+ * used.
+ * <p>
+ * Every use adds a weight that halves every {@link #HALF_LIFE_DAYS} days, so
+ * a description used weekly this year outranks one used more often years
+ * ago. The weights are kept as base-2 logarithms measured from the epoch, so
+ * all of them age at the same rate and never need to be recomputed. Scores
+ * only grow, which lets each trie node cache its best descriptions and
+ * answer a prefix in time proportional to its length.
+ * <p>
+ * Like {@link DescriptionIndex}, it is filled by a background build and then
+ * kept current with {@link #add}. Edits and deletions are not subtracted;
+ * they are dropped at the next build. All methods are thread-safe.
+ */
+public class DescriptionSuggester {
+    /** Days after which a past use counts half as much */
+    public static final double HALF_LIFE_DAYS = 90;
+    /** Suggestions kept for each prefix */
+    public static final int MAX_SUGGESTIONS = 8;
+    // Longer prefixes are matched by filtering the suggestions of this one,
+    // which bounds the trie for long, mostly distinct descriptions
+    private static final int MAX_DEPTH = 24;
+    private static final double MILLIS_PER_HALF_LIFE = HALF_LIFE_DAYS * 24 * 60 * 60 * 1000;
+
+    private static final class Entry {
+        final String key;
+        // Spelling of the most recent use
+        String text;
+        long lastMillis;
+        // log2 of the sum of 2^(millis / MILLIS_PER_HALF_LIFE) over all uses
+        double score = Double.NEGATIVE_INFINITY;
+
+        Entry(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        // Best entries under this prefix, highest score first
+        final Entry[] best = new Entry[MAX_SUGGESTIONS];
+        int bestCount;
+
+        Node child(char c, boolean create) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            if (!create) {
+                return null;
+            }
+            index = -index - 1;
+            char[] grownKeys = new char[keys.length + 1];
+            Node[] grownChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, grownKeys, 0, index);
+            System.arraycopy(children, 0, grownChildren, 0, index);
+            System.arraycopy(keys, index, grownKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, grownChildren, index + 1, keys.length - index);
+            grownKeys[index] = c;
+            grownChildren[index] = new Node();
+            keys = grownKeys;
+            children = grownChildren;
+            return grownChildren[index];
+        }
+
+        /**
+         * Place an entry whose score has grown
+         */
+        void offer(Entry entry) {
+            int index = 0;
+            while (index < bestCount && best[index] != entry) {
+                index++;
+            }
+            if (index == bestCount) {
+                if (bestCount < best.length) {
+                    bestCount++;
+                } else if (entry.score > best[bestCount - 1].score) {
+                    index = bestCount - 1;
+                } else {
+                    return;
+                }
+            }
+            while (index > 0 && best[index - 1].score < entry.score) {
+                best[index] = best[index - 1];
+                index--;
+            }
+            best[index] = entry;
+        }
+    }
+
+    private Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private boolean ready;
+    private int build;
+    // Transactions added while a build is running; the build's copy of them is skipped
+    private Set<Integer> addedDuringBuild;
+
+    /**
+     * Whether a build has completed
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Clear the suggestions and start collecting additions until {@link #endBuild}
+     * @return Build number to pass to {@link #addFromBuild} and {@link #endBuild}
+     */
+    public synchronized int beginBuild() {
+        root = new Node();
+        entries.clear();
+        ready = false;
+        addedDuringBuild = new HashSet<>();
+        return ++build;
+    }
+
+    /**
+     * Add a transaction read by the build, unless it was already added since the build began
+     */
+    public synchronized void addFromBuild(int build, Transaction transaction) {
+        if (build == this.build && !addedDuringBuild.contains(transaction.getId())) {
+            insert(transaction);
+        }
+    }
+
+    public synchronized void endBuild(int build) {
+        if (build == this.build) {
+            addedDuringBuild = null;
+            ready = true;
+        }
+    }
+
+    /**
+     * Count a new transaction's description
+     */
+    public synchronized void add(Transaction transaction) {
+        if (addedDuringBuild != null) {
+            addedDuringBuild.add(transaction.getId());
+        }
+        insert(transaction);
+    }
+
+    /**
+     * Past descriptions starting with a text, ignoring case
+     * @param prefix Text typed so far
+     * @return Up to {@link #MAX_SUGGESTIONS} descriptions, best first, as last written
+     */
+    public synchronized List<String> suggest(String prefix) {
+        List<String> suggestions = new ArrayList<>();
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return suggestions;
+        }
+        Node node = root;
+        for (int i = 0; i < key.length() && i < MAX_DEPTH && node != null; i++) {
+            node = node.child(key.charAt(i), false);
+        }
+        if (node == null) {
+            return suggestions;
+        }
+        for (int i = 0; i < node.bestCount; i++) {
+            if (key.length() <= MAX_DEPTH || node.best[i].key.startsWith(key)) {
+                suggestions.add(node.best[i].text);
+            }
+        }
+        return suggestions;
+    }
+
+    private void insert(Transaction transaction) {
+        String description = transaction.getDescription() == null ? "" : transaction.getDescription().trim();
+        if (description.isEmpty()) {
+            return;
+        }
+        String key = normalize(description);
+        Entry entry = entries.computeIfAbsent(key, Entry::new);
+        long millis = transaction.getDateMillis();
+        if (entry.text == null || millis >= entry.lastMillis) {
+            entry.text = description;
+            entry.lastMillis = millis;
+        }
+        entry.score = addLog2(entry.score, millis / MILLIS_PER_HALF_LIFE);
+
+        Node node = root;
+        for (int i = 0; i < key.length() && i < MAX_DEPTH; i++) {
+            node = node.child(key.charAt(i), true);
+            node.offer(entry);
+        }
+    }
+
+    /**
+     * log2(2^a + 2^b) without overflowing
+     */
+    private static double addLog2(double a, double b) {
+        double high = Math.max(a, b);
+        double low = Math.min(a, b);
+        if (low == Double.NEGATIVE_INFINITY) {
+            return high;
+        }
+        return high + Math.log1p(Math.pow(2, low - high)) / Math.log(2);
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,68 @@
+package com.moneymanager.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of ints in a growable array, without boxing. Ids mostly arrive
+ * in ascending order, so adding is usually an append.
+ */
+final class Postings {
+    // Most descriptions occur once or a few times
+    private int[] values = new int[1];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Add a value, keeping the array sorted
+     * @return false if it was already present
+     */
+    boolean add(int value) {
+        if (size > 0 && values[size - 1] >= value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return false;
+            }
+            insertAt(-index - 1, value);
+            return true;
+        }
+        insertAt(size, value);
+        return true;
+    }
+
+    /**
+     * @return false if the value was not present
+     */
+    boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Binary search from a position on
+     * @return Index of the value, or (-(insertion point) - 1) if it is not present
+     */
+    int indexOf(int value, int from) {
+        return Arrays.binarySearch(values, Math.min(from, size), size, value);
+    }
+
+    private void insertAt(int index, int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+}
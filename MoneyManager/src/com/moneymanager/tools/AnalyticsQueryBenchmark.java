@@ -0,0 +1,195 @@
+package com.moneymanager.tools;
+
+import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.model.Category;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless benchmark comparing two ways of computing the analytics aggregates:
+ * streaming every transaction row to the client and summing into hash maps,
+ * versus letting the database GROUP BY (month, type, category).
+ * <p>
+ * Creates a scratch user, grows its history to each requested size, times both
+ * strategies and removes the user again. Requires the money_manager database.
+ * <p>
+ * Usage: {@code AnalyticsQueryBenchmark [--iterations N] [size ...]}, default sizes 10000 100000 1000000.
+ */
+public class AnalyticsQueryBenchmark {
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final long HISTORY_MILLIS = TimeUnit.DAYS.toMillis(5 * 365);
+
+    public static void main(String[] args) throws Exception {
+        int iterations = 5;
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        int sizeCount = 0;
+        for (int i = 0; i < args.length; i++) {
+            if ("--iterations".equals(args[i]) && i + 1 < args.length) {
+                iterations = Integer.parseInt(args[++i]);
+            } else {
+                if (sizeCount == 0) {
+                    sizes = new int[args.length];
+                }
+                sizes[sizeCount++] = Integer.parseInt(args[i]);
+            }
+        }
+        if (sizeCount > 0) {
+            sizes = Arrays.copyOf(sizes, sizeCount);
+        }
+        Arrays.sort(sizes);
+
+        int userId = createScratchUser();
+        try {
+            Random random = new Random(42);
+            int rows = 0;
+            System.out.printf("%10s  %-14s %10s %10s %12s%n", "rows", "strategy", "median ms", "min ms", "rows on wire");
+            for (int size : sizes) {
+                insertTransactions(userId, size - rows, random);
+                rows = size;
+
+                long[] streaming = time(iterations, () -> streamRows(userId));
+                long[] grouped = time(iterations, () -> new TransactionDAO().aggregateByMonth(userId).size());
+                report(size, "row streaming", streaming);
+                report(size, "GROUP BY", grouped);
+            }
+        } finally {
+            deleteScratchUser(userId);
+            DatabaseConnection.closeConnection();
+        }
+    }
+
+    /**
+     * The original dashboard strategy: every row over the wire, aggregated into boxed maps
+     * @return Number of rows transferred
+     */
+    static int streamRows(int userId) throws SQLException {
+        String query = "SELECT type, amount, category, DATE_FORMAT(transaction_date, '%Y-%m') as month " +
+                      "FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC";
+        Map<String, Double> categoryExpenses = new HashMap<>();
+        Map<String, Double> monthlyIncome = new HashMap<>();
+        Map<String, Double> monthlyExpenses = new HashMap<>();
+        int rows = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    String type = rs.getString("type");
+                    double amount = rs.getDouble("amount");
+                    String category = rs.getString("category");
+                    String month = rs.getString("month");
+                    if ("Income".equals(type)) {
+                        monthlyIncome.put(month, monthlyIncome.getOrDefault(month, 0.0) + amount);
+                    } else {
+                        categoryExpenses.put(category, categoryExpenses.getOrDefault(category, 0.0) + amount);
+                        monthlyExpenses.put(month, monthlyExpenses.getOrDefault(month, 0.0) + amount);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private interface Strategy {
+        int run() throws SQLException;
+    }
+
+    /**
+     * Run a strategy after warming it up
+     * @return Elapsed nanoseconds of each measured run, followed by the rows it transferred
+     */
+    private static long[] time(int iterations, Strategy strategy) throws SQLException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            strategy.run();
+        }
+        long[] result = new long[iterations + 1];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            result[iterations] = strategy.run();
+            result[i] = System.nanoTime() - start;
+        }
+        return result;
+    }
+
+    private static void report(int size, String strategy, long[] result) {
+        long[] nanos = Arrays.copyOf(result, result.length - 1);
+        Arrays.sort(nanos);
+        System.out.printf("%10d  %-14s %10.1f %10.1f %12d%n", size, strategy,
+                          nanos[nanos.length / 2] / 1e6, nanos[0] / 1e6, result[result.length - 1]);
+    }
+
+    private static int createScratchUser() throws SQLException {
+        String query = "INSERT INTO users (username, password, email, full_name) VALUES (?, ?, ?, ?)";
+        String username = "analytics_bench_" + System.currentTimeMillis();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, username);
+            stmt.setString(2, "benchmark");
+            stmt.setString(3, username + "@example.com");
+            stmt.setString(4, "Analytics Benchmark");
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Bulk insert random transactions spread over five years. Goes straight to
+     * the table, the rollups are not needed for this comparison.
+     */
+    private static void insertTransactions(int userId, int count, Random random) throws SQLException {
+        String query = "INSERT INTO transactions (user_id, type, category, description, amount, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+        long now = System.currentTimeMillis();
+        long start = System.nanoTime();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            conn.setAutoCommit(false);
+            for (int i = 0; i < count; i++) {
+                boolean income = random.nextInt(10) < 3;
+                stmt.setInt(1, userId);
+                stmt.setString(2, income ? "Income" : "Expense");
+                stmt.setString(3, Category.DEFAULT_NAMES[random.nextInt(Category.DEFAULT_NAMES.length)]);
+                stmt.setString(4, "Benchmark transaction " + i);
+                stmt.setBigDecimal(5, BigDecimal.valueOf(100 + random.nextInt(500_000), 2));
+                stmt.setTimestamp(6, new Timestamp(now - (long) (random.nextDouble() * HISTORY_MILLIS)));
+                stmt.addBatch();
+                if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                    stmt.executeBatch();
+                    conn.commit();
+                }
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+        System.out.println("Inserted " + count + " rows in "
+                           + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+    }
+
+    private static void deleteScratchUser(int userId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (String sql : new String[]{"DELETE FROM transactions WHERE user_id = ?", "DELETE FROM users WHERE id = ?"}) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, userId);
+                    stmt.executeUpdate();
+                }
+            }
+        }
+    }
+}
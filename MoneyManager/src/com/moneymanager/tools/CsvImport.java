@@ -0,0 +1,66 @@
+package com.moneymanager.tools;
+
+import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.importer.CsvImporter;
+import com.moneymanager.importer.ImportError;
+import com.moneymanager.importer.ImportResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool that imports a CSV file of transactions for one user.
+ * <p>
+ * Usage: {@code CsvImport [--chunk N] [--threads N] <userId> <file>}. The
+ * file needs a header with the columns date, type, category, description and
+ * amount. Rejected rows are listed in {@code <file>.errors.csv}.
+ */
+public class CsvImport {
+
+    public static void main(String[] args) throws Exception {
+        CsvImporter.Config config = new CsvImporter.Config();
+        Integer userId = null;
+        Path file = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--chunk".equals(args[i]) && i + 1 < args.length) {
+                config.chunkSize = Integer.parseInt(args[++i]);
+            } else if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                config.parseThreads = Integer.parseInt(args[++i]);
+            } else if (userId == null) {
+                userId = Integer.parseInt(args[i]);
+            } else {
+                file = Paths.get(args[i]);
+            }
+        }
+        if (userId == null || file == null) {
+            System.err.println("Usage: CsvImport [--chunk N] [--threads N] <userId> <file>");
+            System.exit(2);
+        }
+
+        try {
+            System.out.println("Importing " + file + " for user " + userId + " in chunks of " + config.chunkSize
+                               + " with " + config.parseThreads + " parse threads...");
+            long[] lastPercent = {-1};
+            ImportResult result = new CsvImporter(config).importFile(file, userId, progress -> {
+                if (progress.getPercent() / 10 != lastPercent[0]) {
+                    lastPercent[0] = progress.getPercent() / 10;
+                    System.out.println("  " + progress.getPercent() + "%  " + progress.getImported() + " imported, "
+                                       + progress.getRejected() + " rejected");
+                }
+            });
+
+            long rowsPerSecond = result.getImported() * 1000 / Math.max(1, result.getElapsedMillis());
+            System.out.println("Imported " + result.getImported() + " rows in " + result.getElapsedMillis() + "ms ("
+                               + rowsPerSecond + " rows/s), " + result.getRejected() + " rejected");
+            for (ImportError error : result.getFirstErrors()) {
+                System.err.println("  line " + error.getLineNumber() + ": " + error.getMessage());
+            }
+            if (result.getErrorReport() != null) {
+                System.out.println("Error report: " + result.getErrorReport());
+            }
+            System.exit(result.getRejected() == 0 ? 0 : 1);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.moneymanager.tools;
+
+import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.RollupDAO;
+import com.moneymanager.dataset.BulkLoader;
+import com.moneymanager.dataset.DatasetFiles;
+import com.moneymanager.dataset.DatasetGenerator;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line tool that generates a deterministic synthetic dataset, writes
+ * it to CSV files and optionally loads it into the database.
+ * <p>
+ * Usage: {@code GenerateDataset [--users N] [--transactions N] [--years N]
+ * [--seed N] [--seasonality X] [--out DIR] [--load none|batch|infile] [--batch N]}.
+ * {@code --transactions} is the average per user. After loading, the balance
+ * and rollup tables of the new users are rebuilt.
+ */
+public class GenerateDataset {
+
+    public static void main(String[] args) throws Exception {
+        DatasetGenerator.Config config = new DatasetGenerator.Config();
+        Path out = Paths.get("dataset");
+        String load = "none";
+        int batchSize = 5000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--users": config.users = Integer.parseInt(value); break;
+                case "--transactions": config.transactionsPerUser = Integer.parseInt(value); break;
+                case "--years": config.years = Integer.parseInt(value); break;
+                case "--seed": config.seed = Long.parseLong(value); break;
+                case "--seasonality": config.seasonality = Double.parseDouble(value); break;
+                case "--out": out = Paths.get(value); break;
+                case "--load": load = value.toLowerCase(Locale.ROOT); break;
+                case "--batch": batchSize = Integer.parseInt(value); break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        long start = System.nanoTime();
+        long rows;
+        try (DatasetFiles files = new DatasetFiles(out)) {
+            new DatasetGenerator(config).generate(files);
+            rows = files.getTransactionCount();
+        }
+        System.out.println("Generated " + config.users + " users and " + rows + " transactions (seed " + config.seed
+                           + ") in " + elapsedMillis(start) + "ms into " + out.toAbsolutePath());
+        if ("none".equals(load)) {
+            return;
+        }
+
+        try {
+            start = System.nanoTime();
+            BulkLoader.Mode mode = BulkLoader.Mode.valueOf(load.toUpperCase(Locale.ROOT));
+            List<Integer> userIds = new BulkLoader(batchSize).load(out, mode, count -> {
+                if (count % 100_000 == 0) {
+                    System.out.println("  " + count + " rows");
+                }
+            });
+            long loadMillis = elapsedMillis(start);
+            System.out.println("Loaded " + rows + " transactions in " + loadMillis + "ms ("
+                               + rows * 1000 / Math.max(1, loadMillis) + " rows/s)");
+
+            int threads = Math.min(Runtime.getRuntime().availableProcessors(),
+                                   Integer.getInteger("moneymanager.pool.maxSize", 10));
+            int failures = RollupRebuilder.rebuild(new RollupDAO(), userIds, threads);
+            System.exit(failures == 0 ? 0 : 1);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,50 @@
+package com.moneymanager.tools;
+
+import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.Migration;
+import com.moneymanager.dao.QueryPlanCheck;
+import com.moneymanager.dao.SchemaMigrator;
+
+import java.util.List;
+
+/**
+ * Command line tool that migrates the database schema, as the application
+ * does at startup, and prints the EXPLAIN plans of the hot queries.
+ * <p>
+ * Usage: {@code MigrateSchema [--status]}. With {@code --status} nothing is
+ * applied. Exits with 1 if a query plan is not as expected.
+ */
+public class MigrateSchema {
+
+    public static void main(String[] args) throws Exception {
+        boolean statusOnly = args.length > 0 && "--status".equals(args[0]);
+        SchemaMigrator.Config config = new SchemaMigrator.Config();
+        config.verifyPlans = false;
+        SchemaMigrator migrator = new SchemaMigrator(config);
+
+        try {
+            if (!statusOnly) {
+                List<Migration> applied = migrator.migrate();
+                for (Migration migration : applied) {
+                    System.out.println("Applied " + migration);
+                }
+            }
+            System.out.println("Schema version " + migrator.currentVersion() + " (latest " + SchemaMigrator.latestVersion() + ")");
+
+            List<QueryPlanCheck.Result> plans = new QueryPlanCheck().explain();
+            if (plans.isEmpty()) {
+                System.out.println("No transactions to check query plans against");
+            }
+            int problems = 0;
+            for (QueryPlanCheck.Result plan : plans) {
+                System.out.println("  " + plan);
+                if (plan.getProblem() != null) {
+                    problems++;
+                }
+            }
+            System.exit(problems == 0 ? 0 : 1);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.moneymanager.tools;
+
+import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.RollupDAO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Command line tool that regenerates user_balances and monthly_category_rollups
+ * from the transactions table. Each user is rebuilt in its own database
+ * transaction, and users are processed in parallel.
+ * <p>
+ * Usage: {@code RollupRebuilder [--threads N] [userId ...]}. Without user IDs
+ * every user is rebuilt.
+ */
+public class RollupRebuilder {
+
+    public static void main(String[] args) throws Exception {
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(),
+                               Integer.getInteger("moneymanager.pool.maxSize", 10));
+        List<Integer> userIds = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                userIds.add(Integer.parseInt(args[i]));
+            }
+        }
+
+        RollupDAO rollupDAO = new RollupDAO();
+        int failures;
+        try {
+            if (userIds.isEmpty()) {
+                userIds = rollupDAO.findUserIds();
+            }
+            System.out.println("Rebuilding rollups for " + userIds.size() + " users with " + threads + " threads...");
+
+            failures = rebuild(rollupDAO, userIds, threads);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Rebuild the given users in parallel
+     * @return Number of users that failed
+     */
+    static int rebuild(RollupDAO rollupDAO, List<Integer> userIds, int threads) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger rows = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        for (int userId : userIds) {
+            executor.execute(() -> {
+                try {
+                    rows.addAndGet(rollupDAO.rebuild(userId));
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    System.err.println("Failed to rebuild rollups for user " + userId + ": " + e.getMessage());
+                }
+                int count = done.incrementAndGet();
+                if (count % 100 == 0) {
+                    System.out.println("  " + count + "/" + userIds.size() + " users");
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("Rebuilt " + (done.get() - failures.get()) + " users (" + rows.get()
+                           + " rollup rows) in " + elapsedMillis + "ms, " + failures.get() + " failed");
+        return failures.get();
+    }
+}
@@ -0,0 +1,387 @@
+package com.moneymanager.tools;
+
+import com.moneymanager.analytics.AnalyticsEngine;
+import com.moneymanager.analytics.TransactionColumns;
+import com.moneymanager.dao.ConnectionPool;
+import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.RollupDAO;
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.dao.UserDAO;
+import com.moneymanager.metrics.LatencyHistogram;
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless load test of the data layer with many concurrent simulated users.
+ * <p>
+ * Each virtual user logs in as one of the existing accounts, for example
+ * those created by {@link GenerateDataset}, and runs a weighted mix of the
+ * operations the dashboard performs, back to back without think time. The
+ * test steps through increasing numbers of virtual users and reports
+ * throughput, p50/p99/p999 latency and the error rate per operation at each
+ * step. It stops at the saturation point, where adding users no longer adds
+ * throughput.
+ * <p>
+ * Usage: {@code StressTest [--users-like PREFIX] [--password PW] [--steps 1,2,4,...]
+ * [--duration SECONDS] [--warmup SECONDS] [--mix login=5,add=10,...] [--seed N]}.
+ * Transactions added by the test are deleted again at the end.
+ */
+public class StressTest {
+
+    enum Operation {
+        LOGIN, ADD, EDIT, DELETE, PAGE, BALANCE, ANALYTICS
+    }
+
+    private static final int PAGE_SIZE = 100;
+    // A step saturates when it adds less than this fraction of throughput
+    private static final double MIN_GAIN = 0.05;
+
+    private final List<String> usernames = new ArrayList<>();
+    private final List<Integer> userIds = new ArrayList<>();
+    private final String password;
+    private final int[] mixWeights = new int[Operation.values().length];
+    private final long seed;
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final RollupDAO rollupDAO = new RollupDAO();
+    private final UserDAO userDAO = new UserDAO();
+
+    StressTest(String password, Map<Operation, Integer> mix, long seed) {
+        this.password = password;
+        this.seed = seed;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            mixWeights[entry.getKey().ordinal()] = entry.getValue();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String prefix = "gen_";
+        String password = "password";
+        int[] steps = {1, 2, 4, 8, 16, 32, 64};
+        int durationSeconds = 20;
+        int warmupSeconds = 5;
+        long seed = 42;
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.LOGIN, 5);
+        mix.put(Operation.ADD, 10);
+        mix.put(Operation.EDIT, 5);
+        mix.put(Operation.DELETE, 5);
+        mix.put(Operation.PAGE, 50);
+        mix.put(Operation.BALANCE, 15);
+        mix.put(Operation.ANALYTICS, 10);
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--users-like": prefix = value; break;
+                case "--password": password = value; break;
+                case "--duration": durationSeconds = Integer.parseInt(value); break;
+                case "--warmup": warmupSeconds = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--steps":
+                    String[] parts = value.split(",");
+                    steps = new int[parts.length];
+                    for (int s = 0; s < parts.length; s++) {
+                        steps[s] = Integer.parseInt(parts[s].trim());
+                    }
+                    break;
+                case "--mix":
+                    mix.clear();
+                    for (String part : value.split(",")) {
+                        String[] pair = part.split("=");
+                        mix.put(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+                    }
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        StressTest test = new StressTest(password, mix, seed);
+        try {
+            test.loadAccounts(prefix);
+            if (test.userIds.isEmpty()) {
+                System.err.println("No users named " + prefix + "*; create some with GenerateDataset first");
+                System.exit(2);
+            }
+            ConnectionPool pool = DatabaseConnection.getPool();
+            System.out.println("Accounts: " + test.userIds.size() + ", pool size: " + pool.getMaxSize()
+                               + ", mix: " + mix + ", " + durationSeconds + "s per step");
+            test.run(steps, warmupSeconds, durationSeconds, pool);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+
+    private void loadAccounts(String prefix) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id, username FROM users WHERE username LIKE ? ORDER BY id")) {
+            stmt.setString(1, prefix.replace("_", "\\_") + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    userIds.add(rs.getInt("id"));
+                    usernames.add(rs.getString("username"));
+                }
+            }
+        }
+    }
+
+    private void run(int[] steps, int warmupSeconds, int durationSeconds, ConnectionPool pool) throws InterruptedException {
+        double bestThroughput = 0;
+        int bestConcurrency = 0;
+        for (int concurrency : steps) {
+            Step step = runStep(concurrency, warmupSeconds, durationSeconds, pool);
+            step.print();
+
+            double throughput = step.throughput();
+            if (throughput > bestThroughput * (1 + MIN_GAIN)) {
+                bestThroughput = throughput;
+                bestConcurrency = concurrency;
+            } else {
+                System.out.printf("Saturated: %d users gave %.0f ops/s, no better than %.0f ops/s at %d users%n",
+                                  concurrency, throughput, bestThroughput, bestConcurrency);
+                return;
+            }
+        }
+        System.out.printf("Not saturated up to %d users (%.0f ops/s); try larger --steps%n", bestConcurrency, bestThroughput);
+    }
+
+    /**
+     * Run one concurrency level: warm up, measure, then clean up what the virtual users added
+     */
+    private Step runStep(int concurrency, int warmupSeconds, int durationSeconds, ConnectionPool pool)
+            throws InterruptedException {
+        Step step = new Step(concurrency);
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        CountDownLatch finished = new CountDownLatch(concurrency);
+
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            VirtualUser user = new VirtualUser(i, step, measureFrom, stopAt, finished);
+            virtualUsers.add(user);
+            Thread thread = new Thread(user, "stress-user-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        // Pool statistics are cumulative, so take the difference over the measured interval
+        long untilMeasuring = measureFrom - System.nanoTime();
+        if (untilMeasuring > 0) {
+            TimeUnit.NANOSECONDS.sleep(untilMeasuring);
+        }
+        long timeoutsBefore = pool.getBorrowTimeouts();
+        LatencyHistogram borrowWaitBefore = pool.snapshotBorrowWait();
+        finished.await();
+        step.elapsedNanos = stopAt - measureFrom;
+        step.borrowTimeouts = pool.getBorrowTimeouts() - timeoutsBefore;
+        step.borrowWait = pool.snapshotBorrowWait().since(borrowWaitBefore);
+
+        for (VirtualUser user : virtualUsers) {
+            user.cleanUp();
+        }
+        return step;
+    }
+
+    /**
+     * One simulated user working as one account in a closed loop
+     */
+    private final class VirtualUser implements Runnable {
+        private final int accountIndex;
+        private final int userId;
+        private final Random random;
+        private final Step step;
+        private final long measureFrom;
+        private final long stopAt;
+        private final CountDownLatch finished;
+        private final List<Transaction> added = new ArrayList<>();
+        private final short[] categories = new short[Category.DEFAULT_NAMES.length];
+
+        VirtualUser(int index, Step step, long measureFrom, long stopAt, CountDownLatch finished) {
+            this.accountIndex = index % userIds.size();
+            this.userId = userIds.get(accountIndex);
+            this.random = new Random(seed + index);
+            this.step = step;
+            this.measureFrom = measureFrom;
+            this.stopAt = stopAt;
+            this.finished = finished;
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] = Category.idOf(Category.DEFAULT_NAMES[i]);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                long now;
+                while ((now = System.nanoTime()) < stopAt) {
+                    Operation operation = pick();
+                    boolean failed = false;
+                    try {
+                        failed = !perform(operation);
+                    } catch (Exception e) {
+                        failed = true;
+                        step.lastError = operation + ": " + e.getMessage();
+                    }
+                    if (now >= measureFrom) {
+                        step.record(operation, System.nanoTime() - now, failed);
+                    }
+                }
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        private Operation pick() {
+            int total = 0;
+            for (int weight : mixWeights) {
+                total += weight;
+            }
+            int pick = random.nextInt(total);
+            Operation[] operations = Operation.values();
+            for (int i = 0; i < operations.length; i++) {
+                pick -= mixWeights[i];
+                if (pick < 0) {
+                    return operations[i];
+                }
+            }
+            return Operation.PAGE;
+        }
+
+        /**
+         * @return false if the operation completed but did not succeed
+         */
+        private boolean perform(Operation operation) throws SQLException {
+            switch (operation) {
+                case LOGIN:
+                    return userDAO.authenticateUser(usernames.get(accountIndex), password) != null;
+                case ADD:
+                    added.add(transactionDAO.insert(newTransaction()));
+                    return true;
+                case EDIT:
+                    if (added.isEmpty()) {
+                        added.add(transactionDAO.insert(newTransaction()));
+                        return true;
+                    }
+                    int index = random.nextInt(added.size());
+                    Transaction edited = newTransaction().withId(added.get(index).getId());
+                    added.set(index, edited);
+                    return transactionDAO.update(edited);
+                case DELETE:
+                    if (added.isEmpty()) {
+                        added.add(transactionDAO.insert(newTransaction()));
+                        return true;
+                    }
+                    return transactionDAO.delete(userId, added.remove(added.size() - 1).getId());
+                case PAGE:
+                    List<Transaction> page = transactionDAO.findPage(userId, null, null, PAGE_SIZE);
+                    if (page.size() == PAGE_SIZE && random.nextBoolean()) {
+                        transactionDAO.findPage(userId, page.get(PAGE_SIZE - 1), null, PAGE_SIZE);
+                    }
+                    return true;
+                case BALANCE:
+                    transactionDAO.getBalanceCents(userId);
+                    return true;
+                case ANALYTICS:
+                    AnalyticsEngine.aggregate(TransactionColumns.ofRollups(rollupDAO.findMonthlyRollups(userId)));
+                    return true;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+        }
+
+        private Transaction newTransaction() {
+            boolean income = random.nextInt(5) == 0;
+            return new Transaction(0, userId, System.currentTimeMillis(), 100 + random.nextInt(50_000),
+                                   income ? TransactionType.INCOME : TransactionType.EXPENSE,
+                                   categories[random.nextInt(categories.length)], "Stress test");
+        }
+
+        void cleanUp() {
+            for (Transaction transaction : added) {
+                try {
+                    transactionDAO.delete(userId, transaction.getId());
+                } catch (SQLException e) {
+                    System.err.println("Failed to delete stress test transaction " + transaction.getId() + ": " + e.getMessage());
+                }
+            }
+            added.clear();
+        }
+    }
+
+    /**
+     * Measurements of one concurrency level
+     */
+    private static final class Step {
+        final int concurrency;
+        final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+        volatile String lastError;
+        long elapsedNanos;
+        long borrowTimeouts;
+        LatencyHistogram borrowWait = new LatencyHistogram();
+
+        Step(int concurrency) {
+            this.concurrency = concurrency;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+                errors.put(operation, new AtomicLong());
+            }
+        }
+
+        void record(Operation operation, long nanos, boolean failed) {
+            latencies.get(operation).record(nanos);
+            if (failed) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+
+        long totalCount() {
+            long total = 0;
+            for (LatencyHistogram histogram : latencies.values()) {
+                total += histogram.getCount();
+            }
+            return total;
+        }
+
+        double throughput() {
+            return totalCount() * 1e9 / elapsedNanos;
+        }
+
+        void print() {
+            System.out.printf("%n%d users: %.0f ops/s, %d pool borrow timeouts, pool wait p99 %.2f ms%n",
+                              concurrency, throughput(), borrowTimeouts, borrowWait.getPercentile(99) / 1e6);
+            System.out.printf("  %-10s %9s %9s %9s %9s %9s %9s %7s%n",
+                              "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "err %");
+            for (Operation operation : Operation.values()) {
+                LatencyHistogram histogram = latencies.get(operation);
+                long count = histogram.getCount();
+                if (count == 0) {
+                    continue;
+                }
+                System.out.printf("  %-10s %9d %9.0f %9.2f %9.2f %9.2f %9.2f %7.2f%n",
+                                  operation.name().toLowerCase(Locale.ROOT), count, count * 1e9 / elapsedNanos,
+                                  histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6,
+                                  histogram.getPercentile(99.9) / 1e6, histogram.getMax() / 1e6,
+                                  100.0 * errors.get(operation).get() / count);
+            }
+            if (lastError != null) {
+                System.out.println("  last error: " + lastError);
+            }
+        }
+    }
+}
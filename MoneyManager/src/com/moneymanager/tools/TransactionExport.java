@@ -0,0 +1,66 @@
+package com.moneymanager.tools;
+
+import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.exporter.TransactionExporter;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Command line tool that exports all transactions of one user.
+ * <p>
+ * Usage: {@code TransactionExport [--format csv|json] [--gzip] [--fetch N] <userId> <file>}.
+ * The format and compression default to what the file name implies, e.g.
+ * {@code export.json.gz}.
+ */
+public class TransactionExport {
+
+    public static void main(String[] args) throws Exception {
+        String format = null;
+        boolean gzip = false;
+        Integer fetchSize = null;
+        Integer userId = null;
+        Path file = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = args[++i];
+            } else if ("--gzip".equals(args[i])) {
+                gzip = true;
+            } else if ("--fetch".equals(args[i]) && i + 1 < args.length) {
+                fetchSize = Integer.parseInt(args[++i]);
+            } else if (userId == null) {
+                userId = Integer.parseInt(args[i]);
+            } else {
+                file = Paths.get(args[i]);
+            }
+        }
+        if (userId == null || file == null) {
+            System.err.println("Usage: TransactionExport [--format csv|json] [--gzip] [--fetch N] <userId> <file>");
+            System.exit(2);
+        }
+
+        TransactionExporter.Config config = TransactionExporter.Config.forFile(file);
+        if (format != null) {
+            config.format = TransactionExporter.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        }
+        config.gzip |= gzip;
+        if (fetchSize != null) {
+            config.fetchSize = fetchSize;
+        }
+
+        try {
+            long start = System.nanoTime();
+            long rows = new TransactionExporter(config).export(userId, file, count -> {
+                if (count % 100_000 == 0) {
+                    System.out.println("  " + count + " rows");
+                }
+            });
+            long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            System.out.println("Exported " + rows + " rows to " + file + " in " + elapsedMillis + "ms ("
+                               + rows * 1000 / elapsedMillis + " rows/s, " + file.toFile().length() + " bytes)");
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+}
@@ -1,7 +1,17 @@
 package com.moneymanager.ui;
 
-import com.moneymanager.dao.DatabaseConnection;
-import com.moneymanager.dao.UserDAO;
+import com.moneymanager.analytics.AnalyticsEngine;
+import com.moneymanager.analytics.AnalyticsResult;
+import com.moneymanager.analytics.CategoryTotal;
+import com.moneymanager.analytics.TrendSeries;
+import com.moneymanager.analytics.TransactionColumns;
+import com.moneymanager.dao.RollupDAO;
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.event.TransactionEvent;
+import com.moneymanager.event.TransactionEventBus;
+import com.moneymanager.event.TransactionListener;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.MonthlyRollup;
 import com.moneymanager.model.User;
 
 import javax.swing.*;
@@ -9,8 +19,12 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.*;
-import java.text.DecimalFormat;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
 
@@ -34,30 +48,46 @@ public class AnalyticsDashboard extends JFrame {
     private static final Font BODY_FONT = new Font("Segoe UI", Font.PLAIN, 13);
     private static final Font SMALL_FONT = new Font("Segoe UI", Font.PLAIN, 11);
     
+    private static final String CHART_CARD = "chart";
+    private static final String NO_DATA_CARD = "noData";
+    
     private User currentUser;
-    private UserDAO userDAO;
-    private DecimalFormat currencyFormat = new DecimalFormat("$#,##0.00");
  
-    private double totalIncome = 0;
-    private double totalExpenses = 0;
-    private double currentBalance = 0;
-    private Map<String, Double> categoryExpenses = new HashMap<>();
-    private Map<String, Double> monthlyIncomeData = new HashMap<>();
-    private Map<String, Double> monthlyExpenseData = new HashMap<>();
+    private AnalyticsResult analytics = AnalyticsResult.EMPTY;
     
     private JPanel mainScrollPanel;
     private JPanel summaryPanel;
     private JPanel categoryPanel;
     private JPanel chartsPanel;
+    private BusyIndicator busyIndicator;
+    // Components bound to the current analytics result
+    private SummaryCard incomeCard;
+    private SummaryCard expensesCard;
+    private SummaryCard balanceCard;
+    private SummaryCard savingsCard;
+    private SummaryCard averageExpenseCard;
+    private SummaryCard expenseRatioCard;
+    private final Map<Short, CategoryRow> categoryRows = new HashMap<>();
+    private int firstCategoryRow;
+    private JLabel noCategoryLabel;
+    private Component noCategorySpacer;
+    private JPanel chartCards;
+    private PieChartPanel pieChart;
+    private JComboBox<TrendSeries.Resolution> trendResolution;
+    private MonthlyTrendPanel trendChart;
+    // Daily series for the daily and weekly trend, loaded on first use and dropped on changes
+    private TrendSeries dailySeries;
+    private DbWorker<TrendSeries, Void> trendWorker;
+    private DbWorker<AnalyticsResult, Void> loadWorker;
+    private final TransactionListener transactionListener = this::applyChanges;
 
     public AnalyticsDashboard(User user) {
         this.currentUser = user;
-        this.userDAO = new UserDAO();
         
         initializeData();
         initializeUI();
-        loadAnalyticsData();
-        refreshAllPanels();
+        loadAnalyticsData(() -> {});
+        TransactionEventBus.subscribe(transactionListener);
     }
 
     private void initializeUI() {
@@ -116,6 +146,9 @@ public class AnalyticsDashboard extends JFrame {
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
         buttonPanel.setBackground(PRIMARY_COLOR);
         
+        busyIndicator = new BusyIndicator(PRIMARY_COLOR);
+        buttonPanel.add(busyIndicator);
+        
         JButton backButton = new JButton("Back to Dashboard");
         styleModernButton(backButton, TEXT_DARK);
         backButton.addActionListener(e -> dispose());
@@ -133,15 +166,17 @@ public class AnalyticsDashboard extends JFrame {
         return headerPanel;
     }
 
+    /**
+     * Build the analytics view once. Later results are bound to the same
+     * components by {@link #bindAnalytics}.
+     */
     private void createAllPanels() {
-        mainScrollPanel.removeAll();
-        
         // Summary section
         summaryPanel = createFinancialSummaryPanel();
         mainScrollPanel.add(summaryPanel);
         mainScrollPanel.add(Box.createVerticalStrut(20));
         
-        // Two-column layout for charts (removed trends panel)
+        // Category breakdown and charts side by side
         JPanel chartsRowPanel = new JPanel(new GridLayout(1, 2, 20, 0));
         chartsRowPanel.setBackground(LIGHT_COLOR);
         
@@ -154,28 +189,141 @@ public class AnalyticsDashboard extends JFrame {
         mainScrollPanel.add(chartsRowPanel);
         mainScrollPanel.add(Box.createVerticalStrut(20));
         
-        mainScrollPanel.revalidate();
-        mainScrollPanel.repaint();
+        mainScrollPanel.add(createTrendPanel());
+        mainScrollPanel.add(Box.createVerticalStrut(20));
+        
+        bindAnalytics();
+    }
+
+    /**
+     * Show the current analytics result, touching only the labels, bars and
+     * category rows whose values changed. Swing components are only created
+     * for categories that were not shown before.
+     */
+    private void bindAnalytics() {
+        long balanceCents = analytics.getBalanceCents();
+        Color balanceColor = balanceCents >= 0 ? SUCCESS_COLOR : DANGER_COLOR;
+        
+        incomeCard.setAmount(analytics.getTotalIncomeCents(), SUCCESS_COLOR);
+        expensesCard.setAmount(analytics.getTotalExpenseCents(), DANGER_COLOR);
+        balanceCard.setAmount(balanceCents, balanceColor);
+        savingsCard.setAmount(balanceCents, balanceColor);
+        averageExpenseCard.setAmount(analytics.getAverageMonthlyExpenseCents(), WARNING_COLOR);
+        expenseRatioCard.setPercent(analytics.getExpenseRatio(), INFO_COLOR);
+        
+        bindCategoryRows();
+        
+        boolean empty = analytics.getCategoryBreakdown().isEmpty();
+        pieChart.setData(analytics.getCategoryBreakdown(), analytics.getTotalExpenseCents());
+        ((CardLayout) chartCards.getLayout()).show(chartCards, empty ? NO_DATA_CARD : CHART_CARD);
+        
+        bindTrend();
+    }
+
+    /**
+     * Show the trend at the selected resolution. The monthly series comes
+     * with the analytics result; the daily one is loaded once and reused for
+     * the weekly view until the transactions change.
+     */
+    private void bindTrend() {
+        TrendSeries.Resolution resolution = (TrendSeries.Resolution) trendResolution.getSelectedItem();
+        if (resolution == TrendSeries.Resolution.MONTH) {
+            trendChart.setSeries(TrendSeries.ofMonths(analytics));
+        } else if (dailySeries != null) {
+            trendChart.setSeries(resolution == TrendSeries.Resolution.WEEK ? dailySeries.toWeeks() : dailySeries);
+        } else {
+            loadDailySeries();
+        }
+    }
+
+    private void loadDailySeries() {
+        if (trendWorker != null) {
+            trendWorker.cancelQuery();
+        }
+        int userId = currentUser.getId();
+        
+        trendWorker = DbWorker.call(() -> TrendSeries.ofDays(new TransactionDAO().aggregateByDay(userId)))
+            .onSuccess(series -> {
+                dailySeries = series;
+                bindTrend();
+            })
+            .onFailure(e -> {
+                System.err.println("Error loading daily trend: " + e.getMessage());
+                JOptionPane.showMessageDialog(this, 
+                    "Error loading daily trend: " + e.getMessage(), 
+                    "Database Error", 
+                    JOptionPane.ERROR_MESSAGE);
+            });
+        
+        busyIndicator.track(trendWorker, "Loading trend...").start();
+    }
+
+    /**
+     * Update, add, remove and reorder category rows to match the breakdown
+     */
+    private void bindCategoryRows() {
+        List<CategoryTotal> breakdown = analytics.getCategoryBreakdown();
+        long totalExpenseCents = analytics.getTotalExpenseCents();
+        boolean layoutChanged = false;
+        
+        for (CategoryRow row : categoryRows.values()) {
+            row.bound = false;
+        }
+        // Categories come sorted by expense amount
+        int index = firstCategoryRow;
+        for (CategoryTotal total : breakdown) {
+            CategoryRow row = categoryRows.get(total.getCategoryId());
+            if (row == null) {
+                row = new CategoryRow(total.getCategory());
+                categoryRows.put(total.getCategoryId(), row);
+            }
+            row.bound = true;
+            row.setValue(total.getCents(), totalExpenseCents);
+            if (index >= categoryPanel.getComponentCount() || categoryPanel.getComponent(index) != row.container) {
+                // Adding a component already in the panel moves it
+                categoryPanel.add(row.container, index);
+                layoutChanged = true;
+            }
+            index++;
+        }
+        for (Iterator<CategoryRow> rows = categoryRows.values().iterator(); rows.hasNext(); ) {
+            CategoryRow row = rows.next();
+            if (!row.bound) {
+                categoryPanel.remove(row.container);
+                rows.remove();
+                layoutChanged = true;
+            }
+        }
+        
+        boolean empty = breakdown.isEmpty();
+        if (noCategoryLabel.isVisible() != empty) {
+            noCategoryLabel.setVisible(empty);
+            noCategorySpacer.setVisible(empty);
+            layoutChanged = true;
+        }
+        if (layoutChanged) {
+            categoryPanel.revalidate();
+            categoryPanel.repaint();
+        }
     }
 
     private JPanel createFinancialSummaryPanel() {
         JPanel panel = createModernCard("Financial Summary");
         panel.setLayout(new GridLayout(2, 3, 15, 15));
         
-        // Calculate additional metrics
-        double netSavings = totalIncome - totalExpenses;
-        double avgMonthlyExpense = monthlyExpenseData.isEmpty() ? 0 : 
-            totalExpenses / monthlyExpenseData.size();
-        double expenseRatio = totalIncome > 0 ? (totalExpenses / totalIncome) * 100 : 0;
-        
-        panel.add(createSummaryCard("Total Income", totalIncome, SUCCESS_COLOR, ""));
-        panel.add(createSummaryCard("Total Expenses", totalExpenses, DANGER_COLOR, ""));
-        panel.add(createSummaryCard("Current Balance", currentBalance, 
-            currentBalance >= 0 ? SUCCESS_COLOR : DANGER_COLOR, ""));
-        panel.add(createSummaryCard("Net Savings", netSavings,
-            netSavings >= 0 ? SUCCESS_COLOR : DANGER_COLOR, ""));
-        panel.add(createSummaryCard("Avg Monthly Expense", avgMonthlyExpense, WARNING_COLOR, ""));
-        panel.add(createSummaryCard("Expense Ratio", expenseRatio, INFO_COLOR, "%"));
+        incomeCard = new SummaryCard("Total Income");
+        expensesCard = new SummaryCard("Total Expenses");
+        balanceCard = new SummaryCard("Current Balance");
+        savingsCard = new SummaryCard("Net Savings");
+        averageExpenseCard = new SummaryCard("Avg Monthly Expense");
+        expenseRatioCard = new SummaryCard("Expense Ratio");
+        
+        panel.add(incomeCard.card);
+        panel.add(expensesCard.card);
+        panel.add(balanceCard.card);
+        panel.add(savingsCard.card);
+        panel.add(averageExpenseCard.card);
+        panel.add(expenseRatioCard.card);
         
         return panel;
     }
@@ -184,46 +332,63 @@ public class AnalyticsDashboard extends JFrame {
         JPanel panel = createModernCard("Expense Breakdown by Category");
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         
-        if (categoryExpenses.isEmpty()) {
-            JLabel noDataLabel = new JLabel("No expense data available");
-            noDataLabel.setFont(BODY_FONT);
-            noDataLabel.setForeground(TEXT_MUTED);
-            noDataLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            panel.add(Box.createVerticalStrut(50));
-            panel.add(noDataLabel);
-            return panel;
-        }
-        
-        // Sort categories by expense amount
-        List<Map.Entry<String, Double>> sortedCategories = new ArrayList<>(categoryExpenses.entrySet());
-        sortedCategories.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
-        
+        noCategoryLabel = new JLabel("No expense data available");
+        noCategoryLabel.setFont(BODY_FONT);
+        noCategoryLabel.setForeground(TEXT_MUTED);
+        noCategoryLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        noCategorySpacer = Box.createVerticalStrut(50);
+        panel.add(noCategorySpacer);
+        panel.add(noCategoryLabel);
         panel.add(Box.createVerticalStrut(10));
         
-        for (Map.Entry<String, Double> entry : sortedCategories) {
-            if (entry.getValue() > 0) {
-                panel.add(createCategoryProgressBar(entry.getKey(), entry.getValue()));
-                panel.add(Box.createVerticalStrut(12));
-            }
-        }
-        
+        // Category rows follow the fixed components
+        firstCategoryRow = panel.getComponentCount();
         return panel;
     }
 
     private JPanel createVisualChartsPanel() {
         JPanel panel = createModernCard("Visual Distribution");
-        panel.setLayout(new BorderLayout());
-        
-        if (categoryExpenses.isEmpty()) {
-            JLabel noDataLabel = new JLabel("No data to visualize");
-            noDataLabel.setFont(BODY_FONT);
-            noDataLabel.setForeground(TEXT_MUTED);
-            noDataLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            panel.add(noDataLabel, BorderLayout.CENTER);
-        } else {
-            PieChartPanel pieChart = new PieChartPanel(categoryExpenses);
-            panel.add(pieChart, BorderLayout.CENTER);
-        }
+        
+        JLabel noDataLabel = new JLabel("No data to visualize");
+        noDataLabel.setFont(BODY_FONT);
+        noDataLabel.setForeground(TEXT_MUTED);
+        noDataLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        
+        pieChart = new PieChartPanel(Collections.emptyList(), 0);
+        
+        chartCards = new JPanel(new CardLayout());
+        chartCards.setBackground(CARD_COLOR);
+        chartCards.add(noDataLabel, NO_DATA_CARD);
+        chartCards.add(pieChart, CHART_CARD);
+        panel.add(chartCards, BorderLayout.CENTER);
+        
+        return panel;
+    }
+
+    private JPanel createTrendPanel() {
+        JPanel panel = createModernCard("Income and Expense Trend");
+        
+        trendResolution = new JComboBox<>(TrendSeries.Resolution.values());
+        trendResolution.setSelectedItem(TrendSeries.Resolution.MONTH);
+        trendResolution.setFont(BODY_FONT);
+        trendResolution.addActionListener(e -> bindTrend());
+        
+        JLabel hintLabel = new JLabel("Scroll to zoom, drag to pan, double-click to show all");
+        hintLabel.setFont(SMALL_FONT);
+        hintLabel.setForeground(TEXT_MUTED);
+        
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        controls.setBackground(CARD_COLOR);
+        controls.add(trendResolution);
+        controls.add(hintLabel);
+        
+        trendChart = new MonthlyTrendPanel();
+        
+        JPanel content = new JPanel(new BorderLayout(0, 10));
+        content.setBackground(CARD_COLOR);
+        content.add(controls, BorderLayout.NORTH);
+        content.add(trendChart, BorderLayout.CENTER);
+        panel.add(content, BorderLayout.CENTER);
         
         return panel;
     }
@@ -246,74 +411,117 @@ public class AnalyticsDashboard extends JFrame {
         return card;
     }
 
-    private JPanel createSummaryCard(String title, double value, Color color, String suffix) {
-        JPanel card = new JPanel(new BorderLayout());
-        card.setBackground(CARD_COLOR);
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(color, 2),
-            new EmptyBorder(15, 15, 15, 15)
-        ));
-        
-        JLabel titleLabel = new JLabel(title);
-        titleLabel.setFont(SUBTITLE_FONT);
-        titleLabel.setForeground(TEXT_MUTED);
-        
-        String valueText;
-        if (suffix.equals("%")) {
-            valueText = String.format("%.1f%%", value);
-        } else {
-            valueText = currencyFormat.format(value);
+    /**
+     * Summary card whose value and color follow the bound analytics
+     */
+    private final class SummaryCard {
+        final JPanel card = new JPanel(new BorderLayout());
+        private final JLabel valueLabel = new JLabel();
+        // Cents, or tenths of a percent, currently shown
+        private long value = Long.MIN_VALUE;
+        private Color color;
+
+        SummaryCard(String title) {
+            card.setBackground(CARD_COLOR);
+            
+            JLabel titleLabel = new JLabel(title);
+            titleLabel.setFont(SUBTITLE_FONT);
+            titleLabel.setForeground(TEXT_MUTED);
+            
+            valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+            
+            card.add(titleLabel, BorderLayout.NORTH);
+            card.add(Box.createVerticalStrut(8), BorderLayout.CENTER);
+            card.add(valueLabel, BorderLayout.SOUTH);
+        }
+
+        void setAmount(long cents, Color color) {
+            if (cents != value) {
+                value = cents;
+                valueLabel.setText(Money.format(cents));
+            }
+            setColor(color);
+        }
+
+        void setPercent(double percent, Color color) {
+            long tenths = Math.round(percent * 10);
+            if (tenths != value) {
+                value = tenths;
+                valueLabel.setText(formatPercent(percent));
+            }
+            setColor(color);
+        }
+
+        private void setColor(Color color) {
+            if (!color.equals(this.color)) {
+                this.color = color;
+                valueLabel.setForeground(color);
+                card.setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(color, 2),
+                    new EmptyBorder(15, 15, 15, 15)
+                ));
+            }
         }
-        
-        JLabel valueLabel = new JLabel(valueText);
-        valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        valueLabel.setForeground(color);
-        
-        card.add(titleLabel, BorderLayout.NORTH);
-        card.add(Box.createVerticalStrut(8), BorderLayout.CENTER);
-        card.add(valueLabel, BorderLayout.SOUTH);
-        
-        return card;
     }
 
-    private JPanel createCategoryProgressBar(String category, double amount) {
-        JPanel container = new JPanel(new BorderLayout());
-        container.setBackground(CARD_COLOR);
-        container.setMaximumSize(new Dimension(Integer.MAX_VALUE, 45));
-        container.setBorder(new EmptyBorder(5, 0, 5, 0));
-        
-        // Top row with category name and amount
-        JPanel labelPanel = new JPanel(new BorderLayout());
-        labelPanel.setBackground(CARD_COLOR);
-        
-        JLabel categoryLabel = new JLabel(category);
-        categoryLabel.setFont(SUBTITLE_FONT);
-        categoryLabel.setForeground(TEXT_DARK);
-        
-        JLabel amountLabel = new JLabel(currencyFormat.format(amount));
-        amountLabel.setFont(SUBTITLE_FONT);
-        amountLabel.setForeground(DANGER_COLOR);
-        
-        labelPanel.add(categoryLabel, BorderLayout.WEST);
-        labelPanel.add(amountLabel, BorderLayout.EAST);
-        
-        // Progress bar
-        double percentage = totalExpenses > 0 ? (amount / totalExpenses) * 100 : 0;
-        JProgressBar progressBar = new JProgressBar(0, 100);
-        progressBar.setValue((int) percentage);
-        progressBar.setString(String.format("%.1f%%", percentage));
-        progressBar.setStringPainted(true);
-        progressBar.setBackground(new Color(248, 249, 250));
-        progressBar.setForeground(DANGER_COLOR);
-        progressBar.setBorderPainted(false);
-        progressBar.setPreferredSize(new Dimension(0, 20));
-        progressBar.setFont(SMALL_FONT);
-        
-        container.add(labelPanel, BorderLayout.NORTH);
-        container.add(Box.createVerticalStrut(5), BorderLayout.CENTER);
-        container.add(progressBar, BorderLayout.SOUTH);
-        
-        return container;
+    /**
+     * Name, amount and share bar of one expense category
+     */
+    private final class CategoryRow {
+        final JPanel container = new JPanel(new BorderLayout());
+        private final JLabel amountLabel = new JLabel();
+        private final JProgressBar progressBar = new JProgressBar(0, 100);
+        private long cents = -1;
+        private long totalExpenseCents = -1;
+        // Still in the breakdown being bound
+        boolean bound;
+
+        CategoryRow(String category) {
+            container.setBackground(CARD_COLOR);
+            // Bottom border includes the gap to the next row
+            container.setMaximumSize(new Dimension(Integer.MAX_VALUE, 57));
+            container.setBorder(new EmptyBorder(5, 0, 17, 0));
+            
+            // Top row with category name and amount
+            JPanel labelPanel = new JPanel(new BorderLayout());
+            labelPanel.setBackground(CARD_COLOR);
+            
+            JLabel categoryLabel = new JLabel(category);
+            categoryLabel.setFont(SUBTITLE_FONT);
+            categoryLabel.setForeground(TEXT_DARK);
+            
+            amountLabel.setFont(SUBTITLE_FONT);
+            amountLabel.setForeground(DANGER_COLOR);
+            
+            labelPanel.add(categoryLabel, BorderLayout.WEST);
+            labelPanel.add(amountLabel, BorderLayout.EAST);
+            
+            progressBar.setStringPainted(true);
+            progressBar.setBackground(new Color(248, 249, 250));
+            progressBar.setForeground(DANGER_COLOR);
+            progressBar.setBorderPainted(false);
+            progressBar.setPreferredSize(new Dimension(0, 20));
+            progressBar.setFont(SMALL_FONT);
+            
+            container.add(labelPanel, BorderLayout.NORTH);
+            container.add(Box.createVerticalStrut(5), BorderLayout.CENTER);
+            container.add(progressBar, BorderLayout.SOUTH);
+        }
+
+        void setValue(long cents, long totalExpenseCents) {
+            if (cents == this.cents && totalExpenseCents == this.totalExpenseCents) {
+                return;
+            }
+            if (cents != this.cents) {
+                amountLabel.setText(Money.format(cents));
+            }
+            this.cents = cents;
+            this.totalExpenseCents = totalExpenseCents;
+            
+            double percentage = totalExpenseCents > 0 ? (cents * 100.0) / totalExpenseCents : 0;
+            progressBar.setValue((int) percentage);
+            progressBar.setString(formatPercent(percentage));
+        }
     }
 
     private void styleModernButton(JButton button, Color backgroundColor) {
@@ -339,108 +547,192 @@ public class AnalyticsDashboard extends JFrame {
     }
 
     private void initializeData() {
-        categoryExpenses.clear();
-        monthlyIncomeData.clear();
-        monthlyExpenseData.clear();
-        totalIncome = 0;
-        totalExpenses = 0;
-        currentBalance = 0;
+        analytics = AnalyticsResult.EMPTY;
     }
 
-    private void loadAnalyticsData() {
-        try {
-            String query = "SELECT type, amount, category, DATE_FORMAT(transaction_date, '%Y-%m') as month " +
-                          "FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC";
-            
-            try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-                
-                stmt.setInt(1, currentUser.getId());
-                ResultSet rs = stmt.executeQuery();
-                
-                while (rs.next()) {
-                    String type = rs.getString("type");
-                    double amount = rs.getDouble("amount");
-                    String category = rs.getString("category");
-                    String month = rs.getString("month");
-                    
-                    if ("Income".equals(type)) {
-                        totalIncome += amount;
-                        monthlyIncomeData.put(month, monthlyIncomeData.getOrDefault(month, 0.0) + amount);
-                    } else if ("Expense".equals(type)) {
-                        totalExpenses += amount;
-                        categoryExpenses.put(category, categoryExpenses.getOrDefault(category, 0.0) + amount);
-                        monthlyExpenseData.put(month, monthlyExpenseData.getOrDefault(month, 0.0) + amount);
-                    }
-                }
-                
-                currentBalance = totalIncome - totalExpenses;
-                
+    /**
+     * Load analytics on the database executor and refresh the panels when done
+     * @param onLoaded Callback run on the EDT after the panels were refreshed
+     */
+    private void loadAnalyticsData(Runnable onLoaded) {
+        if (loadWorker != null) {
+            loadWorker.cancelQuery();
+        }
+        int userId = currentUser.getId();
+        
+        loadWorker = DbWorker.call(() -> queryAnalyticsData(userId))
+            .onSuccess(result -> {
+                analytics = result;
+                bindAnalytics();
+                onLoaded.run();
+            })
+            .onFailure(e -> {
+                System.err.println("Error loading analytics data: " + e.getMessage());
+                JOptionPane.showMessageDialog(this, 
+                    "Error loading analytics data: " + e.getMessage(), 
+                    "Database Error", 
+                    JOptionPane.ERROR_MESSAGE);
+            });
+        
+        busyIndicator.track(loadWorker, "Loading analytics...").start();
+    }
+
+    /**
+     * Runs on the database executor; must not touch Swing state.
+     * Reads the precomputed monthly rollups and aggregates them with the
+     * analytics engine, so the work scales with months x categories.
+     */
+    private static AnalyticsResult queryAnalyticsData(int userId) throws SQLException {
+        List<MonthlyRollup> rollups = new RollupDAO().findMonthlyRollups(userId);
+        return AnalyticsEngine.aggregate(TransactionColumns.ofRollups(rollups));
+    }
+
+    /**
+     * Recompute the analytics once per batch of changes to this user's
+     * transactions. The DAO has already applied them to the shared rollup
+     * cache, so this needs no database round trip.
+     */
+    private void applyChanges(List<TransactionEvent> events) {
+        for (TransactionEvent event : events) {
+            if (event.getUserId() == currentUser.getId()) {
+                dailySeries = null;
+                loadAnalyticsData(() -> {});
+                return;
             }
-        } catch (SQLException e) {
-            System.err.println("Error loading analytics data: " + e.getMessage());
-            JOptionPane.showMessageDialog(this, 
-                "Error loading analytics data: " + e.getMessage(), 
-                "Database Error", 
-                JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private void refreshAllPanels() {
-        SwingUtilities.invokeLater(() -> {
-            createAllPanels();
-            revalidate();
-            repaint();
-        });
+    @Override
+    public void dispose() {
+        TransactionEventBus.unsubscribe(transactionListener);
+        if (loadWorker != null) {
+            loadWorker.cancelQuery();
+        }
+        if (trendWorker != null) {
+            trendWorker.cancelQuery();
+        }
+        super.dispose();
     }
 
     private void refreshAnalytics() {
-        initializeData();
-        loadAnalyticsData();
-        refreshAllPanels();
-        
-        JOptionPane.showMessageDialog(this, 
-            "Analytics data refreshed successfully!", 
-            "Refresh Complete", 
-            JOptionPane.INFORMATION_MESSAGE);
+        dailySeries = null;
+        loadAnalyticsData(() -> 
+            JOptionPane.showMessageDialog(this, 
+                "Analytics data refreshed successfully!", 
+                "Refresh Complete", 
+                JOptionPane.INFORMATION_MESSAGE));
+    }
+
+    /**
+     * Format a percentage with one decimal, e.g. 12.5%
+     */
+    private static String formatPercent(double percent) {
+        StringBuilder text = new StringBuilder(8);
+        if (percent < 0) {
+            text.append('-');
+        }
+        return appendTenths(text, Math.abs(percent)).append('%').toString();
     }
 
-    // Custom Pie Chart Panel
-    private class PieChartPanel extends JPanel {
-        private Map<String, Double> data;
+    /**
+     * Append a non-negative value rounded to one decimal
+     */
+    private static StringBuilder appendTenths(StringBuilder text, double value) {
+        long tenths = Math.round(value * 10);
+        return text.append(tenths / 10).append('.').append((char) ('0' + tenths % 10));
+    }
+
+    /**
+     * Pie chart with legend, rendered into an offscreen image that is reused
+     * until the data, the panel size or the display scale changes, so moving
+     * or uncovering the window only blits the image.
+     */
+    static class PieChartPanel extends JPanel {
+        private List<CategoryTotal> data;
+        private double totalExpenses;
         private Color[] chartColors = {
             new Color(255, 99, 132), new Color(54, 162, 235), new Color(255, 205, 86),
             new Color(75, 192, 192), new Color(153, 102, 255), new Color(255, 159, 64),
             new Color(201, 203, 207), new Color(83, 102, 255), new Color(255, 99, 255),
             new Color(99, 255, 132)
         };
+        // Bumped whenever the data changes
+        private int dataVersion;
+        private BufferedImage cache;
+        private int cacheVersion = -1;
+        private double cacheScale;
 
-        public PieChartPanel(Map<String, Double> data) {
-            this.data = new HashMap<>(data);
+        PieChartPanel(List<CategoryTotal> data, long totalExpenseCents) {
+            this.data = data;
+            this.totalExpenses = totalExpenseCents / 100.0;
             setBackground(CARD_COLOR);
             setPreferredSize(new Dimension(300, 250));
         }
 
+        /**
+         * Show new totals, repainting only if they differ from the current ones
+         */
+        void setData(List<CategoryTotal> data, long totalExpenseCents) {
+            if (data.equals(this.data) && totalExpenseCents / 100.0 == totalExpenses) {
+                return;
+            }
+            this.data = data;
+            this.totalExpenses = totalExpenseCents / 100.0;
+            dataVersion++;
+            repaint();
+        }
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            if (data.isEmpty() || totalExpenses == 0) {
+            int width = getWidth();
+            int height = getHeight();
+            if (width <= 0 || height <= 0 || data.isEmpty() || totalExpenses == 0) {
                 return;
             }
 
-            int centerX = getWidth() / 2;
-            int centerY = getHeight() / 2 - 20;
-            int radius = Math.min(getWidth() - 40, getHeight() - 60) / 3;
+            // Render at device resolution so the image is not scaled up on HiDPI screens
+            Graphics2D g2d = (Graphics2D) g;
+            double scale = g2d.getTransform().getScaleX();
+            int imageWidth = (int) Math.ceil(width * scale);
+            int imageHeight = (int) Math.ceil(height * scale);
+            if (cache == null || cacheVersion != dataVersion || cacheScale != scale
+                    || cache.getWidth() != imageWidth || cache.getHeight() != imageHeight) {
+                if (cache == null || cache.getWidth() != imageWidth || cache.getHeight() != imageHeight) {
+                    cache = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+                }
+                Graphics2D imageGraphics = cache.createGraphics();
+                try {
+                    imageGraphics.setComposite(AlphaComposite.Clear);
+                    imageGraphics.fillRect(0, 0, imageWidth, imageHeight);
+                    imageGraphics.setComposite(AlphaComposite.SrcOver);
+                    imageGraphics.scale(scale, scale);
+                    render(imageGraphics, width, height);
+                } finally {
+                    imageGraphics.dispose();
+                }
+                cacheVersion = dataVersion;
+                cacheScale = scale;
+            }
+            g2d.drawImage(cache, 0, 0, width, height, null);
+        }
+
+        /**
+         * Draw the chart and legend for the given size, without caching
+         */
+        void render(Graphics2D g2d, int width, int height) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            int centerX = width / 2;
+            int centerY = height / 2 - 20;
+            int radius = Math.min(width - 40, height - 60) / 3;
 
             double startAngle = 0;
             int colorIndex = 0;
 
             // Draw pie slices
-            for (Map.Entry<String, Double> entry : data.entrySet()) {
-                double percentage = entry.getValue() / totalExpenses;
+            for (CategoryTotal entry : data) {
+                double percentage = entry.getCents() / 100.0 / totalExpenses;
                 double arcAngle = 360 * percentage;
 
                 g2d.setColor(chartColors[colorIndex % chartColors.length]);
@@ -459,8 +751,8 @@ public class AnalyticsDashboard extends JFrame {
             
             g2d.setFont(SMALL_FONT);
             
-            for (Map.Entry<String, Double> entry : data.entrySet()) {
-                double percentage = entry.getValue() / totalExpenses;
+            for (CategoryTotal entry : data) {
+                double percentage = entry.getCents() / 100.0 / totalExpenses;
                 
                 // Color box
                 g2d.setColor(chartColors[colorIndex % chartColors.length]);
@@ -468,18 +760,289 @@ public class AnalyticsDashboard extends JFrame {
                 
                 // Text
                 g2d.setColor(TEXT_DARK);
-                String legendText = String.format("%s (%.1f%%)", entry.getKey(), percentage * 100);
+                String legendText = entry.getCategory() + " (" + formatPercent(percentage * 100) + ")";
                 g2d.drawString(legendText, legendX + 18, legendY + 10);
                 
                 legendY += 18;
                 colorIndex++;
                 
                 // Wrap to next column if needed
-                if (legendY > getHeight() - 20) {
+                if (legendY > height - 20) {
                     legendY = centerY + radius + 30;
                     legendX += 150;
                 }
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Income, expense and running balance over time. Each line is reduced to
+     * about one point per horizontal pixel of the visible range, so long daily
+     * histories draw as fast as short ones. The mouse wheel zooms around the
+     * pointer, dragging pans and a double click shows the whole range.
+     */
+    static class MonthlyTrendPanel extends JPanel {
+        private static final int PLOT_LEFT = 80;
+        private static final int PLOT_RIGHT = 20;
+        private static final int PLOT_TOP = 35;
+        private static final int PLOT_BOTTOM = 35;
+        private static final double ZOOM_STEP = 1.15;
+        // Fewest buckets a zoomed view may show
+        private static final int MIN_VISIBLE = 4;
+        private static final Color INCOME_COLOR = SUCCESS_COLOR;
+        private static final Color EXPENSE_COLOR = DANGER_COLOR;
+        private static final Color BALANCE_COLOR = PRIMARY_COLOR;
+        private static final Color GRID_COLOR = new Color(233, 236, 239);
+        private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.US);
+        private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy", Locale.US);
+
+        private TrendSeries series = TrendSeries.EMPTY;
+        // Visible range in bucket indexes; the first bucket is at viewStart, the last at viewEnd
+        private double viewStart;
+        private double viewEnd;
+        private int dragX;
+        private double dragViewStart;
+
+        MonthlyTrendPanel() {
+            setBackground(CARD_COLOR);
+            setPreferredSize(new Dimension(600, 320));
+
+            MouseAdapter mouse = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    dragX = e.getX();
+                    dragViewStart = viewStart;
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    double bucketsPerPixel = (viewEnd - viewStart) / plotWidth();
+                    setView(dragViewStart - (e.getX() - dragX) * bucketsPerPixel,
+                            dragViewStart - (e.getX() - dragX) * bucketsPerPixel + (viewEnd - viewStart));
+                }
+
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        showAll();
+                    }
+                }
+
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    zoom(Math.pow(ZOOM_STEP, e.getPreciseWheelRotation()), e.getX());
+                }
+            };
+            addMouseListener(mouse);
+            addMouseMotionListener(mouse);
+            addMouseWheelListener(mouse);
+        }
+
+        /**
+         * Show a new series. The visible range is kept when the resolution
+         * is unchanged, so live updates do not reset the user's zoom.
+         */
+        void setSeries(TrendSeries series) {
+            TrendSeries previous = this.series;
+            this.series = series;
+            boolean wholeRange = viewStart <= 0 && viewEnd >= previous.size() - 1;
+            if (previous.getResolution() != series.getResolution() || previous.size() == 0 || wholeRange) {
+                showAll();
+            } else {
+                setView(viewStart, viewEnd);
+            }
+        }
+
+        private void showAll() {
+            viewStart = 0;
+            viewEnd = Math.max(series.size() - 1, 1);
+            repaint();
+        }
+
+        private void zoom(double factor, int pivotX) {
+            double width = viewEnd - viewStart;
+            double newWidth = Math.max(Math.min(width * factor, Math.max(series.size() - 1, 1)), MIN_VISIBLE - 1);
+            double pivot = viewStart + (pivotX - PLOT_LEFT) * width / plotWidth();
+            double newStart = pivot - (pivot - viewStart) * newWidth / width;
+            setView(newStart, newStart + newWidth);
+        }
+
+        /**
+         * Move the view, keeping its width and staying within the series
+         */
+        private void setView(double start, double end) {
+            double width = Math.min(end - start, Math.max(series.size() - 1, 1));
+            double last = Math.max(series.size() - 1, 1);
+            start = Math.max(0, Math.min(start, last - width));
+            viewStart = start;
+            viewEnd = start + width;
+            repaint();
+        }
+
+        private int plotWidth() {
+            return Math.max(1, getWidth() - PLOT_LEFT - PLOT_RIGHT);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setFont(SMALL_FONT);
+
+            if (series.size() == 0) {
+                g2d.setColor(TEXT_MUTED);
+                String text = "No data to visualize";
+                FontMetrics metrics = g2d.getFontMetrics();
+                g2d.drawString(text, (getWidth() - metrics.stringWidth(text)) / 2, getHeight() / 2);
+                return;
+            }
+
+            int plotWidth = plotWidth();
+            int plotHeight = Math.max(1, getHeight() - PLOT_TOP - PLOT_BOTTOM);
+            int from = Math.max(0, (int) Math.floor(viewStart));
+            int to = Math.min(series.size(), (int) Math.ceil(viewEnd) + 1);
+
+            // Vertical scale over the visible buckets of all lines, always including zero
+            long min = 0;
+            long max = 0;
+            for (TrendSeries.Line line : TrendSeries.Line.values()) {
+                long[] range = series.range(line, from, to);
+                min = Math.min(min, range[0]);
+                max = Math.max(max, range[1]);
+            }
+            // Round the scale out to whole grid steps
+            long step = gridStep(max - min);
+            min = Math.floorDiv(min, step) * step;
+            max = Math.max(min + step, -Math.floorDiv(-max, step) * step);
+
+            drawGrid(g2d, min, max, step, plotWidth, plotHeight);
+            drawTimeAxis(g2d, from, to, plotWidth, plotHeight);
+
+            Shape clip = g2d.getClip();
+            g2d.clipRect(PLOT_LEFT, PLOT_TOP - 2, plotWidth, plotHeight + 4);
+            g2d.setStroke(new BasicStroke(1.5f));
+            drawLine(g2d, TrendSeries.Line.INCOME, INCOME_COLOR, from, to, min, max, plotWidth, plotHeight);
+            drawLine(g2d, TrendSeries.Line.EXPENSE, EXPENSE_COLOR, from, to, min, max, plotWidth, plotHeight);
+            drawLine(g2d, TrendSeries.Line.BALANCE, BALANCE_COLOR, from, to, min, max, plotWidth, plotHeight);
+            g2d.setClip(clip);
+
+            drawLegend(g2d);
+        }
+
+        private void drawLine(Graphics2D g2d, TrendSeries.Line line, Color color, int from, int to,
+                              long min, long max, int plotWidth, int plotHeight) {
+            int[] points = series.downsample(line, from, to, plotWidth);
+            Path2D.Double path = new Path2D.Double();
+            for (int i = 0; i < points.length; i++) {
+                double x = xOf(points[i], plotWidth);
+                double y = yOf(series.get(line, points[i]), min, max, plotHeight);
+                if (i == 0) {
+                    path.moveTo(x, y);
+                } else {
+                    path.lineTo(x, y);
+                }
+            }
+            g2d.setColor(color);
+            g2d.draw(path);
+        }
+
+        private void drawGrid(Graphics2D g2d, long min, long max, long step, int plotWidth, int plotHeight) {
+            FontMetrics metrics = g2d.getFontMetrics();
+            for (long cents = min; cents <= max; cents += step) {
+                int y = (int) Math.round(yOf(cents, min, max, plotHeight));
+                g2d.setColor(GRID_COLOR);
+                g2d.drawLine(PLOT_LEFT, y, PLOT_LEFT + plotWidth, y);
+                g2d.setColor(TEXT_MUTED);
+                String label = formatAmount(cents);
+                g2d.drawString(label, PLOT_LEFT - 8 - metrics.stringWidth(label), y + metrics.getAscent() / 2 - 1);
+            }
+            if (min < 0) {
+                int zero = (int) Math.round(yOf(0, min, max, plotHeight));
+                g2d.setColor(TEXT_MUTED);
+                g2d.drawLine(PLOT_LEFT, zero, PLOT_LEFT + plotWidth, zero);
+            }
+        }
+
+        private void drawTimeAxis(Graphics2D g2d, int from, int to, int plotWidth, int plotHeight) {
+            FontMetrics metrics = g2d.getFontMetrics();
+            DateTimeFormatter format = series.getResolution() == TrendSeries.Resolution.MONTH ? MONTH_FORMAT : DAY_FORMAT;
+            int labels = Math.max(1, plotWidth / 110);
+            int step = Math.max(1, (int) Math.ceil((to - from) / (double) labels));
+            int baseline = PLOT_TOP + plotHeight + metrics.getAscent() + 8;
+            g2d.setColor(TEXT_MUTED);
+            // Align labels to multiples of the step so they do not jitter while panning
+            for (int i = (from + step - 1) / step * step; i < to; i += step) {
+                double x = xOf(i, plotWidth);
+                if (x < PLOT_LEFT || x > PLOT_LEFT + plotWidth) {
+                    continue;
+                }
+                String label = LocalDate.ofEpochDay(series.getStartEpochDay(i)).format(format);
+                g2d.drawLine((int) x, PLOT_TOP + plotHeight, (int) x, PLOT_TOP + plotHeight + 4);
+                g2d.drawString(label, (int) x - metrics.stringWidth(label) / 2, baseline);
+            }
+        }
+
+        private void drawLegend(Graphics2D g2d) {
+            int x = PLOT_LEFT;
+            int y = 10;
+            String[] names = {"Income", "Expenses", "Balance"};
+            Color[] colors = {INCOME_COLOR, EXPENSE_COLOR, BALANCE_COLOR};
+            FontMetrics metrics = g2d.getFontMetrics();
+            for (int i = 0; i < names.length; i++) {
+                g2d.setColor(colors[i]);
+                g2d.fillRect(x, y, 12, 12);
+                g2d.setColor(TEXT_DARK);
+                g2d.drawString(names[i], x + 18, y + 10);
+                x += 18 + metrics.stringWidth(names[i]) + 20;
+            }
+        }
+
+        /**
+         * Grid spacing of 1, 2 or 5 times a power of ten giving about five lines over a span
+         */
+        private static long gridStep(long spanCents) {
+            long rough = Math.max(1, spanCents / 5);
+            long magnitude = 1;
+            while (magnitude * 10 <= rough) {
+                magnitude *= 10;
+            }
+            if (rough <= magnitude) {
+                return magnitude;
+            } else if (rough <= 2 * magnitude) {
+                return 2 * magnitude;
+            } else if (rough <= 5 * magnitude) {
+                return 5 * magnitude;
+            }
+            return 10 * magnitude;
+        }
+
+        private double xOf(double index, int plotWidth) {
+            return PLOT_LEFT + (index - viewStart) * plotWidth / (viewEnd - viewStart);
+        }
+
+        private double yOf(long cents, long min, long max, int plotHeight) {
+            return PLOT_TOP + plotHeight - (double) (cents - min) * plotHeight / (max - min);
+        }
+
+        /**
+         * Compact axis label such as $950, $12.5k or -$1.2M
+         */
+        private static String formatAmount(long cents) {
+            StringBuilder text = new StringBuilder(12);
+            if (cents < 0) {
+                text.append('-');
+            }
+            text.append('$');
+            double dollars = Math.abs(cents) / 100.0;
+            if (dollars >= 1_000_000) {
+                appendTenths(text, dollars / 1_000_000).append('M');
+            } else if (dollars >= 1_000) {
+                appendTenths(text, dollars / 1_000).append('k');
+            } else {
+                text.append(Math.round(dollars));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.moneymanager.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small progress strip shown while background database work is running.
+ * Lets the user cancel every query it is tracking.
+ */
+public class BusyIndicator extends JPanel {
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel messageLabel = new JLabel();
+    private final JButton cancelButton = new JButton("Cancel");
+    private final Map<DbWorker<?, ?>, String> running = new LinkedHashMap<>();
+
+    public BusyIndicator(Color background) {
+        super(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        setBackground(background);
+        setOpaque(false);
+
+        progressBar.setIndeterminate(true);
+        progressBar.setPreferredSize(new Dimension(120, 12));
+        messageLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        cancelButton.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        cancelButton.setFocusPainted(false);
+        cancelButton.addActionListener(e -> cancelAll());
+
+        add(messageLabel);
+        add(progressBar);
+        add(cancelButton);
+        setVisible(false);
+    }
+
+    /**
+     * Show progress until the worker finishes. Must be called on the EDT.
+     * @param worker Worker to track
+     * @param message Text shown next to the progress bar
+     * @return the same worker, for chaining
+     */
+    public <W extends DbWorker<?, ?>> W track(W worker, String message) {
+        running.put(worker, message);
+        worker.addPropertyChangeListener(evt -> {
+            if ("state".equals(evt.getPropertyName()) && evt.getNewValue() == SwingWorker.StateValue.DONE) {
+                running.remove(worker);
+                refresh();
+            }
+        });
+        if (worker.isDone()) {
+            running.remove(worker);
+        }
+        refresh();
+        return worker;
+    }
+
+    /**
+     * Change the message shown for a tracked worker, e.g. to report its progress.
+     * Must be called on the EDT.
+     */
+    public void update(DbWorker<?, ?> worker, String message) {
+        if (running.containsKey(worker)) {
+            running.put(worker, message);
+            refresh();
+        }
+    }
+
+    private void cancelAll() {
+        for (DbWorker<?, ?> worker : running.keySet().toArray(new DbWorker<?, ?>[0])) {
+            worker.cancelQuery();
+        }
+    }
+
+    private void refresh() {
+        if (running.isEmpty()) {
+            setVisible(false);
+        } else {
+            String message = null;
+            for (String m : running.values()) {
+                message = m;
+            }
+            messageLabel.setText(message);
+            setVisible(true);
+        }
+        revalidate();
+        repaint();
+    }
+}
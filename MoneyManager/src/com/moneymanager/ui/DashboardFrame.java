@@ -1,14 +1,18 @@
 package com.moneymanager.ui;
 
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
 import com.moneymanager.model.User;
-import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.TransactionDAO;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.*;
+import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -17,6 +21,7 @@ import java.util.Date;
  */
 public class DashboardFrame extends JFrame {
     private User currentUser;
+    private TransactionDAO transactionDAO = new TransactionDAO();
     private JLabel welcomeLabel;
     private JLabel balanceLabel;
     private JTable transactionTable;
@@ -62,10 +67,7 @@ public class DashboardFrame extends JFrame {
         amountField = new JTextField(10);
         descriptionField = new JTextField(20);
         typeComboBox = new JComboBox<>(new String[]{"Income", "Expense"});
-        categoryComboBox = new JComboBox<>(new String[]{
-            "Food", "Transportation", "Entertainment", "Utilities", 
-            "Healthcare", "Shopping", "Salary", "Investment", "Other"
-        });
+        categoryComboBox = new JComboBox<>(Category.DEFAULT_NAMES);
     }
     
     private void setupLayout() {
@@ -154,34 +156,22 @@ public class DashboardFrame extends JFrame {
         }
         
         try {
-            double amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
+            long amountCents = Money.parse(amountStr);
+            if (amountCents <= 0) {
                 JOptionPane.showMessageDialog(this, "Amount must be positive.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
             
             // Insert into database
-            String query = "INSERT INTO transactions (user_id, type, category, description, amount, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+            Transaction transaction = new Transaction(0, currentUser.getId(), System.currentTimeMillis(), amountCents,
+                TransactionType.fromDisplayName(type), Category.idOf(category), description);
             
-            try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-                
-                stmt.setInt(1, currentUser.getId());
-                stmt.setString(2, type);
-                stmt.setString(3, category);
-                stmt.setString(4, description);
-                stmt.setDouble(5, amount);
-                stmt.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
-                
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected > 0) {
-                    JOptionPane.showMessageDialog(this, "Transaction added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    clearInputFields();
-                    loadTransactions();
-                    updateBalance();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to add transaction.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
+            try {
+                transactionDAO.insert(transaction);
+                JOptionPane.showMessageDialog(this, "Transaction added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                clearInputFields();
+                loadTransactions();
+                updateBalance();
                 
             } catch (SQLException e) {
                 JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -212,23 +202,16 @@ public class DashboardFrame extends JFrame {
     private void loadTransactions() {
         tableModel.setRowCount(0);
         
-        String query = "SELECT * FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, currentUser.getId());
-            ResultSet rs = stmt.executeQuery();
-            
+        try {
             SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
             
-            while (rs.next()) {
+            for (Transaction transaction : transactionDAO.findByUser(currentUser.getId())) {
                 Object[] row = {
-                    dateFormat.format(rs.getTimestamp("transaction_date")),
-                    rs.getString("type"),
-                    rs.getString("category"),
-                    rs.getString("description"),
-                    String.format("$%.2f", rs.getDouble("amount"))
+                    dateFormat.format(new Date(transaction.getDateMillis())),
+                    transaction.getType().getDisplayName(),
+                    transaction.getCategory(),
+                    transaction.getDescription(),
+                    Money.format(transaction.getAmountCents())
                 };
                 tableModel.addRow(row);
             }
@@ -240,27 +223,15 @@ public class DashboardFrame extends JFrame {
     }
     
     private void updateBalance() {
-        String query = "SELECT " +
-                      "SUM(CASE WHEN type = 'Income' THEN amount ELSE 0 END) - " +
-                      "SUM(CASE WHEN type = 'Expense' THEN amount ELSE 0 END) as balance " +
-                      "FROM transactions WHERE user_id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, currentUser.getId());
-            ResultSet rs = stmt.executeQuery();
+        try {
+            long balanceCents = transactionDAO.getBalanceCents(currentUser.getId());
+            balanceLabel.setText("Current Balance: " + Money.format(balanceCents));
             
-            if (rs.next()) {
-                double balance = rs.getDouble("balance");
-                balanceLabel.setText(String.format("Current Balance: $%.2f", balance));
-                
-                // Change color based on balance
-                if (balance >= 0) {
-                    balanceLabel.setForeground(new Color(0, 128, 0)); // Green
-                } else {
-                    balanceLabel.setForeground(new Color(255, 0, 0)); // Red
-                }
+            // Change color based on balance
+            if (balanceCents >= 0) {
+                balanceLabel.setForeground(new Color(0, 128, 0)); // Green
+            } else {
+                balanceLabel.setForeground(new Color(255, 0, 0)); // Red
             }
             
         } catch (SQLException e) {
@@ -0,0 +1,121 @@
+package com.moneymanager.ui;
+
+import com.moneymanager.dao.DbExecutor;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * SwingWorker that runs database work on the {@link DbExecutor} and delivers
+ * results, streamed chunks and errors back on the Event Dispatch Thread.
+ *
+ * @param <T> Result type
+ * @param <V> Type of intermediate chunks published while the query runs
+ */
+public class DbWorker<T, V> extends SwingWorker<T, V> {
+
+    /**
+     * Database work to run off the EDT
+     */
+    public interface Query<T, V> {
+        T run(Consumer<V> publisher) throws Exception;
+    }
+
+    /**
+     * Database work that does not publish intermediate results
+     */
+    public interface SimpleQuery<T> {
+        T run() throws Exception;
+    }
+
+    private final Query<T, V> query;
+    private final DbExecutor.Cancellation cancellation = new DbExecutor.Cancellation();
+    private Consumer<T> onSuccess = result -> {};
+    private Consumer<List<V>> onChunk = chunk -> {};
+    private Consumer<Exception> onFailure = e -> System.err.println("Database task failed: " + e.getMessage());
+
+    public DbWorker(Query<T, V> query) {
+        this.query = query;
+    }
+
+    /**
+     * Create a worker for work that only produces a final result
+     */
+    public static <T> DbWorker<T, Void> call(SimpleQuery<T> query) {
+        return new DbWorker<>(publisher -> query.run());
+    }
+
+    public DbWorker<T, V> onSuccess(Consumer<T> onSuccess) {
+        this.onSuccess = onSuccess;
+        return this;
+    }
+
+    public DbWorker<T, V> onChunk(Consumer<List<V>> onChunk) {
+        this.onChunk = onChunk;
+        return this;
+    }
+
+    public DbWorker<T, V> onFailure(Consumer<Exception> onFailure) {
+        this.onFailure = onFailure;
+        return this;
+    }
+
+    /**
+     * Queue this worker on the database executor
+     * @return this worker
+     */
+    public DbWorker<T, V> start() {
+        try {
+            DbExecutor.execute(this);
+        } catch (RejectedExecutionException e) {
+            cancel(false);
+            onFailure.accept(new Exception("The database is busy, please try again.", e));
+        }
+        return this;
+    }
+
+    /**
+     * Cancel the worker and abort any statement it is currently running
+     */
+    public void cancelQuery() {
+        cancellation.cancel();
+        cancel(true);
+    }
+
+    @Override
+    protected T doInBackground() throws Exception {
+        return DbExecutor.callWith(cancellation, () -> query.run(chunk -> {
+            if (!isCancelled()) {
+                publish(chunk);
+            }
+        }));
+    }
+
+    @Override
+    protected void process(List<V> chunks) {
+        if (!isCancelled()) {
+            onChunk.accept(chunks);
+        }
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            return;
+        }
+        try {
+            onSuccess.accept(get());
+        } catch (CancellationException e) {
+            // Cancelled between the check above and get()
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            onFailure.accept(cause instanceof Exception ? (Exception) cause : new Exception(cause));
+        }
+    }
+}
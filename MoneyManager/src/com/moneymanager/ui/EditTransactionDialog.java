@@ -1,13 +1,16 @@
 package com.moneymanager.ui;
 
-import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.*;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -16,7 +19,9 @@ import java.util.Date;
  * Dialog for editing existing transactions
  */
 public class EditTransactionDialog extends JDialog {
-    private int transactionId;
+    private final Transaction original;
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private Transaction updatedTransaction;
     private JTextField amountField;
     private JTextField descriptionField;
     private JComboBox<String> typeComboBox;
@@ -32,13 +37,12 @@ public class EditTransactionDialog extends JDialog {
     private static final Color CARD_COLOR = Color.WHITE;
     private static final Color DARK_COLOR = new Color(52, 58, 64);
     
-    public EditTransactionDialog(JFrame parent, int transactionId, String date, String type, 
-                                String category, String description, double amount) {
+    public EditTransactionDialog(JFrame parent, Transaction transaction) {
         super(parent, "Edit Transaction", true);
-        this.transactionId = transactionId;
+        this.original = transaction;
         
         initializeComponents();
-        populateFields(date, type, category, description, amount);
+        populateFields(transaction);
         setupLayout();
         setupEventHandlers();
         applyModernStyling();
@@ -52,20 +56,17 @@ public class EditTransactionDialog extends JDialog {
         amountField = new JTextField(15);
         descriptionField = new JTextField(20);
         typeComboBox = new JComboBox<>(new String[]{"Income", "Expense"});
-        categoryComboBox = new JComboBox<>(new String[]{
-            "Food", "Transportation", "Entertainment", "Utilities", 
-            "Healthcare", "Shopping", "Salary", "Investment", "Other"
-        });
+        categoryComboBox = new JComboBox<>(Category.DEFAULT_NAMES);
         dateField = new JTextField(15);
         dateField.setToolTipText("Format: MMM dd, yyyy (e.g., Oct 09, 2025)");
     }
     
-    private void populateFields(String date, String type, String category, String description, double amount) {
-        dateField.setText(date);
-        typeComboBox.setSelectedItem(type);
-        categoryComboBox.setSelectedItem(category);
-        descriptionField.setText(description);
-        amountField.setText(String.valueOf(amount));
+    private void populateFields(Transaction transaction) {
+        dateField.setText(new SimpleDateFormat("MMM dd, yyyy").format(new Date(transaction.getDateMillis())));
+        typeComboBox.setSelectedItem(transaction.getType().getDisplayName());
+        categoryComboBox.setSelectedItem(transaction.getCategory());
+        descriptionField.setText(transaction.getDescription());
+        amountField.setText(Money.formatPlain(transaction.getAmountCents()));
     }
     
     private void applyModernStyling() {
@@ -277,8 +278,8 @@ public class EditTransactionDialog extends JDialog {
         }
         
         try {
-            double amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
+            long amountCents = Money.parse(amountStr);
+            if (amountCents <= 0) {
                 JOptionPane.showMessageDialog(this, "Amount must be positive.", "Invalid Amount", JOptionPane.ERROR_MESSAGE);
                 return;
             }
@@ -294,31 +295,23 @@ public class EditTransactionDialog extends JDialog {
                 return;
             }
             
-            // Update database
-            String query = "UPDATE transactions SET type = ?, category = ?, description = ?, amount = ?, transaction_date = ? WHERE id = ?";
+            Transaction updated = new Transaction(original.getId(), original.getUserId(), parsedDate.getTime(), amountCents,
+                TransactionType.fromDisplayName(type), Category.idOf(category), description);
             
-            try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-                
-                stmt.setString(1, type);
-                stmt.setString(2, category);
-                stmt.setString(3, description);
-                stmt.setDouble(4, amount);
-                stmt.setTimestamp(5, new Timestamp(parsedDate.getTime()));
-                stmt.setInt(6, transactionId);
-                
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected > 0) {
-                    JOptionPane.showMessageDialog(this, "Transaction updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    transactionUpdated = true;
-                    dispose();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to update transaction.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
-                
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // Update database
+            DbWorker.call(() -> transactionDAO.update(updated))
+                .onSuccess(saved -> {
+                    if (saved) {
+                        JOptionPane.showMessageDialog(this, "Transaction updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                        transactionUpdated = true;
+                        updatedTransaction = updated;
+                        dispose();
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Failed to update transaction.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }).onFailure(e -> 
+                    JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE)
+                ).start();
             
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "Please enter a valid amount.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
@@ -328,4 +321,11 @@ public class EditTransactionDialog extends JDialog {
     public boolean isTransactionUpdated() {
         return transactionUpdated;
     }
+    
+    /**
+     * @return The saved transaction, or null if it was not updated
+     */
+    public Transaction getUpdatedTransaction() {
+        return updatedTransaction;
+    }
 }
\ No newline at end of file
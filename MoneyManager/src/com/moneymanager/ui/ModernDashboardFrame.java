@@ -1,31 +1,93 @@
 package com.moneymanager.ui;
 
+import com.moneymanager.model.Category;
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionQuery;
+import com.moneymanager.model.TransactionType;
 import com.moneymanager.model.User;
-import com.moneymanager.dao.DatabaseConnection;
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.event.TransactionEvent;
+import com.moneymanager.event.TransactionEventBus;
+import com.moneymanager.event.TransactionListener;
+import com.moneymanager.exporter.TransactionExporter;
+import com.moneymanager.importer.CsvImporter;
+import com.moneymanager.importer.ImportError;
+import com.moneymanager.importer.ImportProgress;
+import com.moneymanager.importer.ImportResult;
+import com.moneymanager.search.CategoryPredictor;
+import com.moneymanager.search.DescriptionIndex;
+import com.moneymanager.search.DescriptionSuggester;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.*;
-import java.text.SimpleDateFormat;
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 /**
  * Modern dashboard frame for money management
  */
 public class ModernDashboardFrame extends JFrame {
     private User currentUser;
+    private TransactionDAO transactionDAO;
     private JLabel welcomeLabel;
     private JLabel balanceLabel;
     private JTable transactionTable;
-    private DefaultTableModel tableModel;
+    private TransactionTableModel tableModel;
     private JTextField amountField;
     private JTextField descriptionField;
     private JComboBox<String> typeComboBox;
     private JComboBox<String> categoryComboBox;
+    // Filter bar above the table; the query runs in the database
+    private JComboBox<String> filterPeriodComboBox;
+    private JTextField filterFromField;
+    private JTextField filterToField;
+    private JComboBox<String> filterTypeComboBox;
+    private JComboBox<String> filterCategoryComboBox;
+    private JTextField filterMinAmountField;
+    private JTextField filterMaxAmountField;
+    private JTextField searchField;
+    private JLabel searchCountLabel;
+    // Built in the background on load, then kept current from the event bus
+    private final DescriptionIndex searchIndex = new DescriptionIndex();
+    // Quick entry: completions for the description and a guess of its category, built and kept like the search index
+    private final DescriptionSuggester descriptionSuggester = new DescriptionSuggester();
+    private final CategoryPredictor categoryPredictor = new CategoryPredictor();
+    private DbWorker<Long, Void> indexWorker;
+    private SuggestionPopup descriptionPopup;
+    // Set once the user picks a category, which the guess then leaves alone
+    private boolean categoryChosen;
+    // Set while the category is selected in code
+    private boolean predictingCategory;
+    private Timer filterTimer;
+    // Set while fields are filled in code, so their listeners do not query
+    private boolean updatingFilters;
+    private BusyIndicator busyIndicator;
+    private Timer reconcileTimer;
+    private final TransactionListener transactionListener = this::applyChanges;
+    // Balance as last read from the database plus local changes since
+    private long balanceCents;
+    // Running total of local changes, so a query that raced with them can have the newer ones re-applied
+    private long localDeltaCents;
+    
+    // Typing in a filter field waits this long for the next keystroke before querying
+    private static final int FILTER_DELAY_MS = 300;
+    // Searches with up to this many matches fetch them by id; more matches fill a page quickly with LIKE
+    private static final int SEARCH_ID_LIMIT = 1024;
+    private static final String[] PERIODS = {"Date range", "Last 7 days", "Last 30 days", "Last 90 days", "This month", "This year"};
+    
+    // How often the locally maintained balance is checked against the database
+    private static final int RECONCILE_INTERVAL_MS = Integer.getInteger("moneymanager.balance.reconcileMillis", 60_000);
     
     // Modern color scheme
     private static final Color PRIMARY_COLOR = new Color(64, 123, 255);
@@ -39,12 +101,18 @@ public class ModernDashboardFrame extends JFrame {
     
     public ModernDashboardFrame(User user) {
         this.currentUser = user;
+        this.transactionDAO = new TransactionDAO();
         initializeComponents();
         setupLayout();
         setupEventHandlers();
         applyModernStyling();
         loadTransactions();
         updateBalance();
+        buildIndexes();
+        
+        reconcileTimer = new Timer(RECONCILE_INTERVAL_MS, e -> reconcileBalance());
+        reconcileTimer.start();
+        TransactionEventBus.subscribe(transactionListener);
     }
     
     private void initializeComponents() {
@@ -56,15 +124,12 @@ public class ModernDashboardFrame extends JFrame {
         
         welcomeLabel = new JLabel("Welcome back, " + currentUser.getFullName() + "!");
         balanceLabel = new JLabel("$0.00");
+        busyIndicator = new BusyIndicator(CARD_COLOR);
         
-        // Transaction table
-        String[] columnNames = {"ID", "Date", "Type", "Category", "Description", "Amount"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Transaction table, loaded page by page as the user scrolls
+        tableModel = new TransactionTableModel(currentUser.getId(), busyIndicator, e -> 
+            JOptionPane.showMessageDialog(this, "Error loading transactions: " + e.getMessage(), 
+                                          "Database Error", JOptionPane.ERROR_MESSAGE));
         transactionTable = new JTable(tableModel);
         
         // Hide the ID column but keep it for reference
@@ -76,10 +141,28 @@ public class ModernDashboardFrame extends JFrame {
         amountField = new JTextField(15);
         descriptionField = new JTextField(20);
         typeComboBox = new JComboBox<>(new String[]{"Income", "Expense"});
-        categoryComboBox = new JComboBox<>(new String[]{
-            "Food", "Transportation", "Entertainment", "Utilities", 
-            "Healthcare", "Shopping", "Salary", "Investment", "Other"
-        });
+        categoryComboBox = new JComboBox<>(Category.DEFAULT_NAMES);
+        
+        // Filter fields
+        filterPeriodComboBox = new JComboBox<>(PERIODS);
+        filterFromField = new JTextField(8);
+        filterToField = new JTextField(8);
+        filterFromField.setToolTipText("From date, yyyy-mm-dd");
+        filterToField.setToolTipText("To date, yyyy-mm-dd, inclusive");
+        filterTypeComboBox = new JComboBox<>(new String[]{"All types", "Income", "Expense"});
+        String[] categories = new String[Category.DEFAULT_NAMES.length + 1];
+        categories[0] = "All categories";
+        System.arraycopy(Category.DEFAULT_NAMES, 0, categories, 1, Category.DEFAULT_NAMES.length);
+        filterCategoryComboBox = new JComboBox<>(categories);
+        filterMinAmountField = new JTextField(6);
+        filterMaxAmountField = new JTextField(6);
+        filterMinAmountField.setToolTipText("Smallest amount");
+        filterMaxAmountField.setToolTipText("Largest amount");
+        searchField = new JTextField(14);
+        searchField.setToolTipText("Description contains");
+        searchCountLabel = new JLabel();
+        filterTimer = new Timer(FILTER_DELAY_MS, e -> applyFilters());
+        filterTimer.setRepeats(false);
     }
     
     private void applyModernStyling() {
@@ -100,6 +183,15 @@ public class ModernDashboardFrame extends JFrame {
         styleComboBox(typeComboBox);
         styleComboBox(categoryComboBox);
         
+        // Style filter fields
+        for (JTextField field : new JTextField[]{filterFromField, filterToField, filterMinAmountField, 
+                                                 filterMaxAmountField, searchField}) {
+            styleTextField(field);
+        }
+        styleComboBox(filterPeriodComboBox);
+        styleComboBox(filterTypeComboBox);
+        styleComboBox(filterCategoryComboBox);
+        
         // Style table
         styleTable(transactionTable);
         
@@ -155,34 +247,8 @@ public class ModernDashboardFrame extends JFrame {
         table.getTableHeader().setForeground(DARK_COLOR);
         table.getTableHeader().setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
-        // Custom cell renderer for alternating row colors
-        table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value, 
-                    boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                
-                if (!isSelected) {
-                    if (row % 2 == 0) {
-                        c.setBackground(Color.WHITE);
-                    } else {
-                        c.setBackground(new Color(250, 250, 250));
-                    }
-                }
-                
-                // Style amount column based on transaction type
-                if (column == 1 && value != null) { // Type column
-                    if ("Income".equals(value.toString())) {
-                        setForeground(SUCCESS_COLOR);
-                    } else if ("Expense".equals(value.toString())) {
-                        setForeground(DANGER_COLOR);
-                    }
-                }
-                
-                setBorder(BorderFactory.createEmptyBorder(8, 12, 8, 12));
-                return c;
-            }
-        });
+        // Formats each column of the row's Transaction, with alternating row colors
+        table.setDefaultRenderer(Transaction.class, new TransactionCellRenderer(SUCCESS_COLOR, DANGER_COLOR));
     }
     
     private void stylePrimaryButton(JButton button) {
@@ -330,19 +396,22 @@ public class ModernDashboardFrame extends JFrame {
         balancePanel.add(balanceLabel);
         
         topPanel.add(welcomePanel, BorderLayout.WEST);
+        topPanel.add(busyIndicator, BorderLayout.CENTER);
         topPanel.add(balancePanel, BorderLayout.EAST);
         
         // Center panel with transactions table
         JPanel centerPanel = createCard();
         centerPanel.setLayout(new BorderLayout());
         centerPanel.setBorder(BorderFactory.createTitledBorder(
-            BorderFactory.createEmptyBorder(20, 25, 20, 25), "Recent Transactions",
+            BorderFactory.createEmptyBorder(20, 25, 20, 25), "Transactions",
             0, 0, new Font("Segoe UI", Font.BOLD, 16), DARK_COLOR
         ));
         
         JScrollPane scrollPane = new JScrollPane(transactionTable);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.getViewport().setBackground(Color.WHITE);
+        scrollPane.getViewport().addChangeListener(e -> updateVisibleRows());
+        centerPanel.add(createFilterPanel(), BorderLayout.NORTH);
         centerPanel.add(scrollPane, BorderLayout.CENTER);
         
         // Bottom panel with input form
@@ -370,18 +439,24 @@ public class ModernDashboardFrame extends JFrame {
         JButton addButton = new JButton("Add Transaction");
         JButton editButton = new JButton("Edit Transaction");
         JButton deleteButton = new JButton("Delete Selected");
+        JButton importButton = new JButton("Import CSV");
+        JButton exportButton = new JButton("Export");
         JButton analyticsButton = new JButton("Analytics");
         JButton logoutButton = new JButton("Logout");
         
         stylePrimaryButton(addButton);
         styleWarningButton(editButton);
         styleDangerButton(deleteButton);
+        styleSecondaryButton(importButton);
+        styleSecondaryButton(exportButton);
         styleInfoButton(analyticsButton);
         styleSecondaryButton(logoutButton);
         
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
+        buttonPanel.add(importButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(analyticsButton);
         buttonPanel.add(logoutButton);
         
@@ -403,6 +478,8 @@ public class ModernDashboardFrame extends JFrame {
         addButton.addActionListener(e -> addTransaction());
         editButton.addActionListener(e -> editTransaction());
         deleteButton.addActionListener(e -> deleteTransaction());
+        importButton.addActionListener(e -> importTransactions());
+        exportButton.addActionListener(e -> exportTransactions());
         analyticsButton.addActionListener(e -> openAnalyticsDashboard());
         logoutButton.addActionListener(e -> logout());
     }
@@ -430,8 +507,331 @@ public class ModernDashboardFrame extends JFrame {
         gbc.fill = GridBagConstraints.NONE;
     }
     
+    private JPanel createFilterPanel() {
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        filterPanel.setBackground(CARD_COLOR);
+        filterPanel.setBorder(new EmptyBorder(0, 0, 10, 0));
+        
+        JButton clearButton = new JButton("Clear");
+        styleSecondaryButton(clearButton);
+        clearButton.addActionListener(e -> clearFilters());
+        
+        filterPanel.add(filterPeriodComboBox);
+        filterPanel.add(filterFromField);
+        filterPanel.add(new JLabel("to"));
+        filterPanel.add(filterToField);
+        filterPanel.add(filterTypeComboBox);
+        filterPanel.add(filterCategoryComboBox);
+        filterPanel.add(new JLabel("Amount"));
+        filterPanel.add(filterMinAmountField);
+        filterPanel.add(new JLabel("to"));
+        filterPanel.add(filterMaxAmountField);
+        filterPanel.add(new JLabel("Search"));
+        filterPanel.add(searchField);
+        filterPanel.add(searchCountLabel);
+        filterPanel.add(clearButton);
+        return filterPanel;
+    }
+    
     private void setupEventHandlers() {
-        // Additional event handlers can be added here
+        // Filters: lists apply at once, typed text after a short pause
+        filterPeriodComboBox.addActionListener(e -> selectPeriod());
+        filterTypeComboBox.addActionListener(e -> applyFilters());
+        filterCategoryComboBox.addActionListener(e -> applyFilters());
+        DocumentListener restartFilterTimer = new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { filterFieldChanged(); }
+            public void removeUpdate(DocumentEvent e) { filterFieldChanged(); }
+            public void changedUpdate(DocumentEvent e) { filterFieldChanged(); }
+        };
+        for (JTextField field : new JTextField[]{filterFromField, filterToField, filterMinAmountField, 
+                                                 filterMaxAmountField, searchField}) {
+            field.getDocument().addDocumentListener(restartFilterTimer);
+        }
+        // The match count comes from the search index on every keystroke
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { updateSearchCount(); }
+            public void removeUpdate(DocumentEvent e) { updateSearchCount(); }
+            public void changedUpdate(DocumentEvent e) { updateSearchCount(); }
+        });
+        
+        // Clicking a column header sorts by it in the database; clicking again reverses the order
+        transactionTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = transactionTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    sortBy(transactionTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
+        updateSortIndicators();
+        
+        // Quick entry: complete the description from past ones and guess its category
+        descriptionPopup = new SuggestionPopup(descriptionField, descriptionSuggester::suggest, 
+                                               description -> descriptionField.transferFocus());
+        descriptionField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { predictCategory(); }
+            public void removeUpdate(DocumentEvent e) { predictCategory(); }
+            public void changedUpdate(DocumentEvent e) { predictCategory(); }
+        });
+        typeComboBox.addActionListener(e -> predictCategory());
+        categoryComboBox.addActionListener(e -> {
+            if (!predictingCategory) {
+                categoryChosen = true;
+            }
+        });
+    }
+    
+    /**
+     * Preselect the category most likely for the description and type, until
+     * the user picks one
+     */
+    private void predictCategory() {
+        if (categoryChosen) {
+            return;
+        }
+        String category = categoryPredictor.predict(descriptionField.getText(), 
+            TransactionType.fromDisplayName((String) typeComboBox.getSelectedItem()));
+        if (category != null && !category.equals(categoryComboBox.getSelectedItem())
+            && ((DefaultComboBoxModel<String>) categoryComboBox.getModel()).getIndexOf(category) >= 0) {
+            predictingCategory = true;
+            try {
+                categoryComboBox.setSelectedItem(category);
+            } finally {
+                predictingCategory = false;
+            }
+        }
+    }
+    
+    private void filterFieldChanged() {
+        if (updatingFilters) {
+            return;
+        }
+        // Typed dates replace the chosen period
+        updatingFilters = true;
+        try {
+            filterPeriodComboBox.setSelectedIndex(0);
+        } finally {
+            updatingFilters = false;
+        }
+        filterTimer.restart();
+    }
+    
+    /**
+     * Fill the date fields from the chosen period and query at once
+     */
+    private void selectPeriod() {
+        if (updatingFilters || filterPeriodComboBox.getSelectedIndex() == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from;
+        switch (filterPeriodComboBox.getSelectedIndex()) {
+            case 1: from = today.minusDays(6); break;
+            case 2: from = today.minusDays(29); break;
+            case 3: from = today.minusDays(89); break;
+            case 4: from = today.withDayOfMonth(1); break;
+            default: from = today.withDayOfYear(1); break;
+        }
+        updatingFilters = true;
+        try {
+            filterFromField.setText(from.toString());
+            filterToField.setText(today.toString());
+        } finally {
+            updatingFilters = false;
+        }
+        applyFilters();
+    }
+    
+    private void clearFilters() {
+        updatingFilters = true;
+        try {
+            filterPeriodComboBox.setSelectedIndex(0);
+            filterFromField.setText("");
+            filterToField.setText("");
+            filterTypeComboBox.setSelectedIndex(0);
+            filterCategoryComboBox.setSelectedIndex(0);
+            filterMinAmountField.setText("");
+            filterMaxAmountField.setText("");
+            searchField.setText("");
+        } finally {
+            updatingFilters = false;
+        }
+        applyFilters();
+    }
+    
+    /**
+     * Query the table with the current filter fields, keeping the sort order.
+     * Fields that do not parse are shown in red and leave the table as it is.
+     */
+    private void applyFilters() {
+        if (updatingFilters) {
+            return;
+        }
+        filterTimer.stop();
+        TransactionQuery current = tableModel.getQuery();
+        TransactionQuery query = current.withoutFilters();
+        boolean valid = true;
+        
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate from = parseDateField(filterFromField);
+        LocalDate to = parseDateField(filterToField);
+        valid &= from != null || filterFromField.getText().trim().isEmpty();
+        valid &= to != null || filterToField.getText().trim().isEmpty();
+        query = query.withDateRange(
+            from == null ? Long.MIN_VALUE : from.atStartOfDay(zone).toInstant().toEpochMilli(),
+            to == null ? Long.MAX_VALUE : to.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+        
+        if (filterTypeComboBox.getSelectedIndex() > 0) {
+            query = query.withType(TransactionType.fromDisplayName((String) filterTypeComboBox.getSelectedItem()));
+        }
+        if (filterCategoryComboBox.getSelectedIndex() > 0) {
+            query = query.withCategory((String) filterCategoryComboBox.getSelectedItem());
+        }
+        
+        long[] minCents = {Long.MIN_VALUE};
+        long[] maxCents = {Long.MAX_VALUE};
+        valid &= parseAmountField(filterMinAmountField, minCents);
+        valid &= parseAmountField(filterMaxAmountField, maxCents);
+        query = query.withAmountRange(minCents[0], maxCents[0]);
+        
+        query = withSearch(query, searchField.getText().trim());
+        
+        if (valid) {
+            setQuery(query);
+        }
+    }
+    
+    /**
+     * Add the description search to a query. Once the search index is built,
+     * the ids of a few matches are handed to the database, which then reads
+     * them by primary key instead of scanning descriptions with LIKE.
+     */
+    private TransactionQuery withSearch(TransactionQuery query, String text) {
+        if (text.isEmpty()) {
+            return query.withText(null);
+        }
+        if (!searchIndex.isReady()) {
+            return query.withText(text);
+        }
+        return query.withText(text, searchIndex.search(text, SEARCH_ID_LIMIT).getIds());
+    }
+    
+    private void updateSearchCount() {
+        String text = searchField.getText().trim();
+        if (text.isEmpty()) {
+            searchCountLabel.setText("");
+        } else if (!searchIndex.isReady()) {
+            searchCountLabel.setText("Indexing...");
+        } else {
+            DescriptionIndex.Result result = searchIndex.search(text, SEARCH_ID_LIMIT);
+            int count = result.getCount();
+            if (result.hasMore()) {
+                searchCountLabel.setText(String.format("Over %,d matches", SEARCH_ID_LIMIT));
+            } else {
+                searchCountLabel.setText(String.format("%,d %s", count, count == 1 ? "match" : "matches"));
+            }
+        }
+    }
+    
+    /**
+     * Build the search index, description completions and category guesses
+     * from the user's history in one background pass. Changes that arrive
+     * meanwhile are applied at once and win over the build's copy.
+     */
+    private void buildIndexes() {
+        if (indexWorker != null) {
+            indexWorker.cancelQuery();
+        }
+        int userId = currentUser.getId();
+        int build = searchIndex.beginBuild();
+        int suggesterBuild = descriptionSuggester.beginBuild();
+        int predictorBuild = categoryPredictor.beginBuild();
+        DbWorker<Long, Void> worker = DbWorker.call(() -> transactionDAO.streamByUser(userId, 5000, transaction -> {
+            searchIndex.addFromBuild(build, transaction.getId(), transaction.getDescription());
+            descriptionSuggester.addFromBuild(suggesterBuild, transaction);
+            categoryPredictor.addFromBuild(predictorBuild, transaction);
+        }));
+        worker.onSuccess(rows -> {
+            searchIndex.endBuild(build);
+            descriptionSuggester.endBuild(suggesterBuild);
+            categoryPredictor.endBuild(predictorBuild);
+            updateSearchCount();
+        }).onFailure(e -> System.err.println("Error building the search index: " + e.getMessage()));
+        indexWorker = worker;
+        worker.start();
+    }
+    
+    /**
+     * @return The date in the field, or null if it is empty or invalid
+     */
+    private LocalDate parseDateField(JTextField field) {
+        String text = field.getText().trim();
+        LocalDate date = null;
+        if (!text.isEmpty()) {
+            try {
+                date = LocalDate.parse(text);
+            } catch (DateTimeParseException e) {
+                // Shown in red below
+            }
+        }
+        field.setForeground(text.isEmpty() || date != null ? DARK_COLOR : DANGER_COLOR);
+        return date;
+    }
+    
+    /**
+     * Parse an amount field into cents[0], leaving it unchanged if the field is empty
+     * @return false if the field holds something other than an amount
+     */
+    private boolean parseAmountField(JTextField field, long[] cents) {
+        String text = field.getText().trim();
+        boolean valid = true;
+        if (!text.isEmpty()) {
+            try {
+                cents[0] = Money.parse(text);
+            } catch (NumberFormatException e) {
+                valid = false;
+            }
+        }
+        field.setForeground(valid ? DARK_COLOR : DANGER_COLOR);
+        return valid;
+    }
+    
+    /**
+     * Sort by a model column. Dates and amounts start with the largest value,
+     * text columns alphabetically.
+     */
+    private void sortBy(int modelColumn) {
+        TransactionQuery current = tableModel.getQuery();
+        TransactionQuery.SortColumn column = TransactionQuery.SortColumn.values()[modelColumn];
+        boolean ascending;
+        if (column == current.getSortColumn()) {
+            ascending = !current.isAscending();
+        } else {
+            ascending = column != TransactionQuery.SortColumn.DATE && column != TransactionQuery.SortColumn.AMOUNT
+                        && column != TransactionQuery.SortColumn.ID;
+        }
+        setQuery(current.sortedBy(column, ascending));
+        updateSortIndicators();
+    }
+    
+    private void setQuery(TransactionQuery query) {
+        tableModel.setQuery(query);
+        transactionTable.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+    }
+    
+    private void updateSortIndicators() {
+        TransactionQuery query = tableModel.getQuery();
+        javax.swing.table.TableColumnModel columns = transactionTable.getColumnModel();
+        for (int i = 0; i < columns.getColumnCount(); i++) {
+            int modelColumn = columns.getColumn(i).getModelIndex();
+            String name = tableModel.getColumnName(modelColumn);
+            if (modelColumn == query.getSortColumn().ordinal()) {
+                name += query.isAscending() ? " \u25B2" : " \u25BC";
+            }
+            columns.getColumn(i).setHeaderValue(name);
+        }
+        transactionTable.getTableHeader().repaint();
     }
     
     // Rest of the methods remain the same as the original DashboardFrame
@@ -449,37 +849,23 @@ public class ModernDashboardFrame extends JFrame {
         }
         
         try {
-            double amount = Double.parseDouble(amountStr);
-            if (amount <= 0) {
+            long amountCents = Money.parse(amountStr);
+            if (amountCents <= 0) {
                 JOptionPane.showMessageDialog(this, "Amount must be positive.", "Invalid Amount", JOptionPane.ERROR_MESSAGE);
                 return;
             }
             
-            String query = "INSERT INTO transactions (user_id, type, category, description, amount, transaction_date) VALUES (?, ?, ?, ?, ?, ?)";
+            Transaction transaction = new Transaction(0, currentUser.getId(), System.currentTimeMillis(), amountCents,
+                TransactionType.fromDisplayName(type), Category.idOf(category), description);
             
-            try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-                
-                stmt.setInt(1, currentUser.getId());
-                stmt.setString(2, type);
-                stmt.setString(3, category);
-                stmt.setString(4, description);
-                stmt.setDouble(5, amount);
-                stmt.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
-                
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected > 0) {
+            DbWorker<Transaction, Void> worker = DbWorker.call(() -> transactionDAO.insert(transaction))
+                .onSuccess(inserted -> {
                     JOptionPane.showMessageDialog(this, "Transaction added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                     clearInputFields();
-                    loadTransactions();
-                    updateBalance();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Failed to add transaction.", "Error", JOptionPane.ERROR_MESSAGE);
-                }
-                
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                }).onFailure(e -> 
+                    JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+            
+            busyIndicator.track(worker, "Saving transaction...").start();
             
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "Please enter a valid amount.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
@@ -493,26 +879,14 @@ public class ModernDashboardFrame extends JFrame {
             return;
         }
         
-        // Get transaction data from the selected row
-        int transactionId = (Integer) tableModel.getValueAt(selectedRow, 0); // Hidden ID column
-        String date = (String) tableModel.getValueAt(selectedRow, 1);
-        String type = (String) tableModel.getValueAt(selectedRow, 2);
-        String category = (String) tableModel.getValueAt(selectedRow, 3);
-        String description = (String) tableModel.getValueAt(selectedRow, 4);
-        String amountStr = (String) tableModel.getValueAt(selectedRow, 5);
-        
-        // Remove $ and parse amount
-        double amount = Double.parseDouble(amountStr.replace("$", "").replace(",", ""));
+        Transaction transaction = tableModel.getTransactionAt(selectedRow);
+        if (transaction == null) {
+            return; // Row is still loading
+        }
         
-        // Create and show edit dialog
-        EditTransactionDialog dialog = new EditTransactionDialog(this, transactionId, date, type, category, description, amount);
+        // Create and show edit dialog; the saved change arrives through the event bus
+        EditTransactionDialog dialog = new EditTransactionDialog(this, transaction);
         dialog.setVisible(true);
-        
-        // Refresh the table if transaction was updated
-        if (dialog.isTransactionUpdated()) {
-            loadTransactions();
-            updateBalance();
-        }
     }
     
     private void deleteTransaction() {
@@ -525,98 +899,253 @@ public class ModernDashboardFrame extends JFrame {
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this transaction?", 
                                                    "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            // Get transaction ID from the selected row
-            int transactionId = (Integer) tableModel.getValueAt(selectedRow, 0); // Hidden ID column
-            
-            // Delete from database
-            String query = "DELETE FROM transactions WHERE id = ? AND user_id = ?";
+            Transaction transaction = tableModel.getTransactionAt(selectedRow);
+            if (transaction == null) {
+                return; // Row is still loading
+            }
             
-            try (Connection conn = DatabaseConnection.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-                
-                stmt.setInt(1, transactionId);
-                stmt.setInt(2, currentUser.getId());
-                
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected > 0) {
+            DbWorker<Boolean, Void> worker = DbWorker.call(
+                () -> transactionDAO.delete(currentUser.getId(), transaction.getId())
+            ).onSuccess(deleted -> {
+                if (deleted) {
                     JOptionPane.showMessageDialog(this, "Transaction deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadTransactions(); // Refresh the table
-                    updateBalance(); // Update balance
                 } else {
                     JOptionPane.showMessageDialog(this, "Failed to delete transaction.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-                
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }).onFailure(e -> 
+                JOptionPane.showMessageDialog(this, "Database error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+            
+            busyIndicator.track(worker, "Deleting transaction...").start();
+        }
+    }
+    
+    private void importTransactions() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Transactions");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files (date, type, category, description, amount)", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        Path file = chooser.getSelectedFile().toPath();
+        int userId = currentUser.getId();
+        CsvImporter importer = new CsvImporter(new CsvImporter.Config());
+        
+        DbWorker<ImportResult, ImportProgress> worker = new DbWorker<>(
+            publisher -> importer.importFile(file, userId, publisher));
+        worker.onChunk(progress -> {
+            ImportProgress latest = progress.get(progress.size() - 1);
+            busyIndicator.update(worker, "Importing... " + latest.getPercent() + "% (" + latest.getImported() + " rows)");
+        }).onSuccess(this::showImportResult)
+        // Chunks written before the failure stay imported and have been published already
+        .onFailure(e -> JOptionPane.showMessageDialog(this, "Import failed: " + e.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE));
+        
+        busyIndicator.track(worker, "Importing...").start();
+    }
+    
+    private void showImportResult(ImportResult result) {
+        StringBuilder message = new StringBuilder();
+        message.append("Imported ").append(result.getImported()).append(" transactions in ")
+               .append(result.getElapsedMillis() / 1000.0).append(" s.");
+        if (result.getRejected() > 0) {
+            message.append("\n").append(result.getRejected()).append(" rows were rejected:\n");
+            List<ImportError> errors = result.getFirstErrors();
+            for (int i = 0; i < Math.min(5, errors.size()); i++) {
+                ImportError error = errors.get(i);
+                message.append("  Line ").append(error.getLineNumber()).append(": ").append(error.getMessage()).append("\n");
+            }
+            message.append("Full report: ").append(result.getErrorReport());
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), "Import Complete",
+            result.getRejected() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+    }
+    
+    private void exportTransactions() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Transactions");
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("CSV file", "csv"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON file", "json"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("Compressed export (.csv.gz, .json.gz)", "gz"));
+        chooser.setSelectedFile(new File("transactions.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        Path file = chooser.getSelectedFile().toPath();
+        if (file.toFile().exists()) {
+            int confirm = JOptionPane.showConfirmDialog(this, file.getFileName() + " already exists. Replace it?",
+                                                       "Confirm Export", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) {
+                return;
             }
         }
+        int userId = currentUser.getId();
+        TransactionExporter exporter = new TransactionExporter(TransactionExporter.Config.forFile(file));
+        
+        DbWorker<Long, Long> worker = new DbWorker<>(publisher -> exporter.export(userId, file, publisher::accept));
+        worker.onChunk(counts -> busyIndicator.update(worker, "Exporting... " + counts.get(counts.size() - 1) + " rows"))
+            .onSuccess(rows -> JOptionPane.showMessageDialog(this, "Exported " + rows + " transactions to " + file, 
+                                                             "Export Complete", JOptionPane.INFORMATION_MESSAGE))
+            .onFailure(e -> JOptionPane.showMessageDialog(this, "Export failed: " + e.getMessage(), 
+                                                          "Export Error", JOptionPane.ERROR_MESSAGE));
+        
+        busyIndicator.track(worker, "Exporting...").start();
     }
     
     private void loadTransactions() {
-        tableModel.setRowCount(0);
+        tableModel.reload();
+    }
+    
+    /**
+     * Report the rows currently on screen to the paged table model
+     */
+    private void updateVisibleRows() {
+        Rectangle visible = transactionTable.getVisibleRect();
+        int firstRow = transactionTable.rowAtPoint(visible.getLocation());
+        int lastRow = transactionTable.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (lastRow == -1) {
+            lastRow = transactionTable.getRowCount() - 1;
+        }
+        tableModel.setViewport(firstRow, lastRow);
+    }
+    
+    private void updateBalance() {
+        int userId = currentUser.getId();
+        long deltaAtQuery = localDeltaCents;
         
-        String query = "SELECT id, transaction_date, type, category, description, amount FROM transactions WHERE user_id = ? ORDER BY transaction_date DESC";
+        DbWorker<Long, Void> worker = DbWorker.call(() -> transactionDAO.getBalanceCents(userId))
+            .onSuccess(cents -> {
+                // Local changes made while the query ran are added back on top
+                balanceCents = cents + localDeltaCents - deltaAtQuery;
+                showBalance();
+            }).onFailure(e -> JOptionPane.showMessageDialog(this, "Error calculating balance: " + e.getMessage(), 
+                                                            "Database Error", JOptionPane.ERROR_MESSAGE));
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, currentUser.getId());
-            ResultSet rs = stmt.executeQuery();
-            
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy");
-            
-            while (rs.next()) {
-                Object[] row = {
-                    rs.getInt("id"), // Transaction ID (hidden column)
-                    dateFormat.format(rs.getTimestamp("transaction_date")),
-                    rs.getString("type"),
-                    rs.getString("category"),
-                    rs.getString("description"),
-                    String.format("$%.2f", rs.getDouble("amount"))
-                };
-                tableModel.addRow(row);
+        busyIndicator.track(worker, "Updating balance...").start();
+    }
+    
+    /**
+     * Apply a local change to the balance without querying the database
+     * @param deltaCents Signed change in cents
+     */
+    private void adjustBalance(long deltaCents) {
+        localDeltaCents += deltaCents;
+        balanceCents += deltaCents;
+        showBalance();
+    }
+    
+    /**
+     * Apply a batch of committed changes from the event bus to the table and
+     * the balance. Bulk inserts have no ids to place rows by, so they reload
+     * the table once per batch.
+     */
+    private void applyChanges(List<TransactionEvent> events) {
+        long deltaCents = 0;
+        boolean changed = false;
+        boolean reload = false;
+        for (TransactionEvent event : events) {
+            if (event.getUserId() != currentUser.getId()) {
+                continue;
+            }
+            changed = true;
+            deltaCents += event.getBalanceDeltaCents();
+            if (reload) {
+                continue;
+            }
+            switch (event.getType()) {
+                case INSERT:
+                    tableModel.insertTransaction(event.getNewValue());
+                    searchIndex.add(event.getNewValue().getId(), event.getNewValue().getDescription());
+                    descriptionSuggester.add(event.getNewValue());
+                    categoryPredictor.add(event.getNewValue());
+                    break;
+                case UPDATE:
+                    tableModel.updateTransaction(event.getNewValue());
+                    searchIndex.remove(event.getOldValue().getId(), event.getOldValue().getDescription());
+                    searchIndex.add(event.getNewValue().getId(), event.getNewValue().getDescription());
+                    categoryPredictor.remove(event.getOldValue());
+                    categoryPredictor.add(event.getNewValue());
+                    break;
+                case DELETE:
+                    tableModel.removeTransaction(event.getOldValue().getId());
+                    searchIndex.remove(event.getOldValue().getId(), event.getOldValue().getDescription());
+                    categoryPredictor.remove(event.getOldValue());
+                    break;
+                case BULK:
+                    reload = true;
+                    break;
+            }
+        }
+        if (reload) {
+            tableModel.reload();
+            buildIndexes();
+        } else if (changed) {
+            // Later pages of an active search must include the changed rows
+            TransactionQuery query = tableModel.getQuery();
+            if (query.getTextMatchIds() != null) {
+                tableModel.replaceQuery(withSearch(query, query.getText()));
             }
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading transactions: " + e.getMessage(), 
-                                        "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+        if (changed) {
+            updateSearchCount();
+            adjustBalance(deltaCents);
         }
     }
     
-    private void updateBalance() {
-        String query = "SELECT " +
-                      "SUM(CASE WHEN type = 'Income' THEN amount ELSE 0 END) - " +
-                      "SUM(CASE WHEN type = 'Expense' THEN amount ELSE 0 END) as balance " +
-                      "FROM transactions WHERE user_id = ?";
+    /**
+     * Periodically re-read the balance in the background to pick up changes
+     * made elsewhere, e.g. from another session of the same user
+     */
+    private void reconcileBalance() {
+        int userId = currentUser.getId();
+        long deltaAtQuery = localDeltaCents;
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
-            
-            stmt.setInt(1, currentUser.getId());
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                double balance = rs.getDouble("balance");
-                balanceLabel.setText(String.format("$%.2f", balance));
-                
-                if (balance >= 0) {
-                    balanceLabel.setForeground(SUCCESS_COLOR);
-                } else {
-                    balanceLabel.setForeground(DANGER_COLOR);
+        DbWorker.call(() -> transactionDAO.reconcileBalanceCents(userId))
+            .onSuccess(cents -> {
+                // Changes that arrived while the query ran are added back on top. One
+                // committed just before the read may be counted twice until the next run.
+                long reconciled = cents + localDeltaCents - deltaAtQuery;
+                if (reconciled != balanceCents) {
+                    balanceCents = reconciled;
+                    showBalance();
                 }
-            }
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error calculating balance: " + e.getMessage(), 
-                                        "Database Error", JOptionPane.ERROR_MESSAGE);
+            }).onFailure(e -> System.err.println("Error reconciling balance: " + e.getMessage()))
+            .start();
+    }
+    
+    private void showBalance() {
+        balanceLabel.setText(Money.format(balanceCents));
+        
+        if (balanceCents >= 0) {
+            balanceLabel.setForeground(SUCCESS_COLOR);
+        } else {
+            balanceLabel.setForeground(DANGER_COLOR);
         }
     }
     
+    @Override
+    public void dispose() {
+        reconcileTimer.stop();
+        filterTimer.stop();
+        if (indexWorker != null) {
+            indexWorker.cancelQuery();
+        }
+        descriptionPopup.hide();
+        TransactionEventBus.unsubscribe(transactionListener);
+        super.dispose();
+    }
+    
     private void clearInputFields() {
         amountField.setText("");
         descriptionField.setText("");
         typeComboBox.setSelectedIndex(0);
-        categoryComboBox.setSelectedIndex(0);
+        predictingCategory = true;
+        try {
+            categoryComboBox.setSelectedIndex(0);
+        } finally {
+            predictingCategory = false;
+        }
+        categoryChosen = false;
     }
     
     private void openAnalyticsDashboard() {
@@ -281,18 +281,34 @@ public class ModernLoginFrame extends JFrame {
             return;
         }
         
-        User user = userDAO.authenticateUser(username, password);
-        if (user != null) {
-            showModernMessage("Welcome back, " + user.getFullName() + "!", "Login Successful", JOptionPane.INFORMATION_MESSAGE);
-            
-            // Open dashboard
-            SwingUtilities.invokeLater(() -> {
-                new ModernDashboardFrame(user).setVisible(true);
-                dispose();
-            });
-        } else {
-            showModernMessage("Invalid username or password.", "Authentication Failed", JOptionPane.ERROR_MESSAGE);
-        }
+        loginButton.setEnabled(false);
+        loginButton.setText("Signing In...");
+        
+        DbWorker.call(() -> userDAO.authenticateUser(username, password))
+            .onSuccess(user -> {
+                resetLoginButton();
+                if (user != null) {
+                    showModernMessage("Welcome back, " + user.getFullName() + "!", "Login Successful", JOptionPane.INFORMATION_MESSAGE);
+                    
+                    // Open dashboard
+                    SwingUtilities.invokeLater(() -> {
+                        new ModernDashboardFrame(user).setVisible(true);
+                        dispose();
+                    });
+                } else {
+                    showModernMessage("Invalid username or password.", "Authentication Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            })
+            .onFailure(e -> {
+                resetLoginButton();
+                showModernMessage("Login failed: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            })
+            .start();
+    }
+    
+    private void resetLoginButton() {
+        loginButton.setEnabled(true);
+        loginButton.setText("Sign In");
     }
     
     private void handleRegister() {
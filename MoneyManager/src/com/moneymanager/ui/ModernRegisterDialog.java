@@ -23,6 +23,8 @@ public class ModernRegisterDialog extends JDialog {
     private JTextField fullNameField;
     private UserDAO userDAO;
     
+    private enum RegistrationResult { CREATED, USERNAME_TAKEN, FAILED }
+    
     // Modern color scheme
     private static final Color PRIMARY_COLOR = new Color(64, 123, 255);
     private static final Color SECONDARY_COLOR = new Color(108, 117, 125);
@@ -288,20 +290,25 @@ public class ModernRegisterDialog extends JDialog {
             return;
         }
         
-        // Check if username exists
-        if (userDAO.usernameExists(username)) {
-            showMessage("Username already exists. Please choose a different username.", "Username Taken", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-        
-        // Register user
+        // Check if username exists, then register, off the EDT
         User newUser = new User(username, password, email, fullName);
-        if (userDAO.registerUser(newUser)) {
-            showMessage("Account created successfully! You can now sign in.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            dispose();
-        } else {
-            showMessage("Registration failed. Please try again.", "Registration Error", JOptionPane.ERROR_MESSAGE);
-        }
+        DbWorker.call(() -> {
+            if (userDAO.usernameExists(username)) {
+                return RegistrationResult.USERNAME_TAKEN;
+            }
+            return userDAO.registerUser(newUser) ? RegistrationResult.CREATED : RegistrationResult.FAILED;
+        }).onSuccess(result -> {
+            if (result == RegistrationResult.CREATED) {
+                showMessage("Account created successfully! You can now sign in.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                dispose();
+            } else if (result == RegistrationResult.USERNAME_TAKEN) {
+                showMessage("Username already exists. Please choose a different username.", "Username Taken", JOptionPane.ERROR_MESSAGE);
+            } else {
+                showMessage("Registration failed. Please try again.", "Registration Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }).onFailure(e -> 
+            showMessage("Registration failed: " + e.getMessage(), "Registration Error", JOptionPane.ERROR_MESSAGE)
+        ).start();
     }
     
     private void showMessage(String message, String title, int messageType) {
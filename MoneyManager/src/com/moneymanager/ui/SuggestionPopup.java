@@ -0,0 +1,163 @@
+package com.moneymanager.ui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Drop-down list of completions under a text field, refreshed as the user
+ * types. Up and Down pick a completion, Enter or a click accepts it and
+ * Escape closes the list. The field keeps the keyboard focus throughout.
+ */
+public class SuggestionPopup {
+    private final JTextField field;
+    private final Function<String, List<String>> source;
+    private final Consumer<String> onAccept;
+    private final DefaultListModel<String> model = new DefaultListModel<>();
+    private final JList<String> list = new JList<>(model);
+    private JWindow window;
+    // Set while an accepted completion is written to the field
+    private boolean accepting;
+
+    /**
+     * @param field Field to complete
+     * @param source Completions for the text typed so far, best first; called on the EDT
+     * @param onAccept Called with the completion after it was written to the field
+     */
+    public SuggestionPopup(JTextField field, Function<String, List<String>> source, Consumer<String> onAccept) {
+        this.field = field;
+        this.source = source;
+        this.onAccept = onAccept;
+
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    accept(model.get(index));
+                }
+            }
+        });
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { refresh(); }
+            public void removeUpdate(DocumentEvent e) { refresh(); }
+            public void changedUpdate(DocumentEvent e) { refresh(); }
+        });
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!isShowing()) {
+                    return;
+                }
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        select(list.getSelectedIndex() + 1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        select(list.getSelectedIndex() - 1);
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (list.getSelectedValue() != null) {
+                            accept(list.getSelectedValue());
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        hide();
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                hide();
+            }
+        });
+    }
+
+    public boolean isShowing() {
+        return window != null && window.isVisible();
+    }
+
+    public void hide() {
+        if (window != null) {
+            window.setVisible(false);
+        }
+    }
+
+    private void refresh() {
+        if (accepting || !field.isShowing() || !field.hasFocus()) {
+            return;
+        }
+        String text = field.getText();
+        model.clear();
+        if (!text.trim().isEmpty()) {
+            for (String completion : source.apply(text)) {
+                // Nothing to complete once the whole completion is typed
+                if (!completion.equalsIgnoreCase(text.trim())) {
+                    model.addElement(completion);
+                }
+            }
+        }
+        if (model.isEmpty()) {
+            hide();
+            return;
+        }
+        show();
+    }
+
+    private void show() {
+        if (window == null) {
+            window = new JWindow(SwingUtilities.getWindowAncestor(field));
+            window.setFocusableWindowState(false);
+            window.getContentPane().add(new JScrollPane(list));
+        }
+        list.setFont(field.getFont());
+        list.clearSelection();
+        list.setVisibleRowCount(model.size());
+        window.pack();
+        Point location = field.getLocationOnScreen();
+        window.setBounds(location.x, location.y + field.getHeight(),
+                         Math.max(field.getWidth(), window.getWidth()), window.getHeight());
+        window.setVisible(true);
+    }
+
+    private void select(int index) {
+        if (index < 0 || index >= model.size()) {
+            list.clearSelection();
+            return;
+        }
+        list.setSelectedIndex(index);
+        list.ensureIndexIsVisible(index);
+    }
+
+    private void accept(String completion) {
+        accepting = true;
+        try {
+            field.setText(completion);
+        } finally {
+            accepting = false;
+        }
+        hide();
+        onAccept.accept(completion);
+    }
+}
@@ -0,0 +1,88 @@
+package com.moneymanager.ui;
+
+import com.moneymanager.model.Money;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionType;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Renders one column of a {@link Transaction} row.
+ * This is the only place where transaction dates and amounts are turned into text.
+ */
+public class TransactionCellRenderer extends DefaultTableCellRenderer {
+    public static final int COLUMN_ID = 0;
+    public static final int COLUMN_DATE = 1;
+    public static final int COLUMN_TYPE = 2;
+    public static final int COLUMN_CATEGORY = 3;
+    public static final int COLUMN_DESCRIPTION = 4;
+    public static final int COLUMN_AMOUNT = 5;
+    
+    private static final Color ODD_ROW_COLOR = new Color(250, 250, 250);
+    
+    // Renderers only run on the EDT, so the formats are never shared between threads
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy");
+    private final StringBuilder amountText = new StringBuilder(24);
+    private final Date date = new Date();
+    private final Color incomeColor;
+    private final Color expenseColor;
+    
+    public TransactionCellRenderer(Color incomeColor, Color expenseColor) {
+        this.incomeColor = incomeColor;
+        this.expenseColor = expenseColor;
+    }
+    
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, 
+            boolean isSelected, boolean hasFocus, int row, int column) {
+        Transaction transaction = (Transaction) value;
+        int modelColumn = table.convertColumnIndexToModel(column);
+        Component c = super.getTableCellRendererComponent(table, 
+            transaction == null ? placeholder(modelColumn) : format(transaction, modelColumn), 
+            isSelected, hasFocus, row, column);
+        
+        if (!isSelected) {
+            c.setBackground(row % 2 == 0 ? Color.WHITE : ODD_ROW_COLOR);
+            c.setForeground(table.getForeground());
+        }
+        
+        // Color amounts by transaction type
+        if (!isSelected && transaction != null && modelColumn == COLUMN_AMOUNT) {
+            c.setForeground(transaction.getType() == TransactionType.INCOME ? incomeColor : expenseColor);
+        }
+        
+        setHorizontalAlignment(modelColumn == COLUMN_AMOUNT ? SwingConstants.RIGHT : SwingConstants.LEFT);
+        setBorder(BorderFactory.createEmptyBorder(8, 12, 8, 12));
+        return c;
+    }
+    
+    private String format(Transaction transaction, int column) {
+        switch (column) {
+            case COLUMN_ID:
+                return Integer.toString(transaction.getId());
+            case COLUMN_DATE:
+                date.setTime(transaction.getDateMillis());
+                return dateFormat.format(date);
+            case COLUMN_TYPE:
+                return transaction.getType().getDisplayName();
+            case COLUMN_CATEGORY:
+                return transaction.getCategory();
+            case COLUMN_DESCRIPTION:
+                return transaction.getDescription();
+            case COLUMN_AMOUNT:
+                amountText.setLength(0);
+                Money.appendTo(amountText, transaction.getAmountCents());
+                return amountText.toString();
+            default:
+                return "";
+        }
+    }
+    
+    private String placeholder(int column) {
+        return column == COLUMN_DESCRIPTION ? "Loading..." : "";
+    }
+}
@@ -0,0 +1,419 @@
+package com.moneymanager.ui;
+
+import com.moneymanager.dao.TransactionDAO;
+import com.moneymanager.model.Transaction;
+import com.moneymanager.model.TransactionQuery;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Table model that loads a user's transactions page by page, newest first
+ * unless a {@link TransactionQuery} sets another filter or order. Filtering and
+ * sorting run in the database: pages are fetched with keyset pagination on
+ * (sort column, id), the next page is prefetched as the viewport approaches
+ * the end, and pages far away from the viewport drop their rows and are
+ * reloaded on demand.
+ * <p>
+ * Every cell value is the row's {@link Transaction}; {@link TransactionCellRenderer}
+ * formats the column it is asked to paint.
+ */
+public class TransactionTableModel extends AbstractTableModel {
+    public static final int PAGE_SIZE = 200;
+    // Pages further than this from the viewport release their rows
+    private static final int RESIDENT_PAGES = 3;
+    // Start fetching the next page when the viewport is this close to the end
+    private static final int PREFETCH_ROWS = PAGE_SIZE / 2;
+
+    private static final String[] COLUMN_NAMES = {"ID", "Date", "Type", "Category", "Description", "Amount"};
+
+    private final int userId;
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final BusyIndicator busyIndicator;
+    private final Consumer<Exception> onError;
+    private TransactionQuery query = TransactionQuery.ALL;
+
+    private final List<Page> pages = new ArrayList<>();
+    private int[] pageOffsets = new int[]{0};
+    private boolean hasMore = true;
+    private boolean fetchingNext = false;
+    private int firstVisibleRow = 0;
+    private int lastVisibleRow = 0;
+    // Bumped on reload so results of older queries are ignored
+    private int generation = 0;
+    private final List<DbWorker<?, ?>> workers = new ArrayList<>();
+
+    public TransactionTableModel(int userId, BusyIndicator busyIndicator, Consumer<Exception> onError) {
+        this.userId = userId;
+        this.busyIndicator = busyIndicator;
+        this.onError = onError;
+    }
+
+    public TransactionQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Show the transactions matching a filter, in its sort order, starting from the first page
+     */
+    public void setQuery(TransactionQuery query) {
+        this.query = query;
+        reload();
+    }
+
+    /**
+     * Swap in a query that selects the same rows, e.g. with refreshed search
+     * matches, for the pages fetched from now on, without reloading
+     */
+    public void replaceQuery(TransactionQuery query) {
+        this.query = query;
+    }
+
+    /**
+     * Discard all loaded pages and fetch the first page again
+     */
+    public void reload() {
+        for (DbWorker<?, ?> worker : workers) {
+            worker.cancelQuery();
+        }
+        workers.clear();
+        generation++;
+        pages.clear();
+        pageOffsets = new int[]{0};
+        hasMore = true;
+        fetchingNext = false;
+        fireTableDataChanged();
+        fetchNextPage();
+    }
+
+    /**
+     * Tell the model which rows are on screen so it can prefetch and evict pages
+     * @param firstRow First visible row
+     * @param lastRow Last visible row
+     */
+    public void setViewport(int firstRow, int lastRow) {
+        firstVisibleRow = Math.max(0, firstRow);
+        lastVisibleRow = Math.max(firstVisibleRow, lastRow);
+
+        if (hasMore && lastVisibleRow >= getRowCount() - PREFETCH_ROWS) {
+            fetchNextPage();
+        }
+
+        int firstPage = pageIndexOf(firstVisibleRow);
+        int lastPage = pageIndexOf(Math.min(lastVisibleRow, getRowCount() - 1));
+        for (int i = 0; i < pages.size(); i++) {
+            Page page = pages.get(i);
+            boolean resident = i >= firstPage - RESIDENT_PAGES && i <= lastPage + RESIDENT_PAGES;
+            if (!resident) {
+                page.rows = null;
+            } else if (page.rows == null) {
+                reloadPage(i);
+            }
+        }
+    }
+
+    /**
+     * Show a newly inserted transaction at its place in the ordering.
+     * Rows that belong beyond the last loaded page are left for paging to fetch,
+     * and rows the current filter excludes are ignored.
+     * @param transaction Transaction as stored, including its generated id
+     */
+    public void insertTransaction(Transaction transaction) {
+        if (!query.matches(transaction)) {
+            return;
+        }
+        int index = 0;
+        while (index < pages.size() && compare(transaction, pages.get(index).last) > 0) {
+            index++;
+        }
+        if (index == pages.size()) {
+            if (hasMore || fetchingNext) {
+                return;
+            }
+            if (pages.isEmpty()) {
+                pages.add(new Page(new ArrayList<>()));
+            }
+            index = pages.size() - 1;
+        }
+
+        Page page = pages.get(index);
+        int position = page.size;
+        if (page.rows != null) {
+            position = 0;
+            while (position < page.rows.size() && compare(transaction, page.rows.get(position)) > 0) {
+                position++;
+            }
+            page.rows.add(position, transaction);
+        }
+        if (page.last == null || compare(transaction, page.last) > 0) {
+            page.last = transaction;
+        }
+        page.size++;
+        recomputeOffsets();
+        int row = pageOffsets[index] + position;
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Replace a loaded transaction, moving it if its sort value changed and
+     * removing it if it no longer matches the filter
+     * @param transaction Transaction with the new values
+     */
+    public void updateTransaction(Transaction transaction) {
+        int row = rowOf(transaction.getId());
+        if (row < 0) {
+            insertTransaction(transaction);
+            return;
+        }
+        if (!query.matches(transaction)) {
+            removeTransaction(transaction.getId());
+            return;
+        }
+        int pageIndex = pageIndexOf(row);
+        Page page = pages.get(pageIndex);
+        int position = row - pageOffsets[pageIndex];
+        Transaction previous = page.rows.get(position);
+
+        boolean inPlace = compare(previous, transaction) == 0
+            || ((position == 0 || compare(page.rows.get(position - 1), transaction) < 0)
+                && (position == page.rows.size() - 1 || compare(transaction, page.rows.get(position + 1)) < 0)
+                && compare(transaction, page.last) <= 0
+                && (pageIndex == 0 || compare(pages.get(pageIndex - 1).last, transaction) < 0));
+        if (inPlace) {
+            page.rows.set(position, transaction);
+            if (page.last == previous) {
+                page.last = transaction;
+            }
+            fireTableRowsUpdated(row, row);
+        } else {
+            removeTransaction(transaction.getId());
+            insertTransaction(transaction);
+        }
+    }
+
+    /**
+     * Remove a loaded transaction
+     * @param transactionId ID of the deleted transaction
+     */
+    public void removeTransaction(int transactionId) {
+        int row = rowOf(transactionId);
+        if (row < 0) {
+            return;
+        }
+        int pageIndex = pageIndexOf(row);
+        Page page = pages.get(pageIndex);
+        // The page keeps its last key so the boundary to the next page stays put
+        page.rows.remove(row - pageOffsets[pageIndex]);
+        page.size--;
+        recomputeOffsets();
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * Find the row of a transaction among the resident pages
+     * @return Model row, or -1 if it is not loaded
+     */
+    private int rowOf(int transactionId) {
+        for (int i = 0; i < pages.size(); i++) {
+            List<Transaction> rows = pages.get(i).rows;
+            if (rows == null) {
+                continue;
+            }
+            for (int j = 0; j < rows.size(); j++) {
+                if (rows.get(j).getId() == transactionId) {
+                    return pageOffsets[i] + j;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare by display order of the current query
+     */
+    private int compare(Transaction a, Transaction b) {
+        return query.compare(a, b);
+    }
+
+    @Override
+    public int getRowCount() {
+        return pageOffsets[pages.size()];
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return Transaction.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return getTransactionAt(row);
+    }
+
+    /**
+     * Get the transaction shown in a row
+     * @param row Model row
+     * @return Transaction, or null while its page is being reloaded
+     */
+    public Transaction getTransactionAt(int row) {
+        int pageIndex = pageIndexOf(row);
+        Page page = pages.get(pageIndex);
+        if (page.rows == null) {
+            reloadPage(pageIndex);
+            return null;
+        }
+        return page.rows.get(row - pageOffsets[pageIndex]);
+    }
+
+    private int pageIndexOf(int row) {
+        int low = 0;
+        int high = pages.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (pageOffsets[mid] <= row) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void recomputeOffsets() {
+        pageOffsets = new int[pages.size() + 1];
+        for (int i = 0; i < pages.size(); i++) {
+            pageOffsets[i + 1] = pageOffsets[i] + pages.get(i).size;
+        }
+    }
+
+    private void fetchNextPage() {
+        if (fetchingNext || !hasMore) {
+            return;
+        }
+        fetchingNext = true;
+        int requestGeneration = generation;
+        Transaction after = pages.isEmpty() ? null : pages.get(pages.size() - 1).last;
+        TransactionQuery requestQuery = query;
+
+        DbWorker<Page, Void> worker = DbWorker.call(
+            () -> new Page(transactionDAO.findPage(userId, requestQuery, after, null, PAGE_SIZE)));
+        worker.onSuccess(page -> {
+            workers.remove(worker);
+            if (requestGeneration != generation) {
+                return;
+            }
+            fetchingNext = false;
+            hasMore = page.size == PAGE_SIZE;
+            if (page.size == 0) {
+                return;
+            }
+            int firstRow = getRowCount();
+            pages.add(page);
+            recomputeOffsets();
+            fireTableRowsInserted(firstRow, firstRow + page.size - 1);
+
+            // Keep one page ahead of the viewport
+            if (hasMore && lastVisibleRow >= getRowCount() - PAGE_SIZE) {
+                fetchNextPage();
+            }
+        }).onFailure(e -> {
+            workers.remove(worker);
+            if (requestGeneration == generation) {
+                fetchingNext = false;
+                onError.accept(e);
+            }
+        });
+        workers.add(worker);
+        busyIndicator.track(worker, "Loading transactions...").start();
+    }
+
+    /**
+     * Refetch an evicted page between the key of the previous page and its own
+     * last key. The range may have grown since it was first loaded, so it is
+     * read in batches until the last key is reached.
+     */
+    private void reloadPage(int index) {
+        Page page = pages.get(index);
+        if (page.loading) {
+            return;
+        }
+        page.loading = true;
+        int requestGeneration = generation;
+        Transaction after = index == 0 ? null : pages.get(index - 1).last;
+        Transaction until = page.last;
+        TransactionQuery requestQuery = query;
+
+        DbWorker<Page, Void> worker = DbWorker.call(() -> {
+            List<Transaction> rows = new ArrayList<>();
+            Transaction from = after;
+            List<Transaction> batch;
+            do {
+                batch = transactionDAO.findPage(userId, requestQuery, from, until, PAGE_SIZE * 2);
+                rows.addAll(batch);
+                if (!batch.isEmpty()) {
+                    from = batch.get(batch.size() - 1);
+                }
+            } while (batch.size() == PAGE_SIZE * 2);
+            return new Page(rows);
+        });
+        worker.onSuccess(loaded -> {
+            workers.remove(worker);
+            page.loading = false;
+            if (requestGeneration != generation) {
+                return;
+            }
+            page.rows = loaded.rows;
+            if (loaded.size == page.size) {
+                int firstRow = pageOffsets[index];
+                fireTableRowsUpdated(firstRow, firstRow + page.size - 1);
+            } else {
+                // Rows were added or removed in this range since it was first loaded
+                page.size = loaded.size;
+                recomputeOffsets();
+                fireTableDataChanged();
+            }
+        }).onFailure(e -> {
+            workers.remove(worker);
+            page.loading = false;
+            if (requestGeneration == generation) {
+                onError.accept(e);
+            }
+        });
+        workers.add(worker);
+        busyIndicator.track(worker, "Loading transactions...").start();
+    }
+
+    /**
+     * One keyset page. The last key is kept after eviction so the
+     * following page boundary stays stable.
+     */
+    private static class Page {
+        List<Transaction> rows;
+        int size;
+        Transaction last;
+        boolean loading;
+
+        Page(List<Transaction> rows) {
+            this.rows = rows;
+            this.size = rows.size();
+            this.last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        }
+    }
+}
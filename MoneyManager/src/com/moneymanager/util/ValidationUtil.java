@@ -1,5 +1,7 @@
 package com.moneymanager.util;
 
+import com.moneymanager.model.Money;
+
 import java.util.regex.Pattern;
 
 /**
@@ -92,17 +94,16 @@ public class ValidationUtil {
     }
     
     /**
-     * Validate positive number
+     * Validate a positive amount with at most two decimals, as accepted by {@link Money#parse}
      * @param value String value to validate
-     * @return true if valid positive number, false otherwise
+     * @return true if valid positive amount, false otherwise
      */
     public static boolean isValidPositiveNumber(String value) {
-        if (!isValidNumber(value)) {
+        if (isEmpty(value)) {
             return false;
         }
         try {
-            double num = Double.parseDouble(value);
-            return num > 0;
+            return Money.parse(value.trim()) > 0;
         } catch (NumberFormatException e) {
             return false;
         }
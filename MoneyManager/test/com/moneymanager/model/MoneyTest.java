@@ -0,0 +1,88 @@
+package com.moneymanager.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void parsesPlainAmounts() {
+        assertEquals(0, Money.parse("0"));
+        assertEquals(1250, Money.parse("12.5"));
+        assertEquals(1205, Money.parse("12.05"));
+        assertEquals(-300, Money.parse("-3"));
+        assertEquals(99, Money.parse("+0.99"));
+        assertEquals(50, Money.parse(".5"));
+        assertEquals(1200, Money.parse("12."));
+        assertEquals(1234, Money.parse("12.340"));
+    }
+
+    @Test
+    void parsesCurrencySymbolAndSigns() {
+        assertEquals(123456, Money.parse("$1,234.56"));
+        assertEquals(-5, Money.parse("-$0.05"));
+        assertEquals(-5, Money.parse("$-0.05"));
+        assertEquals(700, Money.parse("+$7"));
+    }
+
+    @Test
+    void parsesThousandsSeparators() {
+        assertEquals(100000, Money.parse("1,000"));
+        assertEquals(12345678, Money.parse("123,456.78"));
+        assertEquals(123456789000L, Money.parse("1,234,567,890"));
+        assertEquals(123456789000L, Money.parse("1234567890"));
+    }
+
+    @Test
+    void rejectsMalformedGrouping() {
+        for (String text : new String[]{"1,50", "1,2", "1,2345", "1234,567", "1,234,56", "1,,234",
+                                        ",123", "1,", "1,234,", "$,100", "1,000.5,0"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(text), text);
+        }
+    }
+
+    @Test
+    void rejectsInvalidAmounts() {
+        for (String text : new String[]{"", "-", "$", ".", "abc", "1.2.3", "12.345", "1e3", " 12", "12 ",
+                                        "--1", "$$1", "1-"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(text), text);
+        }
+    }
+
+    @Test
+    void parsesLimitsExactly() {
+        assertEquals(Long.MAX_VALUE, Money.parse("92233720368547758.07"));
+        assertEquals(-Long.MAX_VALUE, Money.parse("-92,233,720,368,547,758.07"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("92233720368547758.08"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("922337203685477580"));
+    }
+
+    @Test
+    void formatsWithGrouping() {
+        assertEquals("$0.00", Money.format(0));
+        assertEquals("$0.05", Money.format(5));
+        assertEquals("-$0.05", Money.format(-5));
+        assertEquals("$999.99", Money.format(99999));
+        assertEquals("$1,000.00", Money.format(100000));
+        assertEquals("$1,234,567.89", Money.format(123456789));
+        assertEquals("-$92,233,720,368,547,758.08", Money.format(Long.MIN_VALUE));
+    }
+
+    @Test
+    void formatsPlain() {
+        assertEquals("0.00", Money.formatPlain(0));
+        assertEquals("1234567.89", Money.formatPlain(123456789));
+        assertEquals("-0.10", Money.formatPlain(-10));
+    }
+
+    @Test
+    void roundTripsFormattedAmounts() {
+        long[] amounts = {0, 1, -1, 99, 100, 123456, -987654321, Long.MAX_VALUE, -Long.MAX_VALUE};
+        for (long cents : amounts) {
+            assertEquals(cents, Money.parse(Money.format(cents)));
+            assertEquals(cents, Money.parse(Money.formatPlain(cents)));
+        }
+    }
+}